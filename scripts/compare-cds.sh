@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+#
+# Cold-start comparison of the Lambda handler with and without the
+# class-data-sharing archive of the cds profile, measured where the archive is
+# trained: in the Lambda base image, started by its runtime interface
+# emulator from the unpacked package. Every run starts a fresh container,
+# invokes the employee list once and records the Init Duration of the REPORT
+# line together with the number of classes loaded from payroll.jsa.
+#
+# Usage: scripts/compare-cds.sh [runs]
+#   SKIP_BUILD=true  reuse an existing target/payroll-aws-h2-0.0.1-cds.zip
+#   LAMBDA_IMAGE     base image of the runtime (default public.ecr.aws/lambda/java:21)
+#   RIE_PORT         host port of the runtime interface emulator (default 9000)
+#
+set -euo pipefail
+
+RUNS=${1:-5}
+LAMBDA_IMAGE=${LAMBDA_IMAGE:-public.ecr.aws/lambda/java:21}
+RIE_PORT=${RIE_PORT:-9000}
+HANDLER=org.cometbid.kubeforce.payroll.StreamLambdaHandler::handleRequest
+INVOKE="http://localhost:$RIE_PORT/2015-03-31/functions/function/invocations"
+EVENT='{"resource":"/{proxy+}","path":"/api/v1/employees","httpMethod":"GET","headers":{},"multiValueHeaders":{},"requestContext":{"stage":"Prod","requestId":"cds-compare","identity":{"sourceIp":"127.0.0.1"}},"isBase64Encoded":false}'
+
+cd "$(dirname "$0")/.."
+
+if [ "${SKIP_BUILD:-false}" != "true" ]; then
+    mvn -q -Pcds -DskipTests package
+fi
+
+# the package as Lambda unpacks it to /var/task
+TASK=$(mktemp -d)
+trap 'rm -rf "$TASK"' EXIT
+unzip -q target/payroll-aws-h2-0.0.1-cds.zip -d "$TASK"
+
+# prints "median=.. min=.. max=.. shared=.." for the given JAVA_TOOL_OPTIONS
+measure() {
+    local samples
+    samples=$(for _ in $(seq "$RUNS"); do
+        local container init shared
+        container=$(docker run -d --rm -p "$RIE_PORT:8080" -v "$TASK:/var/task:ro" \
+            -e SPRING_PROFILES_ACTIVE=lambda -e PAYROLL_COLDSTART_METRICS=false \
+            -e JAVA_TOOL_OPTIONS="$1 -Xlog:class+load=info" "$LAMBDA_IMAGE" "$HANDLER")
+        for _ in $(seq 120); do
+            curl -sf -o /dev/null -d "$EVENT" "$INVOKE" && break
+            sleep 1
+        done
+        init=$(docker logs "$container" 2>&1 | sed -n 's/.*Init Duration: \([0-9]*\).*/\1/p' | head -1)
+        shared=$(docker logs "$container" 2>&1 | grep -c 'source: shared objects file' || true)
+        docker stop "$container" >/dev/null
+        echo "${init:-0} $shared"
+    done)
+
+    echo "$samples" | sort -n -k1 | awk '{ t[NR] = $1; s = $2 } END {
+        printf "median=%d ms min=%d ms max=%d ms shared=%d classes\n", t[int((NR + 1) / 2)], t[1], t[NR], s
+    }'
+}
+
+echo "default JDK archive: $(measure -Xshare:auto)"
+echo "payroll.jsa:         $(measure "-XX:SharedArchiveFile=/var/task/payroll.jsa -Xshare:auto")"
@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+#
+# Startup-time comparison of the annotation-driven bootstrap
+# (PayrollAwsApplication) and the functional bootstrap
+# (PayrollFunctionalApplication). Each mode is started RUNS times with
+# spring.context.exit=onRefresh, so the JVM stops as soon as the context is
+# refreshed, and the wall-clock time of every run is recorded together with
+# the heap in use at that point. The exit is a Runtime.halt from the lifecycle
+# processor, before the context refresh step ends, so HeapUsed/AfterStart of
+# the cold-start metrics is never emitted; the heap is read from the summary
+# of -Xlog:gc+heap+exit instead, the sum of the used space of every heap
+# generation or region set.
+# The annotation-driven bootstrap is measured with and without the lambda
+# profile. spring-boot-devtools is on the build class path, its restart
+# class loader is switched off so it does not add to either mode.
+#
+# Usage: scripts/compare-startup.sh [runs]
+#   EXTRA_JAVA_OPTS  additional JVM options for every run
+#
+set -euo pipefail
+
+RUNS=${1:-5}
+EXTRA_JAVA_OPTS=${EXTRA_JAVA_OPTS:-}
+
+cd "$(dirname "$0")/.."
+
+mvn -q -DskipTests compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+CP="target/classes:$(cat target/classpath.txt)"
+
+# prints "median=.. min=.. max=.. heap=.." for the given main class; time in
+# milliseconds, heap after start as the median in MiB
+measure() {
+    local main=$1
+    shift
+
+    local samples
+    samples=$(for _ in $(seq "$RUNS"); do
+        local start end out heap
+        start=$(date +%s%N)
+        # shellcheck disable=SC2086
+        out=$(java $EXTRA_JAVA_OPTS -Xlog:gc+heap+exit -cp "$CP" -Dspring.context.exit=onRefresh -Dspring.devtools.restart.enabled=false "$@" "$main" 2>/dev/null || true)
+        end=$(date +%s%N)
+        heap=$(echo "$out" | grep 'gc,heap,exit' | sed -nE 's/.* total [0-9]+K, used ([0-9]+)K.*/\1/p' \
+            | awk '{ used += $1 } END { print used * 1024 }')
+        echo "$(( (end - start) / 1000000 )) ${heap:-0}"
+    done)
+
+    local heap_median
+    heap_median=$(echo "$samples" | sort -g -k2 | awk '{ h[NR] = $2 } END { printf "%.1f", h[int((NR + 1) / 2)] / 1048576 }')
+
+    echo "$samples" | sort -n -k1 | awk -v heap="$heap_median" '{ t[NR] = $1 } END {
+        printf "median=%d ms min=%d ms max=%d ms heap=%s MiB\n", t[int((NR + 1) / 2)], t[1], t[NR], heap
+    }'
+}
+
+echo "annotation-driven:         $(measure org.cometbid.kubeforce.payroll.PayrollAwsApplication -Dserver.port=0)"
+echo "annotation-driven, lambda: $(measure org.cometbid.kubeforce.payroll.PayrollAwsApplication -Dserver.port=0 -Dspring.profiles.active=lambda)"
+echo "functional:                $(measure org.cometbid.kubeforce.payroll.PayrollFunctionalApplication)"
@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+#
+# Throughput comparison of the servlet container on platform threads and on
+# virtual threads. The annotation-driven application is started once per mode
+# with the knative profile, only spring.threads.virtual.enabled differs, so
+# the connection pool and the rest of the configuration are the same. Each
+# run is warmed up and then driven with hey at CONCURRENCY parallel clients
+# against the employee list and by-id endpoints. Pinned carrier threads are
+# reported by the JVM (-Djdk.tracePinnedThreads=short) and counted from the
+# application log; the frames holding the monitors are written, most frequent
+# first, to target/load-test-<mode>-pinned.txt.
+#
+# Usage: scripts/load-test.sh [requests] [concurrency]
+#   EXTRA_JAVA_OPTS  additional JVM options for every run
+#   PORT             HTTP port of the application under test (default 8080)
+#   EMPLOYEES        employees created before the runs (default 100)
+#
+set -euo pipefail
+
+REQUESTS=${1:-20000}
+CONCURRENCY=${2:-200}
+EXTRA_JAVA_OPTS=${EXTRA_JAVA_OPTS:-}
+PORT=${PORT:-8080}
+EMPLOYEES=${EMPLOYEES:-100}
+BASE="http://localhost:$PORT/api/v1/employees"
+EMPLOYEE='{"email": "load.test%d@payroll.cometbid.org", "firstName": "Load", "lastName": "Test", "empType": "FULL-TIME", "salary": {"amount": 1500.00, "currency": "USD"}}'
+
+command -v hey >/dev/null || { echo "hey is required (https://github.com/rakyll/hey)" >&2; exit 1; }
+
+cd "$(dirname "$0")/.."
+
+mvn -q -DskipTests compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+CP="target/classes:$(cat target/classpath.txt)"
+
+# prints "list=.. req/s by-id=.. req/s pinned=.." for one mode
+run() {
+    local mode=$1
+    local log=target/load-test-$mode.log
+    shift
+
+    if curl -s -o /dev/null "$BASE"; then
+        echo "port $PORT is already in use" >&2
+        return 1
+    fi
+
+    # shellcheck disable=SC2086
+    java $EXTRA_JAVA_OPTS -cp "$CP" -Dserver.port="$PORT" -Djdk.tracePinnedThreads=short \
+        -Dspring.profiles.active=knative "$@" \
+        org.cometbid.kubeforce.payroll.PayrollAwsApplication >"$log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+
+    # the list answers 404 while the database is empty, any status will do
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE?page=1&size=1")" != 000 ]; do
+        kill -0 $pid 2>/dev/null || { echo "application failed to start, see $log" >&2; return 1; }
+        sleep 0.5
+    done
+
+    local i
+    for i in $(seq "$EMPLOYEES"); do
+        # shellcheck disable=SC2059
+        curl -sf -o /dev/null -H 'Content-Type: application/json' -d "$(printf "$EMPLOYEE" "$i")" "$BASE"
+    done
+
+    local id
+    id=$(curl -sf "$BASE?page=1&size=1" | sed -E 's/.*"empId":"?([^",}]+).*/\1/')
+
+    hey -n 2000 -c 50 "$BASE?page=1&size=20" >/dev/null
+
+    local list byid
+    list=$(hey -n "$REQUESTS" -c "$CONCURRENCY" "$BASE?page=1&size=20" | awk '/Requests\/sec/ { print $2 }')
+    byid=$(hey -n "$REQUESTS" -c "$CONCURRENCY" "$BASE/$id" | awk '/Requests\/sec/ { print $2 }')
+
+    grep '<== monitors' "$log" | sort | uniq -c | sort -rn >"target/load-test-$mode-pinned.txt" || true
+
+    echo "list=$list req/s by-id=$byid req/s pinned=$(grep -c 'onPinned\|<== monitors' "$log" || true)"
+}
+
+# same profile in both modes, only the executor of the requests differs
+echo "platform threads: $(run platform -Dspring.threads.virtual.enabled=false)"
+echo "virtual threads:  $(run virtual -Dspring.threads.virtual.enabled=true)"
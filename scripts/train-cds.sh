@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+#
+# Class-data-sharing training run of the Lambda package, called by the cds
+# Maven profile with the staging directory (target/cds, the shaded jar under
+# lib/). The archive only maps when it was written by the same JVM build and
+# for the same class path, so the run happens inside the Lambda base image:
+# the directory is mounted at /var/task and StreamLambdaHandler is started by
+# the image's runtime interface emulator, with the runtime's own JVM, options
+# and class loaders. A few API events are invoked so the request path is
+# archived as well, then the JVM is stopped with SIGTERM and
+# -XX:ArchiveClassesAtExit writes payroll.jsa.
+#
+# The archive is then checked in a second container with -Xlog:cds and
+# -Xlog:class+load: the run fails when no class is loaded from it.
+#
+# Usage: scripts/train-cds.sh <staging directory>
+#   LAMBDA_IMAGE  base image of the runtime (default public.ecr.aws/lambda/java:21)
+#   RIE_PORT      host port of the runtime interface emulator (default 9000)
+#
+set -euo pipefail
+
+STAGING=$(cd "${1:?staging directory}" && pwd)
+LAMBDA_IMAGE=${LAMBDA_IMAGE:-public.ecr.aws/lambda/java:21}
+RIE_PORT=${RIE_PORT:-9000}
+HANDLER=org.cometbid.kubeforce.payroll.StreamLambdaHandler::handleRequest
+INVOKE="http://localhost:$RIE_PORT/2015-03-31/functions/function/invocations"
+
+command -v docker >/dev/null || { echo "docker is required to train in $LAMBDA_IMAGE" >&2; exit 1; }
+
+rm -rf "$STAGING/out" "$STAGING/payroll.jsa"
+mkdir -p "$STAGING/out"
+chmod 777 "$STAGING/out"
+
+# GET event of the API Gateway REST proxy integration for the given path
+event() {
+    printf '{"resource":"/{proxy+}","path":"%s","httpMethod":"GET","headers":{"Accept":"application/json"},' "$1"
+    printf '"multiValueHeaders":{"Accept":["application/json"]},"requestContext":{"stage":"Prod",'
+    printf '"requestId":"cds-training","identity":{"sourceIp":"127.0.0.1"}},"isBase64Encoded":false}'
+}
+
+# starts the handler in the image with the given JVM options, prints the container id
+start() {
+    docker run -d --rm -p "$RIE_PORT:8080" \
+        -v "$STAGING:/var/task:ro" -v "$STAGING/out:/tmp/cds" \
+        -e SPRING_PROFILES_ACTIVE=lambda -e PAYROLL_COLDSTART_METRICS=false \
+        -e JAVA_TOOL_OPTIONS="$1" \
+        "$LAMBDA_IMAGE" "$HANDLER"
+}
+
+# invokes the given paths once each, the first one retried until the emulator answers
+invoke() {
+    for path in "$@"; do
+        for _ in $(seq 120); do
+            curl -sf -o /dev/null -d "$(event "$path")" "$INVOKE" && break
+            sleep 1
+        done
+    done
+}
+
+container=$(start "-XX:ArchiveClassesAtExit=/tmp/cds/payroll.jsa")
+invoke /api/v1/employees /api/v1/employees/count-all-fields /api/v1/employees/JADO0001
+
+# SIGTERM to the JVM, the archive is written on the way out
+docker exec "$container" sh -c \
+    'for p in /proc/[0-9]*; do tr "\0" " " < "$p/cmdline" | grep -q "^/var/lang/bin/java" && kill -TERM "${p#/proc/}"; done'
+docker wait "$container" >/dev/null 2>&1 || true
+
+[ -s "$STAGING/out/payroll.jsa" ] || { echo "the training run wrote no archive" >&2; exit 1; }
+mv "$STAGING/out/payroll.jsa" "$STAGING/payroll.jsa"
+rm -rf "$STAGING/out"
+
+container=$(start "-XX:SharedArchiveFile=/var/task/payroll.jsa -Xshare:auto -Xlog:cds -Xlog:class+load=info")
+invoke /api/v1/employees
+log=$(docker logs "$container" 2>&1)
+docker stop "$container" >/dev/null
+
+echo "$log" | grep '\[cds\]' | grep -iv 'skipping' || true
+shared=$(echo "$log" | grep -c 'source: shared objects file (top)' || true)
+echo "classes loaded from payroll.jsa: $shared"
+[ "$shared" -gt 0 ] || { echo "payroll.jsa is not used by the runtime of $LAMBDA_IMAGE" >&2; exit 1; }
@@ -29,6 +29,8 @@ import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import org.cometbid.kubeforce.payroll.lambda.SnapStartPrimingResource;
+import org.cometbid.kubeforce.payroll.metrics.ColdStartMetrics;
 
 /**
  *
@@ -38,16 +40,31 @@ public class AppSynchronousLambdaHandler implements RequestHandler<AwsProxyReque
 
     private static SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
 
+    private static SnapStartPrimingResource primingResource;
+
     static {
+        long initStart = ColdStartMetrics.handlerInitStarted(AppSynchronousLambdaHandler.class.getSimpleName());
+
         try {
             handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(PayrollAwsApplication.class);
         } catch (ContainerInitializationException ex) {
             throw new RuntimeException("Unable to load spring boot application", ex);
         }
+
+        ColdStartMetrics.handlerInitCompleted(initStart);
+
+        primingResource = SnapStartPrimingResource.register(AppSynchronousLambdaHandler.class.getSimpleName(),
+                (request, ctx) -> handler.proxy(request, ctx));
     }
 
     @Override
     public AwsProxyResponse handleRequest(AwsProxyRequest input, Context context) {
-        return handler.proxy(input, context);
+        long start = System.nanoTime();
+
+        AwsProxyResponse response = handler.proxy(input, context);
+
+        ColdStartMetrics.firstResponse(start);
+        primingResource.recordInvocation(start);
+        return response;
     }
 }
@@ -30,6 +30,8 @@ import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
 import com.amazonaws.serverless.proxy.spring.SpringBootProxyHandlerBuilder;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.Context;
+import org.cometbid.kubeforce.payroll.config.JpaBootstrapGate;
+import org.cometbid.kubeforce.payroll.lambda.SnapStartPrimingResource;
 
 /**
  *
@@ -39,15 +41,28 @@ public class AsynchronousLambdaHandler implements RequestHandler<AwsProxyRequest
 
     private SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
 
+    private final SnapStartPrimingResource primingResource;
+
     public AsynchronousLambdaHandler() throws ContainerInitializationException {
         handler = (SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse>) new SpringBootProxyHandlerBuilder()
                 .springBootApplication(PayrollAwsApplication.class)
+                // JPA is bootstrapped in the background, the container is
+                // ready as soon as the web layer is
+                .profiles(JpaBootstrapGate.PROFILE)
                 .asyncInit()
                 .buildAndInitialize();
+
+        primingResource = SnapStartPrimingResource.register(AsynchronousLambdaHandler.class.getSimpleName(),
+                (request, ctx) -> handler.proxy(request, ctx));
     }
 
     @Override
     public AwsProxyResponse handleRequest(AwsProxyRequest input, Context context) {
-        return handler.proxy(input, context);
+        long start = System.nanoTime();
+
+        AwsProxyResponse response = handler.proxy(input, context);
+
+        primingResource.recordInvocation(start);
+        return response;
     }
 }
@@ -29,6 +29,8 @@ import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
 import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import org.cometbid.kubeforce.payroll.lambda.SnapStartPrimingResource;
+import org.cometbid.kubeforce.payroll.metrics.ColdStartMetrics;
 
 /**
  *
@@ -38,16 +40,31 @@ public class HttpV2LambdaHandler implements RequestHandler<HttpApiV2ProxyRequest
 
     private static SpringBootLambdaContainerHandler<HttpApiV2ProxyRequest, AwsProxyResponse> handler;
 
+    private static SnapStartPrimingResource primingResource;
+
     static {
+        long initStart = ColdStartMetrics.handlerInitStarted(HttpV2LambdaHandler.class.getSimpleName());
+
         try {
             handler = SpringBootLambdaContainerHandler.getHttpApiV2ProxyHandler(PayrollAwsApplication.class);
         } catch (ContainerInitializationException ex) {
             throw new RuntimeException("Unable to load spring boot application", ex);
         }
+
+        ColdStartMetrics.handlerInitCompleted(initStart);
+
+        primingResource = SnapStartPrimingResource.register(HttpV2LambdaHandler.class.getSimpleName(),
+                (request, ctx) -> handler.proxy(SnapStartPrimingResource.toHttpApiV2Request(request), ctx));
     }
 
     @Override
     public AwsProxyResponse handleRequest(HttpApiV2ProxyRequest input, Context context) {
-        return handler.proxy(input, context);
+        long start = System.nanoTime();
+
+        AwsProxyResponse response = handler.proxy(input, context);
+
+        ColdStartMetrics.firstResponse(start);
+        primingResource.recordInvocation(start);
+        return response;
     }
 }
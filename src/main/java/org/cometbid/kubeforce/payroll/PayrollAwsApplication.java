@@ -23,9 +23,11 @@
  */
 package org.cometbid.kubeforce.payroll;
 
+import org.cometbid.kubeforce.payroll.config.PayrollRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 /**
@@ -35,30 +37,12 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 @EnableWebMvc
 @ComponentScan(basePackages = "org.cometbid.kubeforce.payroll")
 @SpringBootApplication
+@ImportRuntimeHints(PayrollRuntimeHints.class)
 public class PayrollAwsApplication {
 
     public static void main(String[] args) {
-        // Can be used to run the function application locally
+        // Can be used to run the function application locally. The functions
+        // alone, without scanning or MVC, are bootstrapped by PayrollFunctionalApplication
         SpringApplication.run(PayrollAwsApplication.class, args);
-
-        // Uncomment below when deploying to a serverless platforms such as lambda, knative, etc.
-        // FunctionalSpringApplication.run(PayrollAwsApplication.class, args);
-    }
-
-    /*
-    @Bean
-    public EmployeeFunction employeeFunction(final EmployeeRepository employeeRepository) {
-        return new EmployeeFunction(employeeRepository);
-    }
-
-    @Bean
-    public EmployeeConsumer employeeConsumer(final EmployeeRepository employeeRepository) {
-        return new EmployeeConsumer(employeeRepository);
-    }
-
-    @Bean
-    public EmployeeSupplier exampleSupplier(final EmployeeRepository employeeRepository) {
-        return new EmployeeSupplier(employeeRepository);
     }
-     */
 }
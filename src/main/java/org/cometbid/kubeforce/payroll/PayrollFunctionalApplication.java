@@ -0,0 +1,314 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.internal.bind.DateTypeAdapter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.cometbid.kubeforce.payroll.base.JdbcWorkerLeases;
+import org.cometbid.kubeforce.payroll.base.PooledSequenceIdGenerator;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounter;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterReconciler;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterRepository;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterService;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.cometbid.kubeforce.payroll.employee.EmployeeCache;
+import org.cometbid.kubeforce.payroll.employee.EmployeeDeleteRepositoryImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeFinderService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeFinderServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
+import org.cometbid.kubeforce.payroll.employee.EmployeeKeysetRepositoryImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeNaturalIdRepositoryImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeProjectionRepositoryImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeMapper;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.functions.EmployeeConsumer;
+import org.cometbid.kubeforce.payroll.employee.functions.EmployeeFunction;
+import org.cometbid.kubeforce.payroll.employee.functions.EmployeeSupplier;
+import org.cometbid.kubeforce.payroll.gson.util.AnnotationExclusionStrategy;
+import org.cometbid.kubeforce.payroll.gson.util.LocalDateTimeTypeAdapter;
+import org.cometbid.kubeforce.payroll.gson.util.LocalDateTypeAdapter;
+import org.cometbid.kubeforce.payroll.gson.util.MoneyTypeAdapterFactory;
+import org.cometbid.kubeforce.payroll.gson.util.OffsetDateTimeTypeAdapter;
+import org.cometbid.kubeforce.payroll.gson.util.ZonedDateTimeTypeAdapter;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.mapstruct.factory.Mappers;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.cloud.function.context.FunctionRegistration;
+import org.springframework.cloud.function.context.FunctionalSpringApplication;
+import org.springframework.cloud.function.context.catalog.FunctionTypeUtils;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.querydsl.EntityPathResolver;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Functional bootstrap of the payroll functions. Every bean is registered
+ * programmatically: there is no component scanning, no auto-configuration and
+ * no MVC stack, only the data source, JPA, the employee services and the
+ * three functions. {@link SqsEmployeeHandler} runs on the same context.
+ *
+ * On Lambda use {@code org.springframework.cloud.function.adapter.aws.FunctionInvoker}
+ * as handler with {@code MAIN_CLASS} set to this class; locally run
+ * {@link #main(String[])}.
+ *
+ * @author samueladebowale
+ */
+public class PayrollFunctionalApplication implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    static final String TRANSACTION_MANAGER = "transactionManager";
+
+    /**
+     * spring-cloud-function-web is on the class path for the MVC application,
+     * its supplier exporter needs web beans this context does not have.
+     */
+    static final Map<String, Object> DEFAULT_PROPERTIES = Map.of("spring.cloud.function.web.export.enabled", "false");
+
+    public static void main(String[] args) {
+        run(args);
+    }
+
+    /**
+     * Starts the context without a web server, as the handlers and the
+     * command line tools run it.
+     *
+     * @param args
+     * @return
+     */
+    public static ConfigurableApplicationContext run(String... args) {
+        FunctionalSpringApplication application = new FunctionalSpringApplication(PayrollFunctionalApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(DEFAULT_PROPERTIES);
+
+        return application.run(args);
+    }
+
+    @Override
+    public void initialize(GenericApplicationContext context) {
+        registerPersistence(context);
+        registerServices(context);
+        registerFunctions(context);
+    }
+
+    private void registerPersistence(GenericApplicationContext context) {
+        Environment env = context.getEnvironment();
+
+        context.registerBean("dataSource", DataSource.class, () -> DataSourceBuilder.create()
+                .driverClassName(env.getProperty("spring.datasource.driverClassName"))
+                .url(env.getProperty("spring.datasource.url"))
+                .username(env.getProperty("spring.datasource.username"))
+                .password(env.getProperty("spring.datasource.password"))
+                .build());
+
+        context.registerBean("dataSourceInitializer", DataSourceInitializer.class, () -> {
+            DataSourceInitializer initializer = new DataSourceInitializer();
+            initializer.setDataSource(context.getBean(DataSource.class));
+            initializer.setDatabasePopulator(new ResourceDatabasePopulator(
+                    new ClassPathResource("schema.sql"), new ClassPathResource("data.sql")));
+            return initializer;
+        });
+
+        context.registerBean("entityManagerFactory", LocalContainerEntityManagerFactoryBean.class, () -> {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(context.getBean(DataSource.class));
+            factory.setManagedTypes(PersistenceManagedTypes.of(Employee.class.getName(),
+                    EmployeeCounter.class.getName()));
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            // the schema comes from schema.sql, as in the annotation-driven mode
+            // and the second-level cache is set up as in application.yml
+            factory.setJpaPropertyMap(Map.ofEntries(
+                    Map.entry(AvailableSettings.HBM2DDL_AUTO, "none"),
+                    Map.entry(AvailableSettings.JDBC_TIME_ZONE, "UTC"),
+                    Map.entry(AvailableSettings.STATEMENT_BATCH_SIZE, "50"),
+                    Map.entry(AvailableSettings.ORDER_INSERTS, "true"),
+                    Map.entry(AvailableSettings.ORDER_UPDATES, "true"),
+                    Map.entry(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true"),
+                    Map.entry(AvailableSettings.USE_QUERY_CACHE, "true"),
+                    Map.entry(AvailableSettings.CACHE_REGION_FACTORY, "jcache"),
+                    Map.entry(ConfigSettings.PROVIDER, CaffeineCachingProvider.class.getName()),
+                    Map.entry(AvailableSettings.GENERATE_STATISTICS, "true"),
+                    Map.entry(PooledSequenceIdGenerator.ID_GENERATOR, env.getProperty(
+                            "spring.jpa.properties." + PooledSequenceIdGenerator.ID_GENERATOR,
+                            PooledSequenceIdGenerator.SEQUENCE))));
+            return factory;
+        }, bd -> bd.setDependsOn("dataSourceInitializer"));
+
+        context.registerBean(TRANSACTION_MANAGER, PlatformTransactionManager.class,
+                () -> new JpaTransactionManager(context.getBean(EntityManagerFactory.class)));
+
+        context.registerBean(EmployeeRepository.class, () -> {
+            EntityManager entityManager = sharedEntityManager(context);
+
+            // the custom fragments are not scanned for without the repository
+            // infrastructure, they are handed over explicitly
+            return repository(context, EmployeeRepository.class, RepositoryFragments.just(
+                    new EmployeeNaturalIdRepositoryImpl(entityManager),
+                    new EmployeeKeysetRepositoryImpl(entityManager),
+                    new EmployeeProjectionRepositoryImpl(entityManager),
+                    new EmployeeDeleteRepositoryImpl(entityManager)));
+        });
+
+        context.registerBean(EmployeeCounterRepository.class,
+                () -> repository(context, EmployeeCounterRepository.class, RepositoryFragments.empty()));
+    }
+
+    private static EntityManager sharedEntityManager(GenericApplicationContext context) {
+        return SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+    }
+
+    /**
+     * The factory bean the repository scanning would register: its proxies run
+     * in transactions of the transaction manager and translate persistence
+     * exceptions to {@code DataAccessException}s.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <R> R repository(GenericApplicationContext context, Class<R> repositoryInterface,
+            RepositoryFragments fragments) {
+        JpaRepositoryFactoryBean factoryBean = new JpaRepositoryFactoryBean(repositoryInterface);
+        factoryBean.setEntityManager(sharedEntityManager(context));
+        factoryBean.setEntityPathResolver(context.getBeanProvider(EntityPathResolver.class));
+        factoryBean.setTransactionManager(TRANSACTION_MANAGER);
+        factoryBean.setRepositoryFragments(fragments);
+        factoryBean.setBeanClassLoader(context.getClassLoader());
+        factoryBean.setBeanFactory(context.getBeanFactory());
+        factoryBean.afterPropertiesSet();
+
+        return (R) factoryBean.getObject();
+    }
+
+    private void registerServices(GenericApplicationContext context) {
+        context.registerBean(EmployeeBuilder.class, () -> Mappers.getMapper(EmployeeBuilder.class));
+        context.registerBean(EmployeeMapper.class, () -> Mappers.getMapper(EmployeeMapper.class));
+        context.registerBean(Gson.class, PayrollFunctionalApplication::gson);
+
+        Environment env = context.getEnvironment();
+        context.registerBean(EmployeeCache.class, () -> new EmployeeCache(
+                env.getProperty("payroll.employee-cache.maximum-size", Long.class, EmployeeCache.DEFAULT_MAXIMUM_SIZE),
+                Duration.parse(env.getProperty("payroll.employee-cache.ttl", EmployeeCache.DEFAULT_TTL.toString())),
+                Duration.parse(env.getProperty("payroll.employee-cache.miss-ttl",
+                        EmployeeCache.DEFAULT_MISS_TTL.toString()))));
+
+        context.registerBean(EmployeeIdAllocator.class, () -> new EmployeeIdAllocator(
+                new JdbcTemplate(context.getBean(DataSource.class)),
+                context.getBean(PlatformTransactionManager.class),
+                env.getProperty("payroll.employee-id.block-size", Integer.class, EmployeeIdAllocator.DEFAULT_BLOCK_SIZE)));
+
+        context.registerBean(JdbcWorkerLeases.class, () -> new JdbcWorkerLeases(
+                new JdbcTemplate(context.getBean(DataSource.class)),
+                context.getBean(PlatformTransactionManager.class),
+                Duration.parse(env.getProperty("payroll.snowflake.lease-ttl", JdbcWorkerLeases.DEFAULT_TTL.toString()))));
+
+        context.registerBean(EmployeeService.class, () -> new EmployeeServiceImpl(
+                context.getBean(EmployeeRepository.class),
+                context.getBean(EmployeeBuilder.class),
+                context.getBean(EmployeeMapper.class),
+                context.getBean(EmployeeCache.class),
+                context.getBean(EmployeeIdAllocator.class)));
+
+        context.registerBean(EmployeeCounterService.class,
+                () -> new EmployeeCounterServiceImpl(context.getBean(EmployeeCounterRepository.class)));
+
+        context.registerBean(EmployeeCounterReconciler.class, () -> new EmployeeCounterReconciler(
+                context.getBean(EmployeeCounterRepository.class),
+                sharedEntityManager(context),
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class))));
+
+        context.registerBean(EmployeeFinderService.class, () -> new EmployeeFinderServiceImpl(
+                context.getBean(EmployeeRepository.class),
+                context.getBean(EmployeeCounterService.class),
+                context.getBean(EmployeeCache.class)));
+
+        context.registerBean(EmployeeBatchService.class, () -> new EmployeeBatchServiceImpl(
+                context.getBean(EmployeeRepository.class),
+                context.getBean(EmployeeBuilder.class),
+                context.getBean(EmployeeMapper.class),
+                sharedEntityManager(context),
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class)),
+                context.getBean(EmployeeCache.class),
+                context.getBean(EmployeeIdAllocator.class)));
+    }
+
+    private void registerFunctions(GenericApplicationContext context) {
+        Type employeeRequest = ResolvableType.forClassWithGenerics(Map.class, String.class, String.class).getType();
+
+        context.registerBean("employeeFunction", FunctionRegistration.class,
+                () -> new FunctionRegistration<>(new EmployeeFunction(context.getBean(EmployeeRepository.class)), "employeeFunction")
+                        .type(FunctionTypeUtils.functionType(Long.class, Employee.class)));
+
+        context.registerBean("create-emp", FunctionRegistration.class,
+                () -> new FunctionRegistration<>(new EmployeeConsumer(context.getBean(Gson.class), context.getBean(EmployeeService.class)), "create-emp")
+                        .type(FunctionTypeUtils.consumerType(employeeRequest)));
+
+        context.registerBean("employeeSupplier", FunctionRegistration.class,
+                () -> new FunctionRegistration<>(new EmployeeSupplier(context.getBean(EmployeeRepository.class)), "employeeSupplier")
+                        .type(FunctionTypeUtils.supplierType(Employee.class)));
+    }
+
+    static Gson gson() {
+        GsonBuilder b = new GsonBuilder();
+
+        b.setExclusionStrategies(new AnnotationExclusionStrategy());
+        b.registerTypeAdapterFactory(new MoneyTypeAdapterFactory());
+        b.registerTypeAdapterFactory(DateTypeAdapter.FACTORY);
+        b.registerTypeAdapter(LocalDate.class, new LocalDateTypeAdapter());
+        b.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter());
+        b.registerTypeAdapter(ZonedDateTime.class, new ZonedDateTimeTypeAdapter());
+        b.registerTypeAdapter(OffsetDateTime.class, new OffsetDateTimeTypeAdapter());
+        return b.create();
+    }
+}
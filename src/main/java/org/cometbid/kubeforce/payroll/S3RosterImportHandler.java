@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.S3Event;
+import com.amazonaws.services.lambda.runtime.events.models.s3.S3EventNotification.S3EventNotificationRecord;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.cometbid.kubeforce.payroll.importer.ImportCheckpoints;
+import org.cometbid.kubeforce.payroll.importer.ImportReport;
+import org.cometbid.kubeforce.payroll.importer.LocalImportCheckpoints;
+import org.cometbid.kubeforce.payroll.importer.RosterFormat;
+import org.cometbid.kubeforce.payroll.importer.RosterImportEngine;
+import org.cometbid.kubeforce.payroll.importer.RosterReader;
+import org.cometbid.kubeforce.payroll.importer.RosterSource;
+import org.cometbid.kubeforce.payroll.importer.S3ImportCheckpoints;
+import org.cometbid.kubeforce.payroll.importer.S3RosterSource;
+import org.cometbid.kubeforce.payroll.metrics.ColdStartMetrics;
+import org.springframework.context.ConfigurableApplicationContext;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * Imports the roster objects (.csv, .ndjson or .jsonl) of S3 ObjectCreated
+ * events with the {@link RosterImportEngine}, on the context of
+ * {@link PayrollFunctionalApplication}. The checkpoints are kept in the bucket
+ * named by {@code PAYROLL_CHECKPOINT_BUCKET}: an import that failed or ran out
+ * of time continues after its last committed chunk when the event is retried,
+ * on whichever execution environment, and a repeated event for the same upload
+ * skips the roster. Without the variable they are kept in /tmp, which only
+ * helps a retry that lands on the same execution environment.
+ *
+ * An S3 event is tried at most three times, with the 15 minute timeout each.
+ * RosterImportCommand imports about 5,600 rows/s on one vCPU against the
+ * in-memory database, so one attempt covers about 5 million rows and the
+ * three together about 14 million. Rosters that may exceed one attempt
+ * should be split into several objects, each an import of its own.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public class S3RosterImportHandler implements RequestHandler<S3Event, List<ImportReport>> {
+
+    public static final String CHECKPOINT_BUCKET_ENV = "PAYROLL_CHECKPOINT_BUCKET";
+
+    static final Path CHECKPOINT_DIRECTORY = Path.of(System.getProperty("java.io.tmpdir"), "roster-checkpoints");
+
+    private final RosterSource rosterSource;
+    private final RosterImportEngine engine;
+    private final Gson gson;
+
+    public S3RosterImportHandler() {
+        long initStart = ColdStartMetrics.handlerInitStarted(S3RosterImportHandler.class.getSimpleName());
+
+        ConfigurableApplicationContext context = PayrollFunctionalApplication.run();
+
+        S3Client s3Client = S3Client.create();
+        String checkpointBucket = System.getenv(CHECKPOINT_BUCKET_ENV);
+        ImportCheckpoints checkpoints = checkpointBucket == null || checkpointBucket.isBlank()
+                ? new LocalImportCheckpoints(CHECKPOINT_DIRECTORY)
+                : new S3ImportCheckpoints(s3Client, checkpointBucket);
+
+        this.rosterSource = new S3RosterSource(s3Client);
+        this.engine = new RosterImportEngine(context.getBean(EmployeeBuilder.class),
+                context.getBean(EmployeeBatchService.class), checkpoints,
+                RosterImportEngine.DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+        this.gson = context.getBean(Gson.class);
+
+        ColdStartMetrics.handlerInitCompleted(initStart);
+    }
+
+    /**
+     * For tests and local runs, e.g. with a
+     * {@link org.cometbid.kubeforce.payroll.importer.LocalRosterSource}.
+     *
+     * @param rosterSource
+     * @param engine
+     * @param gson
+     */
+    public S3RosterImportHandler(RosterSource rosterSource, RosterImportEngine engine, Gson gson) {
+        this.rosterSource = rosterSource;
+        this.engine = engine;
+        this.gson = gson;
+    }
+
+    @Override
+    public List<ImportReport> handleRequest(S3Event event, Context context) {
+        List<ImportReport> reports = new ArrayList<>();
+
+        for (S3EventNotificationRecord record : event.getRecords()) {
+            String bucket = record.getS3().getBucket().getName();
+            String key = record.getS3().getObject().getUrlDecodedKey();
+            String sequencer = record.getS3().getObject().getSequencer();
+
+            // the sequencer tells uploads of the same key apart
+            String importId = sequencer == null ? bucket + "/" + key : bucket + "/" + key + "@" + sequencer;
+
+            try {
+                reports.add(importObject(bucket, key, importId));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Skipping {}/{}: {}", bucket, key, ex.getMessage());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Import of " + bucket + "/" + key + " failed", ex);
+            }
+        }
+
+        return reports;
+    }
+
+    /**
+     * Imports one roster object.
+     *
+     * @param bucket
+     * @param key
+     * @param importId
+     * @return
+     * @throws IOException
+     * @throws IllegalArgumentException when the key has no roster extension
+     */
+    public ImportReport importObject(String bucket, String key, String importId) throws IOException {
+        RosterFormat format = RosterFormat.fromFileName(key);
+
+        try (InputStream in = rosterSource.open(bucket, key); RosterReader reader = format.open(in, gson)) {
+            return engine.run(importId, reader);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchOutcome;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchService;
+import org.cometbid.kubeforce.payroll.metrics.ColdStartMetrics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Creates employees from batches of SQS messages, each body a
+ * {@link CreateEmployeeRequest} in the JSON of the create-emp function. The
+ * batch is validated and checked as a whole and inserted with JDBC batching by
+ * {@link EmployeeBatchService}. Only the messages whose insert failed are
+ * reported back, so SQS retries just those (the event source mapping needs
+ * {@code ReportBatchItemFailures}, see template.yaml). Messages that can never
+ * be created, unreadable or invalid ones and emails that are taken, are logged
+ * and deleted with the batch; a retry would only reject them again. Messages
+ * that keep failing end up in the dead-letter queue of the template.
+ *
+ * Runs on the context of {@link PayrollFunctionalApplication}, there is no
+ * MVC stack behind a queue.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public class SqsEmployeeHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
+
+    private static final Gson gson;
+
+    private static final EmployeeBatchService employeeBatchService;
+
+    static {
+        long initStart = ColdStartMetrics.handlerInitStarted(SqsEmployeeHandler.class.getSimpleName());
+
+        ConfigurableApplicationContext context = PayrollFunctionalApplication.run();
+
+        gson = context.getBean(Gson.class);
+        employeeBatchService = context.getBean(EmployeeBatchService.class);
+
+        ColdStartMetrics.handlerInitCompleted(initStart);
+    }
+
+    @Override
+    public SQSBatchResponse handleRequest(SQSEvent event, Context lambdaContext) {
+        long start = System.nanoTime();
+
+        List<SQSEvent.SQSMessage> messages = event.getRecords() == null ? List.of() : event.getRecords();
+        Map<String, CreateEmployeeRequest> requests = new LinkedHashMap<>();
+
+        for (SQSEvent.SQSMessage message : messages) {
+            try {
+                requests.put(message.getMessageId(), gson.fromJson(message.getBody(), CreateEmployeeRequest.class));
+            } catch (JsonParseException ex) {
+                log.info("Unreadable create request {}", message.getMessageId(), ex);
+                // null is rejected as invalid, like an empty body
+                requests.put(message.getMessageId(), null);
+            }
+        }
+
+        EmployeeBatchOutcome outcome = employeeBatchService.saveEmployees(requests);
+        if (!outcome.rejected().isEmpty()) {
+            log.warn("Dropped create requests that cannot succeed {}", outcome.rejected());
+        }
+
+        List<SQSBatchResponse.BatchItemFailure> failures = outcome.failed().stream()
+                .map(SQSBatchResponse.BatchItemFailure::new)
+                .toList();
+
+        log.info("Created {} of {} employees, {} rejected, {} to retry",
+                messages.size() - outcome.rejected().size() - failures.size(), messages.size(),
+                outcome.rejected().size(), failures.size());
+
+        ColdStartMetrics.firstResponse(start);
+        return new SQSBatchResponse(failures);
+    }
+}
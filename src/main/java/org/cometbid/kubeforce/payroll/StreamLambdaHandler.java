@@ -24,11 +24,21 @@
 package org.cometbid.kubeforce.payroll;
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.amazonaws.serverless.proxy.AwsProxyExceptionHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.cometbid.kubeforce.payroll.lambda.ApplicationContextProvider;
+import org.cometbid.kubeforce.payroll.lambda.CounterReconcileTrigger;
+import org.cometbid.kubeforce.payroll.lambda.EmployeeDirectRouter;
+import org.cometbid.kubeforce.payroll.lambda.EmployeeDirectRouter.DirectResponse;
+import org.cometbid.kubeforce.payroll.lambda.SnapStartPrimingResource;
+import org.cometbid.kubeforce.payroll.metrics.ColdStartMetrics;
+import org.cometbid.kubeforce.payroll.metrics.RequestMetrics;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -42,7 +52,15 @@ public class StreamLambdaHandler implements RequestStreamHandler {
 
     private static SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
 
+    private static EmployeeDirectRouter router;
+
+    private static SnapStartPrimingResource primingResource;
+
+    private static CounterReconcileTrigger counterReconcileTrigger;
+
     static {
+        long initStart = ColdStartMetrics.handlerInitStarted(StreamLambdaHandler.class.getSimpleName());
+
         try {
             handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(PayrollAwsApplication.class);
         } catch (ContainerInitializationException e) {
@@ -50,11 +68,61 @@ public class StreamLambdaHandler implements RequestStreamHandler {
             //e.printStackTrace();
             throw new RuntimeException("Could not initialize Spring Boot application", e);
         }
+
+        router = EmployeeDirectRouter.create(ApplicationContextProvider.getApplicationContext());
+        counterReconcileTrigger = CounterReconcileTrigger.register(ApplicationContextProvider.getApplicationContext());
+
+        ColdStartMetrics.handlerInitCompleted(initStart);
+
+        primingResource = SnapStartPrimingResource.register(StreamLambdaHandler.class.getSimpleName(),
+                StreamLambdaHandler::dispatch);
     }
 
     @Override
     public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context)
             throws IOException {
-        handler.proxyStream(inputStream, outputStream, context);
+        long start = System.nanoTime();
+        long allocationStart = RequestMetrics.allocatedBytes();
+        OutputStream output = ColdStartMetrics.firstByteTimer(outputStream, start);
+
+        AwsProxyRequest request;
+        try {
+            // bound straight from the input stream, without a copy of the event
+            request = LambdaContainerHandler.getObjectMapper().readValue(inputStream, AwsProxyRequest.class);
+        } catch (JsonProcessingException ex) {
+            // the same answer the container handler gives to an event it cannot read
+            new AwsProxyExceptionHandler().handle(ex, output);
+            output.flush();
+            primingResource.recordInvocation(start);
+            return;
+        }
+
+        handleBuffered(request, output, context, start, allocationStart);
+
+        primingResource.recordInvocation(start);
+        counterReconcileTrigger.afterInvocation();
+    }
+
+    private static void handleBuffered(AwsProxyRequest request, OutputStream output, Context context, long start,
+            long allocationStart) throws IOException {
+        String method = request.getHttpMethod();
+
+        DirectResponse direct = router.route(request);
+        if (direct != null) {
+            direct.writeTo(output);
+            RequestMetrics.record(RequestMetrics.DIRECT_ROUTE, method, direct.statusCode(), start, allocationStart);
+        } else {
+            AwsProxyResponse response = handler.proxy(request, context);
+            LambdaContainerHandler.getObjectMapper().writeValue(output, response);
+            output.flush();
+            RequestMetrics.record(RequestMetrics.CONTAINER_ROUTE, method, response.getStatusCode(), start,
+                    allocationStart);
+        }
+    }
+
+    private static AwsProxyResponse dispatch(AwsProxyRequest request, Context context) {
+        DirectResponse direct = router.route(request);
+
+        return direct != null ? direct.toAwsProxyResponse() : handler.proxy(request, context);
     }
 }
@@ -26,13 +26,13 @@ package org.cometbid.kubeforce.payroll.base;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import java.io.Serializable;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 import org.cometbid.kubeforce.payroll.gson.util.Exclude;
 import org.cometbid.kubeforce.payroll.common.util.ArtifactForFramework;
-import org.springframework.data.annotation.Version;
 
 /**
  *
@@ -51,10 +51,12 @@ public abstract class AbstractEntity<T extends EntityId> implements Entity<T>, S
     private static final long serialVersionUID = 6425982031170127365L;
 
     @Id
+    @PooledSequenceId
     @JsonIgnore
     @Exclude
     protected T id;
 
+    // JPA's optimistic lock, it also versions the second-level cache entries
     @Version
     @JsonIgnore
     @Exclude
@@ -73,6 +75,4 @@ public abstract class AbstractEntity<T extends EntityId> implements Entity<T>, S
         return id;
     }
 
-    protected abstract void setId();
-
 }
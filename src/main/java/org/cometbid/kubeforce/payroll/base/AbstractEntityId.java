@@ -45,6 +45,7 @@ public abstract class AbstractEntityId<T extends Serializable> implements Serial
      */
     private static final long serialVersionUID = 5962381739484024405L;
 
+    @EqualsAndHashCode.Include
     private T id;
 
     @ArtifactForFramework
@@ -23,9 +23,8 @@
  */
 package org.cometbid.kubeforce.payroll.base;
 
-import java.util.Random;
+import java.security.SecureRandom;
 import java.util.UUID;
-import java.util.random.RandomGenerator;
 
 /**
  *
@@ -35,7 +34,9 @@ public class InMemoryUniqueIdGenerator implements UniqueIdGenerator<UUID> {
 
     static final long LEFT_LIMIT = 1L;
     static final long RIGHT_LIMIT = 100_000_000_000_000L;
-    
+
+    private static volatile SecureRandom random = new SecureRandom();
+
     @Override
     public UUID getNextUniqueId() {
         return UUID.randomUUID();
@@ -46,10 +47,27 @@ public class InMemoryUniqueIdGenerator implements UniqueIdGenerator<UUID> {
     }
     
     public static long getNextUniqueLongId() {
-        return RandomGenerator.getDefault().nextLong(LEFT_LIMIT, RIGHT_LIMIT);
+        return random.nextLong(LEFT_LIMIT, RIGHT_LIMIT);
     }
     
+    /**
+     * Time ordered and unique per node, see {@link SnowflakeIdGenerator}.
+     *
+     * @return
+     */
     public static Long generateUniqueLongId() {
-        return new Random().nextLong();
+        return SnowflakeIdGenerator.getInstance().nextId();
+    }
+
+    /**
+     * Replaces the shared random source with a freshly seeded one, leases a
+     * new Snowflake worker id and draws a new UUIDv7 node salt. Must
+     * run after a SnapStart restore, otherwise every restored environment
+     * hands out the same ids.
+     */
+    public static void reseed() {
+        random = new SecureRandom();
+        SnowflakeIdGenerator.getInstance().afterRestore();
+        UuidV7Generator.getInstance().afterRestore();
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.base;
+
+import java.time.Duration;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Worker leases in the worker_lease table, one row per worker id. A lease is
+ * taken over with an update conditioned on its expiry, and a worker id never
+ * leased before is added with an insert on the primary key, so two owners
+ * cannot end up with the same id. Each statement runs in its own short
+ * transaction, not in the one of the insert asking for an id.
+ *
+ * The bean installs itself into the shared {@link SnowflakeIdGenerator}. The
+ * table is only queried once Snowflake ids are generated.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+@Lazy(false)
+@Component
+public class JdbcWorkerLeases implements WorkerLeases, InitializingBean {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private static final int MAX_ATTEMPTS = 10;
+
+    private static final String FIRST_EXPIRED = "select min(worker_id) from worker_lease where expires_at <= ?";
+    private static final String TAKE_OVER = "update worker_lease set owner = ?, expires_at = ? "
+            + "where worker_id = ? and expires_at <= ?";
+    private static final String LAST_WORKER_ID = "select max(worker_id) from worker_lease";
+    private static final String ADD = "insert into worker_lease (worker_id, owner, expires_at) values (?, ?, ?)";
+    private static final String RENEW = "update worker_lease set expires_at = ? "
+            + "where worker_id = ? and owner = ? and expires_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+
+    public JdbcWorkerLeases(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${payroll.snowflake.lease-ttl:PT10M}") Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("The lease time to live must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SnowflakeIdGenerator.getInstance().useLeases(this);
+    }
+
+    @Override
+    public WorkerLease acquire(String owner, long now) {
+        WorkerLease lease = new WorkerLease(-1, owner, now, now + ttlMillis);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Integer workerId = transactionTemplate.execute(status -> takeOverOrAdd(lease));
+
+            if (workerId != null) {
+                return new WorkerLease(workerId, owner, lease.leasedAt(), lease.expiresAt());
+            }
+            log.debug("Worker id taken concurrently, attempt {}", attempt);
+        }
+        throw new IllegalStateException("Could not lease a worker id in " + MAX_ATTEMPTS + " attempts");
+    }
+
+    @Override
+    public WorkerLease renew(WorkerLease lease, long now) {
+        WorkerLease renewed = new WorkerLease(lease.workerId(), lease.owner(), now, now + ttlMillis);
+
+        Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(RENEW,
+                renewed.expiresAt(), lease.workerId(), lease.owner(), now));
+
+        return updated != null && updated == 1 ? renewed : null;
+    }
+
+    // null when another owner was faster
+    private Integer takeOverOrAdd(WorkerLease lease) {
+        long now = lease.leasedAt();
+
+        Integer expired = jdbcTemplate.queryForObject(FIRST_EXPIRED, Integer.class, now);
+        if (expired != null) {
+            int updated = jdbcTemplate.update(TAKE_OVER, lease.owner(), lease.expiresAt(), expired, now);
+            return updated == 1 ? expired : null;
+        }
+
+        Integer last = jdbcTemplate.queryForObject(LAST_WORKER_ID, Integer.class);
+        int workerId = last == null ? 0 : last + 1;
+        if (workerId > SnowflakeIdGenerator.MAX_WORKER_ID) {
+            throw new IllegalStateException("All " + (SnowflakeIdGenerator.MAX_WORKER_ID + 1)
+                    + " worker ids are leased");
+        }
+
+        try {
+            jdbcTemplate.update(ADD, workerId, lease.owner(), lease.expiresAt());
+            return workerId;
+        } catch (DuplicateKeyException ex) {
+            return null;
+        }
+    }
+}
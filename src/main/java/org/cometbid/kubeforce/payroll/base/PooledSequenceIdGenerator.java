@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.base;
+
+import java.lang.reflect.Member;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.Type;
+import org.hibernate.type.descriptor.java.JavaType;
+
+/**
+ * Pooled-lo allocation over a database sequence: the sequence value is the
+ * first id of a block of {@code allocationSize} ids handed out from memory,
+ * each block costing one {@code next value} round trip instead of one per
+ * insert. The long is wrapped into the entity's id type by the id's
+ * {@link JavaType}.
+ *
+ * A SnapStart restore must call {@link #discardPools()}, otherwise every
+ * environment restored from the same snapshot hands out the rest of the block
+ * reserved before the checkpoint.
+ *
+ * With {@code payroll.id.generator=snowflake} in the persistence unit's
+ * properties the ids come from {@link SnowflakeIdGenerator} instead, without
+ * a round trip per block, the worker id of the node being leased from the
+ * worker_lease table.
+ *
+ * The pool is guarded by a {@link ReentrantLock} rather than a monitor: the
+ * refill is a JDBC round trip, and a virtual thread blocked on it inside
+ * {@code synchronized} would pin its carrier for the whole query.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public class PooledSequenceIdGenerator implements BeforeExecutionGenerator {
+
+    private static final long serialVersionUID = -2863150477906138254L;
+
+    public static final String SEQUENCE_SUFFIX = "_id_seq";
+
+    public static final String ID_GENERATOR = "payroll.id.generator";
+    public static final String SEQUENCE = "sequence";
+    public static final String SNOWFLAKE = "snowflake";
+
+    // bumped on restore, blocks reserved in an earlier generation are dropped
+    private static volatile int generation;
+
+    private final String sequenceName;
+    private final int allocationSize;
+    private final boolean snowflake;
+
+    private final ReentrantLock poolLock = new ReentrantLock();
+
+    private long next;
+    private long limit;
+    private int poolGeneration;
+
+    private transient volatile JavaType<Object> idJavaType;
+
+    public PooledSequenceIdGenerator(PooledSequenceId config, Member idMember,
+            CustomIdGeneratorCreationContext creationContext) {
+        if (config.allocationSize() < 1) {
+            throw new IllegalArgumentException("allocationSize must be positive");
+        }
+        this.sequenceName = creationContext.getRootClass().getTable().getName() + SEQUENCE_SUFFIX;
+        this.allocationSize = config.allocationSize();
+
+        Object generator = creationContext.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().getOrDefault(ID_GENERATOR, SEQUENCE);
+        if (!SEQUENCE.equals(generator) && !SNOWFLAKE.equals(generator)) {
+            throw new IllegalArgumentException(ID_GENERATOR + " must be " + SEQUENCE + " or " + SNOWFLAKE);
+        }
+        this.snowflake = SNOWFLAKE.equals(generator);
+    }
+
+    /**
+     * Drops the blocks reserved so far, the next id of every generator comes
+     * from a fresh sequence value.
+     */
+    public static void discardPools() {
+        generation++;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        long id = snowflake ? SnowflakeIdGenerator.getInstance().nextId() : nextValue(session);
+
+        return idJavaType(session, owner).wrap(id, session);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    private long nextValue(SharedSessionContractImplementor session) {
+        poolLock.lock();
+        try {
+            int current = generation;
+
+            if (next >= limit || poolGeneration != current) {
+                long low = selectNextValue(session);
+
+                this.next = low;
+                this.limit = low + allocationSize;
+                this.poolGeneration = current;
+
+                log.debug("Reserved ids [{}, {}) from {}", low, limit, sequenceName);
+            }
+            return next++;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    private long selectNextValue(SharedSessionContractImplementor session) {
+        String sql = session.getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(sequenceName);
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+
+        PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(sql);
+        try {
+            ResultSet rs = jdbcCoordinator.getResultSetReturn().extract(statement, sql);
+            try {
+                if (!rs.next()) {
+                    throw new IdentifierGenerationException("Sequence " + sequenceName + " returned no value");
+                }
+                return rs.getLong(1);
+            } finally {
+                jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(rs, statement);
+            }
+        } catch (SQLException ex) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(ex, "Could not read the next value of " + sequenceName, sql);
+        } finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private JavaType<Object> idJavaType(SharedSessionContractImplementor session, Object owner) {
+        JavaType<Object> javaType = this.idJavaType;
+
+        if (javaType == null) {
+            Type idType = session.getEntityPersister(null, owner).getIdentifierType();
+            if (!(idType instanceof BasicType<?> basicType)) {
+                throw new IdentifierGenerationException("A pooled sequence id must be a basic type, not " + idType);
+            }
+            javaType = (JavaType<Object>) basicType.getJavaTypeDescriptor();
+            this.idJavaType = javaType;
+        }
+        return javaType;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.base;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Snowflake ids: 41 bits of milliseconds since 2024-01-01T00:00Z, 10 bits of
+ * worker id and 12 bits of sequence, positive and time ordered so inserts land
+ * at the right edge of the index.
+ *
+ * The state is the last id handed out, advanced with a CAS: a millisecond
+ * running out of sequence numbers borrows the next one and a clock stepping
+ * back keeps counting from the last id, so ids of a node never repeat nor go
+ * back. As the worker id is part of that value, a new worker id is published
+ * together with the millisecond it starts from.
+ *
+ * The worker id is leased from {@link WorkerLeases} and renewed while ids are
+ * generated, so no two nodes hold the same one. A SnapStart restore must call
+ * {@link #afterRestore()}: the restored environments share the snapshot's
+ * lease, each of them leases its own. Nodes are assumed to agree on the clock
+ * within half of the lease time to live.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public class SnowflakeIdGenerator implements UniqueIdGenerator<Long> {
+
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int WORKER_ID_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+    private static final long TIMESTAMP_UNIT = 1L << TIMESTAMP_SHIFT;
+    private static final long TIMESTAMP_MASK = -TIMESTAMP_UNIT;
+    private static final long WORKER_ID_MASK = (long) MAX_WORKER_ID << SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // no worker id yet
+    private static final long UNLEASED = -1;
+
+    private static final SnowflakeIdGenerator INSTANCE = new SnowflakeIdGenerator(System::currentTimeMillis);
+
+    private final AtomicLong state;
+    private final LongSupplier clock;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    private volatile WorkerLeases leases;
+    private volatile WorkerLease lease;
+    private volatile String owner = UUID.randomUUID().toString();
+
+    /**
+     * A generator with a fixed worker id, which is the caller's to keep
+     * unique.
+     *
+     * @param workerId
+     * @param clock
+     */
+    public SnowflakeIdGenerator(int workerId, LongSupplier clock) {
+        this.state = new AtomicLong((long) checkWorkerId(workerId) << SEQUENCE_BITS);
+        this.clock = clock;
+    }
+
+    /**
+     * A generator leasing its worker id from the given leases on the first id.
+     *
+     * @param leases
+     * @param clock
+     */
+    public SnowflakeIdGenerator(WorkerLeases leases, LongSupplier clock) {
+        this(clock);
+        this.leases = leases;
+    }
+
+    private SnowflakeIdGenerator(LongSupplier clock) {
+        this.state = new AtomicLong(UNLEASED);
+        this.clock = clock;
+    }
+
+    /**
+     * The shared generator, usable once the application installed its worker
+     * leases.
+     *
+     * @return
+     */
+    public static SnowflakeIdGenerator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Leases the worker ids of this generator from now on.
+     *
+     * @param leases
+     */
+    public void useLeases(WorkerLeases leases) {
+        leaseLock.lock();
+        try {
+            this.leases = leases;
+            this.lease = null;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    @Override
+    public Long getNextUniqueId() {
+        return nextId();
+    }
+
+    public long nextId() {
+        long millis = clock.getAsLong();
+
+        WorkerLease current = lease;
+        if (leases != null && (current == null || millis >= current.renewAt())) {
+            renewLease(millis);
+        }
+
+        long now = (millis - EPOCH) << TIMESTAMP_SHIFT;
+        long last;
+        long next;
+
+        do {
+            last = state.get();
+            if (last == UNLEASED) {
+                throw new IllegalStateException("No Snowflake worker id, the worker leases are not installed");
+            }
+
+            long timestamp = last & TIMESTAMP_MASK;
+            if (now > timestamp) {
+                next = now | (last & WORKER_ID_MASK);
+            } else if ((last & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                next = (timestamp + TIMESTAMP_UNIT) | (last & WORKER_ID_MASK);
+            } else {
+                next = last + 1;
+            }
+        } while (!state.compareAndSet(last, next));
+
+        return next;
+    }
+
+    /**
+     *
+     * @return the worker id, or {@code -1} before the first one was leased
+     */
+    public int getWorkerId() {
+        long last = state.get();
+
+        return last == UNLEASED ? -1 : (int) ((last & WORKER_ID_MASK) >>> SEQUENCE_BITS);
+    }
+
+    /**
+     * Leases a new worker id under a new owner once the environment was
+     * restored from a snapshot. Should the database not be reachable yet, the
+     * next id leases it.
+     */
+    public void afterRestore() {
+        if (leases == null) {
+            return;
+        }
+
+        leaseLock.lock();
+        try {
+            this.owner = UUID.randomUUID().toString();
+            this.lease = null;
+
+            renewLease(clock.getAsLong());
+        } catch (RuntimeException ex) {
+            log.warn("Could not lease a Snowflake worker id after restore, the next id will", ex);
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private void renewLease(long millis) {
+        leaseLock.lock();
+        try {
+            WorkerLease current = lease;
+            if (current != null && millis < current.renewAt()) {
+                // renewed by another thread
+                return;
+            }
+
+            WorkerLease renewed = null;
+            if (current != null) {
+                try {
+                    renewed = leases.renew(current, millis);
+                } catch (RuntimeException ex) {
+                    if (millis >= current.expiresAt()) {
+                        throw ex;
+                    }
+                    log.warn("Could not renew the lease of Snowflake worker id {}", current.workerId(), ex);
+                    return;
+                }
+            }
+
+            if (renewed == null) {
+                renewed = leases.acquire(owner, millis);
+                bind(renewed.workerId());
+
+                log.info("Snowflake worker id {} leased until {}", renewed.workerId(),
+                        Instant.ofEpochMilli(renewed.expiresAt()));
+            }
+            this.lease = renewed;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    // the ids of the new worker id start a millisecond after the last one
+    private void bind(int workerId) {
+        long worker = (long) checkWorkerId(workerId) << SEQUENCE_BITS;
+
+        state.updateAndGet(last -> last == UNLEASED ? worker : ((last & TIMESTAMP_MASK) + TIMESTAMP_UNIT) | worker);
+    }
+
+    private static int checkWorkerId(int workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID);
+        }
+        return workerId;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.base;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Version 7 UUIDs of RFC 9562: 48 bits of Unix milliseconds, a 12 bit counter
+ * in rand_a and 62 bits of rand_b. Milliseconds and counter advance as one
+ * CAS'd value, as in {@link SnowflakeIdGenerator}, which keeps the ids of a
+ * node unique and monotonic. rand_b mixes that value with a random node salt,
+ * drawn again after a SnapStart restore, so that nodes do not collide.
+ *
+ * @author samueladebowale
+ */
+public class UuidV7Generator implements UniqueIdGenerator<UUID> {
+
+    static final int COUNTER_BITS = 12;
+
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RAND_B_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private static final UuidV7Generator INSTANCE = new UuidV7Generator(System::currentTimeMillis);
+
+    // Unix milliseconds shifted left of the counter
+    private final AtomicLong state = new AtomicLong();
+    private final LongSupplier clock;
+    private volatile long nodeSalt = new SecureRandom().nextLong();
+
+    public UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static UuidV7Generator getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public UUID getNextUniqueId() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        long current;
+        long next;
+
+        do {
+            current = state.get();
+            next = now > current ? now : current + 1;
+        } while (!state.compareAndSet(current, next));
+
+        long mostSigBits = ((next >>> COUNTER_BITS) << 16) | VERSION | (next & COUNTER_MASK);
+        long leastSigBits = VARIANT | ((nodeSalt ^ mix(next)) & RAND_B_MASK);
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Draws a new node salt, the restored environments would otherwise share
+     * the snapshot's.
+     */
+    public void afterRestore() {
+        this.nodeSalt = new SecureRandom().nextLong();
+    }
+
+    // MurmurHash3's 64 bit finalizer, a bijection
+    private static long mix(long value) {
+        long z = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
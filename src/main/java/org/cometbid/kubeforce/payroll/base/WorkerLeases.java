@@ -0,0 +1,53 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.base;
+
+/**
+ * Hands out the worker ids of {@link SnowflakeIdGenerator}, each to one owner
+ * at a time: an id is only leased again once its lease has expired.
+ *
+ * @author samueladebowale
+ */
+public interface WorkerLeases {
+
+    /**
+     * Leases a worker id that is free or whose lease has expired.
+     *
+     * @param owner unique to the generator, and drawn again after a restore
+     * @param now epoch milliseconds
+     * @return
+     * @throws IllegalStateException when every worker id is leased
+     */
+    WorkerLease acquire(String owner, long now);
+
+    /**
+     * Extends the lease from {@code now}.
+     *
+     * @param lease
+     * @param now epoch milliseconds
+     * @return the extended lease, or {@code null} when it expired and was
+     * taken by another owner
+     */
+    WorkerLease renew(WorkerLease lease, long now);
+}
@@ -57,4 +57,15 @@ public class GenericProgrammaticValidator<T> {
 
         return model;
     }
+
+    /**
+     * Validates without throwing, for callers that collect the invalid models.
+     *
+     * @param <T>
+     * @param model
+     * @return
+     */
+    public static <T> Set<ConstraintViolation<T>> violations(T model) {
+        return validator.validate(model);
+    }
 }
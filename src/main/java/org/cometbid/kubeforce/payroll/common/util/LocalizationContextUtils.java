@@ -52,10 +52,6 @@ public class LocalizationContextUtils {
     public static Map<String, String> mappedLocales = new HashMap<>();
     public static final LocalizationContextUtils ONE_INSTANCE = new LocalizationContextUtils();
 
-    static {
-        ThreadContext.put(THREAD_CONTEXT_LOCALE_KEY, DEFAULT_LANG_CODE);
-    }
-
     private LocalizationContextUtils() {
         Locale[] locales = SimpleDateFormat.getAvailableLocales();
         for (Locale locale : locales) {
@@ -96,7 +92,9 @@ public class LocalizationContextUtils {
     }
 
     public static String getContextLocaleAsString() {
-        return ThreadContext.get(THREAD_CONTEXT_LOCALE_KEY);
+        String localeStr = ThreadContext.get(THREAD_CONTEXT_LOCALE_KEY);
+
+        return StringUtils.isNotBlank(localeStr) ? localeStr : DEFAULT_LANG_CODE;
     }
 
     public static void setContextLocale(String langCode) {
@@ -110,4 +108,13 @@ public class LocalizationContextUtils {
 
         ThreadContext.put(THREAD_CONTEXT_TIMEZONE_KEY, userTimezone);
     }
+
+    /**
+     * Removes the request's locale and timezone from the thread context, so a
+     * pooled thread does not hand them to the next request.
+     */
+    public static void clearContext() {
+        ThreadContext.remove(THREAD_CONTEXT_LOCALE_KEY);
+        ThreadContext.remove(THREAD_CONTEXT_TIMEZONE_KEY);
+    }
 }
@@ -34,7 +34,7 @@ import java.util.Locale;
  */
 public final class RandomUtil {
 
-    private static final SecureRandom secureRandom = new SecureRandom();
+    private static volatile SecureRandom secureRandom = new SecureRandom();
 
     public static final String upper = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
     public static final String lower = upper.toLowerCase(Locale.ROOT);
@@ -77,6 +77,15 @@ public final class RandomUtil {
         return new RandomUtil(length, secureRandom, digits).nextString();
     }
 
+    /**
+     * Replaces the shared {@link SecureRandom} with a freshly seeded instance.
+     * Called after a SnapStart restore so environments restored from the same
+     * snapshot do not produce the same sequence.
+     */
+    public static void reseed() {
+        secureRandom = new SecureRandom();
+    }
+
     /**
      * Generate a random string.
      *
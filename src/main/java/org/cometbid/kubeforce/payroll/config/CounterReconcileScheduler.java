@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.config;
+
+import lombok.RequiredArgsConstructor;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterReconciler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Reconciles the employee counters every
+ * {@code payroll.counters.reconcile-interval}, on long-running deployments
+ * (the knative profile sets it). A Lambda function is frozen between
+ * invocations, there its handler reconciles when it is due, see
+ * {@code CounterReconcileTrigger}.
+ *
+ * @author samueladebowale
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(CounterReconcileScheduler.INTERVAL_PROPERTY)
+@RequiredArgsConstructor
+public class CounterReconcileScheduler {
+
+    public static final String INTERVAL_PROPERTY = "payroll.counters.reconcile-interval";
+
+    private final EmployeeCounterReconciler employeeCounterReconciler;
+
+    @Scheduled(initialDelayString = "${" + INTERVAL_PROPERTY + "}", fixedDelayString = "${" + INTERVAL_PROPERTY + "}")
+    public void reconcileCounters() {
+        employeeCounterReconciler.reconcile();
+    }
+}
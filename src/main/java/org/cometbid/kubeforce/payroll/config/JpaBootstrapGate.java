@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.sql.DataSource;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.exceptions.ServiceUnavailableException;
+import org.cometbid.kubeforce.payroll.metrics.ColdStartMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Background JPA bootstrap for the async-init profile. With
+ * {@code spring.data.jpa.repositories.bootstrap-mode=lazy} the Hibernate
+ * EntityManagerFactory is built on the application task executor while the
+ * web layer is still being created, and this gate then runs schema.sql and
+ * data.sql on the same executor (Boot's own script initializer is switched
+ * off in the profile, it would otherwise block the refresh on the
+ * EntityManagerFactory).
+ *
+ * Registered as an interceptor on the employee routes: those wait until the
+ * database is ready, everything else is served as soon as the context is up.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+@Lazy(false)
+@Component
+@Profile(JpaBootstrapGate.PROFILE)
+public class JpaBootstrapGate implements HandlerInterceptor {
+
+    public static final String PROFILE = "async-init";
+    public static final String PATH_PATTERN = "/api/v1/employees/**";
+
+    private final CompletableFuture<Void> ready;
+    private final Duration timeout;
+
+    public JpaBootstrapGate(EntityManagerFactory entityManagerFactory, DataSource dataSource,
+            ResourceLoader resourceLoader, Environment environment,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor bootstrapExecutor,
+            @Value("${payroll.async-init.jpa-timeout:PT10S}") Duration timeout) {
+
+        this.timeout = timeout;
+
+        SqlDataSourceScriptDatabaseInitializer initializer = new SqlDataSourceScriptDatabaseInitializer(dataSource,
+                sqlInitializationProperties(environment));
+        initializer.setResourceLoader(resourceLoader);
+
+        long start = System.nanoTime();
+
+        this.ready = CompletableFuture.runAsync(() -> {
+            // blocks until the native EntityManagerFactory, and with it the
+            // Hibernate schema, has been built in the background
+            entityManagerFactory.getMetamodel();
+
+            long scriptsStart = System.nanoTime();
+            initializer.initializeDatabase();
+            ColdStartMetrics.record(ColdStartMetrics.SQL_SCRIPTS, System.nanoTime() - scriptsStart);
+
+        }, bootstrapExecutor).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.error("Background JPA bootstrap failed", ex);
+            } else {
+                ColdStartMetrics.record(ColdStartMetrics.JPA_READY, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static SqlInitializationProperties sqlInitializationProperties(Environment environment) {
+        SqlInitializationProperties properties = Binder.get(environment)
+                .bind("spring.sql.init", SqlInitializationProperties.class)
+                .orElseGet(SqlInitializationProperties::new);
+
+        properties.setMode(DatabaseInitializationMode.ALWAYS);
+        return properties;
+    }
+
+    /**
+     *
+     * @return {@code true} once the schema and data scripts have run
+     */
+    public boolean isReady() {
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
+
+    /**
+     * Waits for the background bootstrap, at most for the configured timeout.
+     */
+    public void await() {
+        try {
+            ready.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("exception.UnavailableService", new Object[]{}, ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new ServiceUnavailableException("exception.UnavailableService", new Object[]{}, ex);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        await();
+        return true;
+    }
+}
@@ -33,6 +33,7 @@ import jakarta.validation.Validator;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Locale;
 import org.cometbid.kubeforce.payroll.common.util.CustomLocaleChangeInterceptor;
 import org.cometbid.kubeforce.payroll.common.util.StringToEnumConverter;
@@ -42,8 +43,16 @@ import org.cometbid.kubeforce.payroll.jackson.util.SerializedNameAnnotationIntro
 import org.cometbid.kubeforce.payroll.jackson.util.ZonedDateTimeDeserializer;
 import org.cometbid.kubeforce.payroll.jackson.util.ZonedDateTimeSerializer;
 import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
@@ -63,13 +72,22 @@ import org.zalando.jackson.datatype.money.MoneyModule;
  * @author samueladebowale
  */
 @Configuration
-@ComponentScan(basePackages = "org.cometbid.kubeforce.payroll")
 public class MessageConfig implements WebMvcConfigurer {
 
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private ObjectProvider<AsyncTaskExecutor> applicationTaskExecutor;
+
+    @Autowired
+    private ObjectProvider<JpaBootstrapGate> jpaBootstrapGate;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(localeChangeInterceptor());
         registry.addInterceptor(new RequestInterceptor());
+
+        jpaBootstrapGate.ifAvailable(gate -> registry.addInterceptor(gate)
+                .addPathPatterns(JpaBootstrapGate.PATH_PATTERN));
     }
 
     @Override
@@ -77,6 +95,41 @@ public class MessageConfig implements WebMvcConfigurer {
         registry.addConverter(new StringToEnumConverter());
     }
 
+    /**
+     * With @EnableWebMvc, MVC async requests (StreamingResponseBody) would
+     * otherwise run on a SimpleAsyncTaskExecutor of platform threads; the
+     * application executor follows spring.threads.virtual.enabled.
+     *
+     * @param configurer
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        applicationTaskExecutor.ifAvailable(configurer::setTaskExecutor);
+    }
+
+    /**
+     * With @EnableWebMvc, the JSON converters get a default object mapper
+     * without the money and date modules; they use the application's one.
+     *
+     * @param converters
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .forEach(converter -> ((MappingJackson2HttpMessageConverter) converter).setObjectMapper(objectMapper()));
+    }
+
+    /**
+     * Picked up by the auto-configured task executors.
+     *
+     * @return
+     */
+    @Bean
+    public TaskDecorator threadContextTaskDecorator() {
+        return new ThreadContextTaskDecorator();
+    }
+
     /*
     @Bean
     public LocaleResolver localeResolver() {
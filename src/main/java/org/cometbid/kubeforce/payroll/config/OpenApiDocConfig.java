@@ -27,6 +27,7 @@ import java.util.Arrays;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.PropertySource;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.ExternalDocumentation;
@@ -42,6 +43,7 @@ import io.swagger.v3.oas.models.servers.Server;
  * @author samueladebowale
  */
 @Configuration
+@Profile("!lambda")
 @PropertySource(value = "classpath:application.yml", factory = YamlPropertySourceFactory.class)
 public class OpenApiDocConfig {
 
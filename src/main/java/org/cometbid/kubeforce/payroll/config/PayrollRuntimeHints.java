@@ -0,0 +1,143 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.config;
+
+import java.util.List;
+import org.cometbid.kubeforce.payroll.base.AbstractEntity;
+import org.cometbid.kubeforce.payroll.base.AbstractEntityId;
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeId;
+import org.cometbid.kubeforce.payroll.employee.EmployeeNameDTO;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRequest;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.employee.EmployeeTypeDTO;
+import org.cometbid.kubeforce.payroll.employee.UpdEmployeeRequest;
+import org.cometbid.kubeforce.payroll.gson.util.LocalDateTimeTypeAdapter;
+import org.cometbid.kubeforce.payroll.gson.util.LocalDateTypeAdapter;
+import org.cometbid.kubeforce.payroll.gson.util.MoneyTypeAdapterFactory;
+import org.cometbid.kubeforce.payroll.gson.util.OffsetDateTimeTypeAdapter;
+import org.cometbid.kubeforce.payroll.gson.util.ZonedDateTimeTypeAdapter;
+import org.cometbid.kubeforce.payroll.jackson.util.LocalDateTimeDeserializer;
+import org.cometbid.kubeforce.payroll.jackson.util.LocalDateTimeSerializer;
+import org.cometbid.kubeforce.payroll.jackson.util.OffsetDateTimeDeserializer;
+import org.cometbid.kubeforce.payroll.jackson.util.OffsetDateTimeSerializer;
+import org.cometbid.kubeforce.payroll.jackson.util.SerializedNameAnnotationIntrospector;
+import org.cometbid.kubeforce.payroll.jackson.util.ZonedDateTimeDeserializer;
+import org.cometbid.kubeforce.payroll.jackson.util.ZonedDateTimeSerializer;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection and resource hints for the native-image build. Spring AOT covers
+ * the beans it can see; this registrar adds what is only reached reflectively
+ * at runtime: the Gson adapters and the DTOs Gson binds, the Jackson
+ * (de)serializers and introspector, the MapStruct implementations, the
+ * {@code Employee} entity with its {@code MonetaryAmountType} composite, the
+ * Moneta configuration resources, and the JCache region factory with its
+ * Caffeine provider and configuration. Service providers listed under
+ * {@code META-INF/services} are picked up by native-image itself.
+ *
+ * @author samueladebowale
+ */
+public class PayrollRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final String GSON_PACKAGE = "org.cometbid.kubeforce.payroll.gson.util.";
+    static final String EMPLOYEE_PACKAGE = "org.cometbid.kubeforce.payroll.employee.";
+
+    /**
+     * Types only known by name because they are package-private or generated.
+     */
+    static final List<String> NAMED_TYPES = List.of(
+            GSON_PACKAGE + "MonetaryAmountAdapter",
+            GSON_PACKAGE + "CurrencyUnitAdapter",
+            EMPLOYEE_PACKAGE + "EmployeeBuilderImpl",
+            EMPLOYEE_PACKAGE + "EmployeeMapperImpl",
+            EMPLOYEE_PACKAGE + "EmployeeType$Converter",
+            "io.hypersistence.utils.hibernate.type.money.MonetaryAmountType",
+            "io.hypersistence.utils.hibernate.type.money.MonetaryAmountType$MonetaryAmountMapper",
+            "org.javamoney.moneta.Money",
+            "org.javamoney.moneta.FastMoney",
+            "org.javamoney.moneta.RoundedMoney",
+            "org.javamoney.moneta.spi.PriorityAwareServiceProvider",
+            "org.javamoney.moneta.spi.MonetaryConfig",
+            "org.cometbid.kubeforce.payroll.metrics.HibernateMetamodelTimer",
+            "org.hibernate.cache.jcache.internal.JCacheRegionFactory",
+            "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"
+    );
+
+    static final List<Class<?>> BOUND_TYPES = List.of(
+            Employee.class, EmployeeId.class, EmployeeType.class,
+            AbstractEntity.class, AbstractEntityId.class,
+            EmployeeRequest.class, CreateEmployeeRequest.class, UpdEmployeeRequest.class,
+            EmployeeNameDTO.class, EmployeeTypeDTO.class
+    );
+
+    static final List<Class<?>> ADAPTER_TYPES = List.of(
+            MoneyTypeAdapterFactory.class,
+            LocalDateTimeTypeAdapter.class, LocalDateTypeAdapter.class,
+            OffsetDateTimeTypeAdapter.class, ZonedDateTimeTypeAdapter.class,
+            LocalDateTimeSerializer.class, LocalDateTimeDeserializer.class,
+            OffsetDateTimeSerializer.class, OffsetDateTimeDeserializer.class,
+            ZonedDateTimeSerializer.class, ZonedDateTimeDeserializer.class,
+            SerializedNameAnnotationIntrospector.class
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : BOUND_TYPES) {
+            hints.reflection().registerType(type,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        for (Class<?> type : ADAPTER_TYPES) {
+            hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        for (String type : NAMED_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        hints.reflection().registerType(TypeReference.of("com.google.gson.annotations.SerializedName"),
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        hints.resources()
+                .registerPattern("javamoney.properties")
+                .registerPattern("java-money/defaults/*")
+                .registerPattern("META-INF/services/javax.money.*")
+                .registerPattern("application.conf")
+                .registerPattern("reference.conf")
+                .registerResourceBundle("ValidationMessages");
+    }
+}
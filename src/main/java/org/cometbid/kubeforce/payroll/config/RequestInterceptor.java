@@ -26,6 +26,7 @@ package org.cometbid.kubeforce.payroll.config;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.log4j.Log4j2;
+import org.apache.logging.log4j.ThreadContext;
 import static org.cometbid.kubeforce.payroll.common.util.LocalizationContextUtils.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
@@ -85,5 +86,8 @@ public class RequestInterceptor implements HandlerInterceptor {
             log.info("An error occured while processing request.");
         }
         log.info("3 - after completion.");
+
+        clearContext();
+        ThreadContext.remove(ConfigurationFactory.TRACE_ID_KEY);
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.config;
+
+import java.util.Map;
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the Log4j {@link ThreadContext} of the submitting request (locale,
+ * timezone, trace id) over to the thread that runs its async work, and clears
+ * it again afterwards. Without it, work handed to the task executor, pooled or
+ * virtual, runs with an empty or a stale context.
+ *
+ * @author samueladebowale
+ */
+public class ThreadContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> context = ThreadContext.getImmutableContext();
+
+        return () -> {
+            ThreadContext.putAll(context);
+            try {
+                runnable.run();
+            } finally {
+                ThreadContext.clearMap();
+            }
+        };
+    }
+}
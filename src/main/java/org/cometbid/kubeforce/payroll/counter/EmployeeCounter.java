@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.counter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.ArrayList;
+import java.util.List;
+import javax.money.MonetaryAmount;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+
+/**
+ * A maintained count of employees: the total, one per employee type and one
+ * per salary currency.
+ *
+ * @author samueladebowale
+ */
+@Data
+@Entity(name = "EmployeeCounter")
+@Table(name = "employee_counter")
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeCounter {
+
+    public static final String TOTAL = "total";
+    public static final String TYPE_PREFIX = "type:";
+    public static final String CURRENCY_PREFIX = "currency:";
+
+    @Id
+    @Column(name = "counter_key")
+    private String counterKey;
+
+    @Column(name = "counter_value")
+    private long counterValue;
+
+    /**
+     *
+     * @param type
+     * @return
+     */
+    public static String typeKey(EmployeeType type) {
+        return TYPE_PREFIX + type.name();
+    }
+
+    /**
+     *
+     * @param currencyCode
+     * @return
+     */
+    public static String currencyKey(String currencyCode) {
+        return CURRENCY_PREFIX + currencyCode;
+    }
+
+    /**
+     *
+     * @param type
+     * @param salary
+     * @return the keys of the counters an employee is counted in
+     */
+    public static List<String> keysOf(EmployeeType type, MonetaryAmount salary) {
+        return keysOf(type, salary != null ? salary.getCurrency().getCurrencyCode() : null);
+    }
+
+    /**
+     *
+     * @param type
+     * @param currencyCode the salary currency
+     * @return the keys of the counters an employee is counted in
+     */
+    public static List<String> keysOf(EmployeeType type, String currencyCode) {
+        List<String> keys = new ArrayList<>(3);
+        keys.add(TOTAL);
+
+        if (type != null) {
+            keys.add(typeKey(type));
+        }
+        if (currencyCode != null) {
+            keys.add(currencyKey(currencyCode));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.counter;
+
+import jakarta.persistence.EntityManager;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.hibernate.event.spi.EventSource;
+
+/**
+ * Counts the employees written by bulk statements, which the
+ * {@link EmployeeCounterListener} does not see. The deltas are applied with
+ * those of the listener, before the current transaction commits.
+ *
+ * @author samueladebowale
+ */
+public final class EmployeeCounterAdjuster {
+
+    private EmployeeCounterAdjuster() {
+    }
+
+    /**
+     *
+     * @param entityManager of the transaction that removed the employee
+     * @param type
+     * @param currencyCode the salary currency
+     */
+    public static void removed(EntityManager entityManager, EmployeeType type, String currencyCode) {
+        EmployeeCounterDeltas deltas = EmployeeCounterDeltas.of(entityManager.unwrap(EventSource.class));
+
+        for (String key : EmployeeCounter.keysOf(type, currencyCode)) {
+            deltas.add(key, -1);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.counter;
+
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+
+/**
+ * Counter deltas of one transaction, summed up over its flushes and written
+ * right before it commits, in the same transaction as the employee rows.
+ * Counters are updated in key order, so that concurrent transactions lock
+ * them in the same order.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+final class EmployeeCounterDeltas implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+    /**
+     * Standard SQL MERGE, the counter row is created by the first employee
+     * counted in it.
+     */
+    static final String MERGE = "MERGE INTO employee_counter c "
+            + "USING (VALUES (CAST(? AS VARCHAR(100)), CAST(? AS BIGINT))) d(counter_key, delta) "
+            + "ON c.counter_key = d.counter_key "
+            + "WHEN MATCHED THEN UPDATE SET counter_value = c.counter_value + d.delta "
+            + "WHEN NOT MATCHED THEN INSERT (counter_key, counter_value) VALUES (d.counter_key, d.delta)";
+
+    private static final Map<SharedSessionContractImplementor, EmployeeCounterDeltas> PENDING = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> deltas = new TreeMap<>();
+
+    private EmployeeCounterDeltas() {
+    }
+
+    /**
+     *
+     * @param session
+     * @return the deltas of the current transaction of the session
+     */
+    static EmployeeCounterDeltas of(EventSource session) {
+        return PENDING.computeIfAbsent(session, s -> {
+            EmployeeCounterDeltas deltas = new EmployeeCounterDeltas();
+
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) deltas);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) deltas);
+            return deltas;
+        });
+    }
+
+    void add(String key, long delta) {
+        deltas.merge(key, delta, Long::sum);
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+        PENDING.remove(session);
+
+        session.doWork(connection -> {
+            try (PreparedStatement merge = connection.prepareStatement(MERGE)) {
+                int statements = 0;
+
+                for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+                    if (delta.getValue() != 0) {
+                        merge.setString(1, delta.getKey());
+                        merge.setLong(2, delta.getValue());
+                        merge.addBatch();
+                        statements++;
+                    }
+                }
+
+                if (statements > 0) {
+                    merge.executeBatch();
+                }
+                log.debug("Applied counter deltas {}", deltas);
+            }
+        });
+    }
+
+    @Override
+    public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+        // a rolled back transaction never got to the before completion
+        PENDING.remove(session);
+    }
+}
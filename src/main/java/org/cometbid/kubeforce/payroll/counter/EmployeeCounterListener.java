@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.counter;
+
+import javax.money.MonetaryAmount;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Turns the employee inserts, updates and deletes of a flush into counter
+ * deltas. Bulk JPQL and native statements bypass these events, their callers
+ * adjust the counters with {@link EmployeeCounterAdjuster} or leave it to the
+ * reconciler.
+ *
+ * @author samueladebowale
+ */
+class EmployeeCounterListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String EMPLOYEE_TYPE = "empType";
+    private static final String SALARY = "salary";
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Employee) {
+            count(event.getSession(), event.getPersister(), event.getState(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Employee && event.getOldState() != null) {
+            count(event.getSession(), event.getPersister(), event.getOldState(), -1);
+            count(event.getSession(), event.getPersister(), event.getState(), 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Employee) {
+            count(event.getSession(), event.getPersister(), event.getDeletedState(), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static void count(EventSource session, EntityPersister persister, Object[] state, long delta) {
+        EmployeeCounterDeltas deltas = EmployeeCounterDeltas.of(session);
+
+        Object type = value(persister, state, EMPLOYEE_TYPE);
+        Object salary = value(persister, state, SALARY);
+
+        for (String key : EmployeeCounter.keysOf(type instanceof EmployeeType employeeType ? employeeType : null,
+                salary instanceof MonetaryAmount amount ? amount : null)) {
+            deltas.add(key, delta);
+        }
+    }
+
+    private static Object value(EntityPersister persister, Object[] state, String property) {
+        String[] names = persister.getPropertyNames();
+
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return state[i];
+            }
+        }
+        return null;
+    }
+}
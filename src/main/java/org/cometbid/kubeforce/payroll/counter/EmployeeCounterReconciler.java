@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.counter;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recounts the employees and repairs the counters that drifted, e.g. after
+ * rows were written with plain SQL. The counters are locked first, so the
+ * writers that already counted their employees commit before the recount,
+ * and those that did not yet wait for the repair.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class EmployeeCounterReconciler {
+
+    private static final String CURRENCY_COUNTS = "select sal_currency, count(*) from employee group by sal_currency";
+
+    private final EmployeeCounterRepository counterRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     *
+     * @return the counters that were repaired
+     */
+    public List<CounterDrift> reconcile() {
+        List<CounterDrift> drifts = transactionTemplate.execute(status -> {
+            Map<String, EmployeeCounter> counters = counterRepository.lockAll().stream()
+                    .collect(Collectors.toMap(EmployeeCounter::getCounterKey, Function.identity()));
+            Map<String, Long> actual = actualCounts();
+
+            Set<String> keys = new TreeSet<>(counters.keySet());
+            keys.addAll(actual.keySet());
+
+            List<CounterDrift> repaired = new ArrayList<>();
+            for (String key : keys) {
+                EmployeeCounter counter = counters.get(key);
+                long counted = counter == null ? 0 : counter.getCounterValue();
+                long count = actual.getOrDefault(key, 0L);
+
+                if (counted != count) {
+                    repaired.add(new CounterDrift(key, counted, count));
+
+                    if (counter == null) {
+                        entityManager.persist(new EmployeeCounter(key, count));
+                    } else {
+                        counter.setCounterValue(count);
+                    }
+                }
+            }
+            return repaired;
+        });
+
+        if (drifts.isEmpty()) {
+            log.info("Employee counters are in step");
+        } else {
+            log.warn("Repaired employee counters {}", drifts);
+        }
+        return drifts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> actualCounts() {
+        Map<String, Long> counts = new HashMap<>();
+
+        counts.put(EmployeeCounter.TOTAL,
+                entityManager.createQuery("select count(e) from Employee e", Long.class).getSingleResult());
+
+        for (Object[] row : entityManager.createQuery(
+                "select e.empType, count(e) from Employee e group by e.empType", Object[].class).getResultList()) {
+            if (row[0] != null) {
+                counts.put(EmployeeCounter.typeKey((EmployeeType) row[0]), ((Number) row[1]).longValue());
+            }
+        }
+
+        for (Object[] row : (List<Object[]>) entityManager.createNativeQuery(CURRENCY_COUNTS).getResultList()) {
+            counts.put(EmployeeCounter.currencyKey((String) row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
@@ -30,9 +30,12 @@ import com.google.gson.annotations.SerializedName;
 import io.hypersistence.utils.hibernate.type.money.MonetaryAmountType;
 import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Basic;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -40,21 +43,29 @@ import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import javax.money.MonetaryAmount;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import org.cometbid.kubeforce.payroll.base.AbstractEntity;
-import org.cometbid.kubeforce.payroll.base.InMemoryUniqueIdGenerator;
+import org.cometbid.kubeforce.payroll.gson.util.Exclude;
 import org.cometbid.kubeforce.payroll.validators.MonetaryAmountPositive;
 import org.cometbid.kubeforce.payroll.validators.ValidEmail;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CompositeType;
+import org.hibernate.annotations.JavaTypeRegistration;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.domain.Sort;
 
 /**
@@ -64,6 +75,10 @@ import org.springframework.data.domain.Sort;
 @Data
 @Entity(name = "Employee")
 @Table(name = "employee")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+@NaturalIdCache(region = Employee.NATURAL_ID_CACHE_REGION)
+@JavaTypeRegistration(javaType = EmployeeId.class, descriptorClass = EmployeeIdJavaType.class)
 @NoArgsConstructor
 @ToString(callSuper = true)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = true)
@@ -104,6 +119,26 @@ public class Employee extends AbstractEntity<EmployeeId> {
     @ValidEmail
     private String email;
 
+    /**
+     * Canonical forms of the employee id and email, kept in step by the
+     * setters. They carry the unique indexes, so the case-insensitive lookups
+     * are index seeks and case variants of an email are duplicates. The
+     * employee id key is the natural id, lookups by employee id are resolved
+     * through the natural-id cache.
+     */
+    @Exclude
+    @JsonIgnore
+    @NaturalId
+    @Setter(AccessLevel.NONE)
+    @Column(name = EMPLOYEE_ID_KEY_COL)
+    private String employeeIdKey;
+
+    @Exclude
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = EMAIL_KEY_COL)
+    private String emailKey;
+
     //@SerializedName(EMPLOYEE_TYPE)
     @JsonProperty(EMPLOYEE_TYPE)
     @Column(name = EMPLOYEE_TYPE_COL)
@@ -151,9 +186,45 @@ public class Employee extends AbstractEntity<EmployeeId> {
         //this.employeeId = employeeId;
         this.empType = empType;
         this.email = email;
+        this.emailKey = emailKey(email);
         this.salary = salary;
     }
 
+    public void setEmployeeId(String employeeId) {
+        this.employeeId = employeeId;
+        this.employeeIdKey = employeeIdKey(employeeId);
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailKey = emailKey(email);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void canonicalizeKeys() {
+        this.employeeIdKey = employeeIdKey(this.employeeId);
+        this.emailKey = emailKey(this.email);
+    }
+
+    /**
+     *
+     * @param employeeId
+     * @return the value of the employee id key column
+     */
+    public static String employeeIdKey(String employeeId) {
+        return employeeId == null ? null : employeeId.strip().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     *
+     * @param email
+     * @return the value of the email key column
+     */
+    public static String emailKey(String email) {
+        return email == null ? null : email.strip().toLowerCase(Locale.ROOT);
+    }
+
     public String getEmpType() {
         return this.empType != null ? this.empType.name() : null;
     }
@@ -167,12 +238,17 @@ public class Employee extends AbstractEntity<EmployeeId> {
         return this.version;
     }
 
+    // ================================================================================
+    public static final String CACHE_REGION = "employee";
+    public static final String NATURAL_ID_CACHE_REGION = "employee-natural-id";
+
     // ================================================================================
     public static final String DEFAULT_SORTFIELD = "employeeId";
     public static final Sort DEFAULT_SORT = Sort.by(DEFAULT_SORTFIELD);
 
     // ================================================================================
-    public static final Map<String, String> defaultFields = Collections.synchronizedMap(new HashMap<>());
+    // read-only after class initialization, so it needs no lock on the request path
+    public static final Map<String, String> defaultFields = mappedDefaultFields();
     //public static final Map<String, String> optionalFieldsPropertyMapping = Collections.synchronizedMap(new HashMap<>());
 
     /**
@@ -204,24 +280,29 @@ public class Employee extends AbstractEntity<EmployeeId> {
     public static final String EMPLOYEE_ID_COL = "EMPLOYEE_ID";
     public static final String EMPLOYEE_TYPE_COL = "EMPLOYEE_TYPE";
     public static final String EMAIL_COL = "EMAIL";
+    public static final String EMPLOYEE_ID_KEY_COL = "EMPLOYEE_ID_KEY";
+    public static final String EMAIL_KEY_COL = "EMAIL_KEY";
     public static final String SALARY_AMT_COL = "sal_amount";
     public static final String SALARY_CURR_COL = "sal_currency";
     public static final String EMPLOYMENT_DATE_COL = "creation_date";
 
-    static {
-        defaultFields.put(FIRST_NAME, FIRSTNAME_COL);
-        defaultFields.put(LAST_NAME, LASTNAME_COL);
-        defaultFields.put(MIDDLE_NAME, MIDDLENAME_COL);
-        defaultFields.put(EMPLOYEE_ID, EMPLOYEE_ID_COL);
-        defaultFields.put(EMPLOYEE_TYPE, EMPLOYEE_TYPE_COL);
-        defaultFields.put(EMAIL, EMAIL_COL);
-        defaultFields.put(SALARY + PERIOD_CHAR + AMOUNT, SALARY_AMT_COL);
-        defaultFields.put(SALARY + PERIOD_CHAR + CURRENCY, SALARY_CURR_COL);
-        defaultFields.put(CREATION_DATETIME, EMPLOYMENT_DATE_COL);
+    private static Map<String, String> mappedDefaultFields() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(FIRST_NAME, FIRSTNAME_COL);
+        fields.put(LAST_NAME, LASTNAME_COL);
+        fields.put(MIDDLE_NAME, MIDDLENAME_COL);
+        fields.put(EMPLOYEE_ID, EMPLOYEE_ID_COL);
+        fields.put(EMPLOYEE_TYPE, EMPLOYEE_TYPE_COL);
+        fields.put(EMAIL, EMAIL_COL);
+        fields.put(SALARY + PERIOD_CHAR + AMOUNT, SALARY_AMT_COL);
+        fields.put(SALARY + PERIOD_CHAR + CURRENCY, SALARY_CURR_COL);
+        fields.put(CREATION_DATETIME, EMPLOYMENT_DATE_COL);
+
+        return Collections.unmodifiableMap(fields);
     }
 
     public static Optional<String> getMappedField(String jsonField) {
-        return Optional.of(defaultFields.get(jsonField));
+        return Optional.ofNullable(defaultFields.get(jsonField));
     }
 
     public static Collection<String> getMappedDefaultFields() {
@@ -244,11 +325,4 @@ public class Employee extends AbstractEntity<EmployeeId> {
         return all;
     }
 
-    @Override
-    protected void setId() {
-        Long empId = InMemoryUniqueIdGenerator.generateUniqueLongId();
-
-        this.id = new EmployeeId(empId);
-    }
-
 }
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One item of a batch request, told apart by its {@code op} property.
+ *
+ * @author samueladebowale
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = EmployeeBatchOperation.OP)
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = EmployeeBatchOperation.Create.class, name = EmployeeBatchOperation.CREATE),
+    @JsonSubTypes.Type(value = EmployeeBatchOperation.Update.class, name = EmployeeBatchOperation.UPDATE),
+    @JsonSubTypes.Type(value = EmployeeBatchOperation.Delete.class, name = EmployeeBatchOperation.DELETE)
+})
+public sealed interface EmployeeBatchOperation {
+
+    String OP = "op";
+    String CREATE = "create";
+    String UPDATE = "update";
+    String DELETE = "delete";
+
+    /**
+     *
+     * @return the name of the operation
+     */
+    @JsonIgnore
+    String op();
+
+    /**
+     *
+     * @return the employee id the operation targets, none for a create
+     */
+    String empId();
+
+    /**
+     *
+     * @param employee
+     */
+    record Create(@Valid @NotNull @JsonProperty("employee") CreateEmployeeRequest employee)
+            implements EmployeeBatchOperation {
+
+        @Override
+        public String op() {
+            return CREATE;
+        }
+
+        @Override
+        public String empId() {
+            return null;
+        }
+    }
+
+    /**
+     *
+     * @param empId
+     * @param employee
+     */
+    record Update(@NotBlank(message = "{emp.notSpecified}") @JsonProperty(Employee.EMPLOYEE_ID) String empId,
+            @Valid @NotNull @JsonProperty("employee") UpdEmployeeRequest employee) implements EmployeeBatchOperation {
+
+        @Override
+        public String op() {
+            return UPDATE;
+        }
+    }
+
+    /**
+     *
+     * @param empId
+     */
+    record Delete(@NotBlank(message = "{emp.notSpecified}") @JsonProperty(Employee.EMPLOYEE_ID) String empId)
+            implements EmployeeBatchOperation {
+
+        @Override
+        public String op() {
+            return DELETE;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.util.Set;
+
+/**
+ * Keys of the employees of a batch that were not inserted, by whether a retry
+ * can succeed.
+ *
+ * @param rejected invalid requests and emails that are taken, a retry is
+ * rejected again
+ * @param failed employees whose transaction failed, such as an email taken
+ * concurrently or a lost connection, a retry may insert them
+ *
+ * @author samueladebowale
+ */
+public record EmployeeBatchOutcome(Set<String> rejected, Set<String> failed) {
+
+    /**
+     *
+     * @return {@code true} when every employee was inserted
+     */
+    public boolean isComplete() {
+        return rejected.isEmpty() && failed.isEmpty();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes employees a batch at a time, for the queue consumers and the batch
+ * endpoint.
+ *
+ * @author samueladebowale
+ */
+public interface EmployeeBatchService {
+
+    /**
+     * Validates the whole batch, checks the emails with one query and inserts
+     * the accepted requests in a single transaction.
+     *
+     * @param requests create requests by a key of the caller, such as the
+     * message id
+     * @return keys of the requests that were not created
+     */
+    EmployeeBatchOutcome saveEmployees(Map<String, CreateEmployeeRequest> requests);
+
+    /**
+     * Inserts employees that were already validated and mapped, checking the
+     * emails with one query, in a single transaction.
+     *
+     * @param employees employees by a key of the caller
+     * @return keys of the employees that were not inserted
+     */
+    EmployeeBatchOutcome insertEmployees(Map<String, Employee> employees);
+
+    /**
+     * Validates every operation and checks the emails and employee ids with
+     * one query each, then applies the creates, updates and deletes in a
+     * single transaction. Either all operations are applied or none is.
+     *
+     * @param operations
+     * @return a result per operation, in the order of the operations
+     */
+    List<EmployeeBatchResult> applyOperations(List<EmployeeBatchOperation> operations);
+}
@@ -0,0 +1,325 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.common.util.GenericProgrammaticValidator;
+import org.cometbid.kubeforce.payroll.common.util.ResourceBundleAccessor;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class EmployeeBatchServiceImpl implements EmployeeBatchService {
+
+    /**
+     * Same as hibernate.jdbc.batch_size, the persistence context is flushed
+     * and cleared after every JDBC batch.
+     */
+    static final int BATCH_SIZE = 50;
+
+    /**
+     * Upper bound of the operations of one batch request, they are all held
+     * in the persistence context until the commit.
+     */
+    public static final int MAX_OPERATIONS = 500;
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeBuilder employeeBuilder;
+    private final EmployeeMapper employeeMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeCache employeeCache;
+    private final EmployeeIdAllocator employeeIdAllocator;
+
+    /**
+     *
+     * @param requests
+     * @return
+     */
+    @Override
+    public EmployeeBatchOutcome saveEmployees(Map<String, CreateEmployeeRequest> requests) {
+        Set<String> rejected = new LinkedHashSet<>();
+        Map<String, Employee> employees = new LinkedHashMap<>();
+
+        requests.forEach((key, request) -> {
+            if (request == null || !GenericProgrammaticValidator.violations(request).isEmpty()) {
+                log.info("Invalid create request {}", key);
+                rejected.add(key);
+            } else {
+                employees.put(key, employeeBuilder.toEmployeeEntity(request));
+            }
+        });
+
+        EmployeeBatchOutcome inserted = insertEmployees(employees);
+
+        rejected.addAll(inserted.rejected());
+        return new EmployeeBatchOutcome(rejected, inserted.failed());
+    }
+
+    /**
+     *
+     * @param employees
+     * @return
+     */
+    @Override
+    public EmployeeBatchOutcome insertEmployees(Map<String, Employee> employees) {
+        Set<String> rejected = new LinkedHashSet<>();
+        Map<String, String> keysByEmail = new LinkedHashMap<>();
+
+        employees.forEach((key, employee) -> {
+            String emailKey = Employee.emailKey(employee.getEmail());
+            if (keysByEmail.putIfAbsent(emailKey, key) != null) {
+                // the first employee of the batch wins, the retry of this one
+                // is then rejected by the email check
+                log.info("Email of {} is taken by {} in the same batch", key, keysByEmail.get(emailKey));
+                rejected.add(key);
+            }
+        });
+
+        if (keysByEmail.isEmpty()) {
+            return new EmployeeBatchOutcome(rejected, Set.of());
+        }
+
+        for (String email : employeeRepository.findExistingEmailKeys(keysByEmail.keySet())) {
+            log.info("Employee with email {} already exists", email);
+            rejected.add(keysByEmail.remove(email));
+        }
+
+        List<Employee> accepted = keysByEmail.values().stream().map(employees::get).toList();
+        if (accepted.isEmpty()) {
+            return new EmployeeBatchOutcome(rejected, Set.of());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(accepted));
+        } catch (RuntimeException ex) {
+            // e.g. an email taken concurrently; the whole batch is retried, and
+            // the email check then rejects the employee that lost the race
+            log.warn("Batch insert of {} employees failed", accepted.size(), ex);
+            return new EmployeeBatchOutcome(rejected, new LinkedHashSet<>(keysByEmail.values()));
+        }
+
+        return new EmployeeBatchOutcome(rejected, Set.of());
+    }
+
+    private void insert(List<Employee> employees) {
+        for (int i = 0; i < employees.size(); i++) {
+            employeeIdAllocator.assign(employees.get(i));
+            entityManager.persist(employees.get(i));
+            // a lookup may have cached the generated id as unknown
+            employeeCache.evict(employees.get(i).getEmployeeId());
+
+            if ((i + 1) % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+
+    /**
+     *
+     * @param operations
+     * @return
+     */
+    @Override
+    public List<EmployeeBatchResult> applyOperations(List<EmployeeBatchOperation> operations) {
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_OPERATIONS) {
+            throw new InvalidRequestException(message("batch.size", MAX_OPERATIONS));
+        }
+
+        EmployeeBatchResult[] failures = new EmployeeBatchResult[operations.size()];
+        Map<String, Integer> emails = new HashMap<>();
+        Map<String, Integer> employeeIds = new HashMap<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            EmployeeBatchOperation operation = operations.get(i);
+            if (operation == null) {
+                failures[i] = failure(i, null, HttpStatus.BAD_REQUEST, HttpStatus.BAD_REQUEST.getReasonPhrase());
+                continue;
+            }
+
+            Set<ConstraintViolation<EmployeeBatchOperation>> violations = GenericProgrammaticValidator.violations(operation);
+            if (!violations.isEmpty()) {
+                failures[i] = failure(i, operation, HttpStatus.BAD_REQUEST, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            // an employee is touched once per batch, so the outcome does not
+            // depend on the order the statements are flushed in
+            Integer first = operation instanceof EmployeeBatchOperation.Create create
+                    ? emails.putIfAbsent(Employee.emailKey(create.employee().getEmail()), i)
+                    : employeeIds.putIfAbsent(Employee.employeeIdKey(operation.empId()), i);
+            if (first != null) {
+                failures[i] = failure(i, operation, HttpStatus.CONFLICT, message("batch.repeated", first));
+            }
+        }
+
+        if (firstFailure(failures) >= 0) {
+            return rejected(operations, failures);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                List<EmployeeBatchResult> results = apply(operations, emails, employeeIds, failures);
+                if (results == null) {
+                    status.setRollbackOnly();
+                    return rejected(operations, failures);
+                }
+                return results;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // e.g. an email taken concurrently, raised by the flush on commit
+            log.warn("Batch of {} operations failed", operations.size(), ex);
+
+            for (int i = 0; i < failures.length; i++) {
+                failures[i] = failure(i, operations.get(i), HttpStatus.CONFLICT, message("batch.conflict"));
+            }
+            return List.of(failures);
+        }
+    }
+
+    /**
+     * Checks the targets of the batch with one query per kind, then queues
+     * the statements. Nothing is flushed before the commit, so that Hibernate
+     * orders the inserts, updates and deletes into JDBC batches.
+     *
+     * @return the results, or null when an operation failed
+     */
+    private List<EmployeeBatchResult> apply(List<EmployeeBatchOperation> operations, Map<String, Integer> emails,
+            Map<String, Integer> employeeIds, EmployeeBatchResult[] failures) {
+
+        if (!emails.isEmpty()) {
+            for (String email : employeeRepository.findExistingEmailKeys(emails.keySet())) {
+                Integer i = emails.get(email);
+                if (i != null) {
+                    failures[i] = failure(i, operations.get(i), HttpStatus.CONFLICT,
+                            message("employee.alreadyExist", "email: " + email));
+                }
+            }
+        }
+
+        Map<String, Employee> employees = employeeIds.isEmpty() ? Map.of()
+                : employeeRepository.findByEmployeeIdKeyIn(employeeIds.keySet()).stream()
+                        .collect(Collectors.toMap(Employee::getEmployeeIdKey, Function.identity()));
+
+        employeeIds.forEach((employeeId, i) -> {
+            if (!employees.containsKey(employeeId)) {
+                failures[i] = failure(i, operations.get(i), HttpStatus.NOT_FOUND,
+                        message("employee.notfound.byEmpId", operations.get(i).empId()));
+            }
+        });
+
+        if (firstFailure(failures) >= 0) {
+            return null;
+        }
+
+        List<EmployeeBatchResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            results.add(switch (operations.get(i)) {
+                case EmployeeBatchOperation.Create create -> {
+                    Employee employee = employeeBuilder.toEmployeeEntity(create.employee());
+                    employeeIdAllocator.assign(employee);
+                    entityManager.persist(employee);
+                    employeeCache.evict(employee.getEmployeeId());
+
+                    yield new EmployeeBatchResult(i, create.op(), HttpStatus.CREATED.value(),
+                            employee.getEmployeeId(), null);
+                }
+                case EmployeeBatchOperation.Update update -> {
+                    Employee employee = employees.get(Employee.employeeIdKey(update.empId()));
+                    employeeMapper.updateEmployee(employee, update.employee());
+                    employeeCache.evict(employee.getEmployeeId());
+
+                    yield new EmployeeBatchResult(i, update.op(), HttpStatus.OK.value(),
+                            employee.getEmployeeId(), null);
+                }
+                case EmployeeBatchOperation.Delete delete -> {
+                    Employee employee = employees.get(Employee.employeeIdKey(delete.empId()));
+                    entityManager.remove(employee);
+                    employeeCache.evict(employee.getEmployeeId());
+
+                    yield new EmployeeBatchResult(i, delete.op(), HttpStatus.OK.value(),
+                            employee.getEmployeeId(), null);
+                }
+            });
+        }
+        return results;
+    }
+
+    private static List<EmployeeBatchResult> rejected(List<EmployeeBatchOperation> operations,
+            EmployeeBatchResult[] failures) {
+        int first = firstFailure(failures);
+
+        List<EmployeeBatchResult> results = new ArrayList<>(failures.length);
+        for (int i = 0; i < failures.length; i++) {
+            results.add(failures[i] != null ? failures[i]
+                    : failure(i, operations.get(i), HttpStatus.FAILED_DEPENDENCY, message("batch.notApplied", first)));
+        }
+        return results;
+    }
+
+    private static int firstFailure(EmployeeBatchResult[] failures) {
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static EmployeeBatchResult failure(int index, EmployeeBatchOperation operation, HttpStatus status,
+            String message) {
+        return operation == null
+                ? new EmployeeBatchResult(index, null, status.value(), null, message)
+                : new EmployeeBatchResult(index, operation.op(), status.value(), operation.empId(), message);
+    }
+
+    private static String message(String key, Object... args) {
+        return ResourceBundleAccessor.accessMessageInBundle(key, args);
+    }
+}
@@ -23,7 +23,6 @@
  */
 package org.cometbid.kubeforce.payroll.employee;
 
-import io.micrometer.common.util.StringUtils;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.text.ParseException;
@@ -34,7 +33,6 @@ import javax.money.format.MonetaryAmountFormat;
 import javax.money.format.MonetaryFormats;
 import lombok.extern.log4j.Log4j2;
 import org.cometbid.kubeforce.payroll.common.util.LocalizationContextUtils;
-import org.cometbid.kubeforce.payroll.common.util.RandomUtil;
 import org.cometbid.kubeforce.payroll.common.util.TimeZonesConverter;
 import org.javamoney.moneta.Money;
 import org.mapstruct.AfterMapping;
@@ -59,25 +57,9 @@ public abstract class EmployeeBuilder {
     @Mapping(source = "toUpdate.lastName", target = "lastName")
     @Mapping(source = "toUpdate.middleName", target = "middleName")
     @Mapping(source = "toUpdate.salary", target = "salary")
-    @Mapping(source = "toUpdate.employeeType", target = "empType")
-    public abstract Employee updateEmployee(Employee employee, UpdEmployeeRequest toUpdate);
-
-    static String generateEmployeeIdBy(Employee emp) {
-
-        String firstName = emp.getFirstName();
-        String lastName = emp.getLastName();
-        String middleName = emp.getMiddleName();
-
-        String res1 = firstName.length() > 2 ? firstName.substring(0, 2) : "";
-        String res2 = StringUtils.isBlank(middleName) ? "" : middleName.substring(0, 1);
-        String res3 = lastName.length() > 2 ? lastName.substring(0, 2) : "";
-        String res4 = res1 + res2 + res3;
-
-        final String digits = RandomUtil.getRandomDigitsOnly(4);
-
-        String finalResult = res4 + digits;
-        return finalResult.toUpperCase();
-    }
+    @Mapping(target = "empType", expression = "java(EmployeeType.fromString(toUpdate.getEmployeeType()))")
+    // in place, a copy would lose the id and the version of the loaded employee
+    public abstract void updateEmployee(@MappingTarget Employee employee, UpdEmployeeRequest toUpdate);
 
     @BeforeMapping
     protected void enrichUpdEmployeeType(UpdEmployeeRequest dto, @MappingTarget Employee employee) {
@@ -99,8 +81,7 @@ public abstract class EmployeeBuilder {
 
     @AfterMapping
     protected void convertToEntity(@MappingTarget Employee employee) {
-        employee.setEmployeeId(generateEmployeeIdBy(employee));
-        employee.setId();
+        // the employee id is given by EmployeeIdAllocator when the employee is saved
 
         OffsetDateTime instZonedTime = TimeZonesConverter.getOffsetDateTimeInUTC();
         employee.setCreationDate(instZonedTime);
@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import org.cometbid.kubeforce.payroll.metrics.CacheStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Employees as returned by the lookup by employee id, keyed by the employee id
+ * key. Misses are cached too, for a shorter time, so repeated lookups of an
+ * unknown id are answered without the database either. Concurrent lookups of
+ * the same key wait for one load.
+ *
+ * The cache is local to the container: writes evict their employees here, the
+ * entries of other containers expire with the time-to-live.
+ *
+ * @author samueladebowale
+ */
+@Component
+public class EmployeeCache {
+
+    public static final String NAME = "employee-responses";
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_MISS_TTL = Duration.ofSeconds(30);
+
+    private final Cache<String, Optional<Employee>> employees;
+
+    public EmployeeCache(@Value("${payroll.employee-cache.maximum-size:10000}") long maximumSize,
+            @Value("${payroll.employee-cache.ttl:PT5M}") Duration ttl,
+            @Value("${payroll.employee-cache.miss-ttl:PT30S}") Duration missTtl) {
+        this.employees = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new WriteExpiry(ttl.toNanos(), missTtl.toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     *
+     * @param employeeId
+     * @param loader reads the employee by its employee id key on a miss
+     * @return
+     */
+    public Optional<Employee> get(String employeeId, Function<String, Optional<Employee>> loader) {
+        return employees.get(Employee.employeeIdKey(employeeId), loader);
+    }
+
+    /**
+     * Refreshes the entry of a written employee, the write must be
+     * committed.
+     *
+     * @param employee
+     */
+    public void put(Employee employee) {
+        String key = employee.getEmployeeIdKey();
+        if (key == null) {
+            return;
+        }
+        employees.put(key, Optional.of(employee));
+    }
+
+    /**
+     * Evicts the employee now and, within a transaction, again once it
+     * completed, so that a lookup racing the transaction cannot leave its
+     * former state behind.
+     *
+     * @param employeeId
+     */
+    public void evict(String employeeId) {
+        String key = Employee.employeeIdKey(employeeId);
+        if (key == null) {
+            return;
+        }
+        employees.invalidate(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    employees.invalidate(key);
+                }
+            });
+        }
+    }
+
+    /**
+     *
+     * @return
+     */
+    public CacheStatistics.Region statistics() {
+        CacheStats stats = employees.stats();
+
+        return new CacheStatistics.Region(NAME, stats.hitCount(), stats.missCount(), stats.loadSuccessCount(),
+                employees.estimatedSize());
+    }
+
+    /**
+     * Entries live for the time-to-live of a hit or a miss from their last
+     * write, reads do not extend them.
+     */
+    private record WriteExpiry(long ttlNanos, long missTtlNanos) implements Expiry<String, Optional<Employee>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<Employee> employee, long currentTime) {
+            return employee.isPresent() ? ttlNanos : missTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<Employee> employee, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(key, employee, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<Employee> employee, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -23,15 +23,26 @@
  */
 package org.cometbid.kubeforce.payroll.employee;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.common.util.KeysetPage;
 import org.cometbid.kubeforce.payroll.common.util.PagingFactory;
+import org.cometbid.kubeforce.payroll.common.util.ResourceBundleAccessor;
 import org.cometbid.kubeforce.payroll.common.util.SimplePage;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterService;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounts;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import org.cometbid.kubeforce.payroll.metrics.CacheStatistics;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
@@ -43,9 +54,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -61,7 +74,11 @@ public class EmployeeController {
 
     private final EmployeeService employeeService;
     private final EmployeeFinderService employeeFinderService;
-    private final EmployeeRepository employeeRepository;
+    private final EmployeeBatchService employeeBatchService;
+    private final EmployeeCounterService employeeCounterService;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EmployeeCache employeeCache;
 
     /**
      *
@@ -70,13 +87,37 @@ public class EmployeeController {
     @GetMapping("count")
     public ResponseEntity<String> countEmployees() {
 
-        String response = "All employee Count: " + employeeRepository.count();
+        String response = "All employee Count: " + employeeCounterService.total();
 
         return ResponseEntity.ok()
                 .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                 .body(response);
     }
 
+    /**
+     * Employee totals, per employee type and per salary currency.
+     *
+     * @return
+     */
+    @GetMapping("counters")
+    public ResponseEntity<EmployeeCounts> employeeCounters() {
+
+        return ResponseEntity.ok(employeeCounterService.counts());
+    }
+
+    /**
+     * Hits and misses of the employee caches, of the responses and of
+     * Hibernate.
+     *
+     * @return
+     */
+    @GetMapping("cache-statistics")
+    public ResponseEntity<CacheStatistics> cacheStatistics() {
+
+        return ResponseEntity.ok(CacheStatistics.of(employeeCache.statistics(), entityManagerFactory,
+                Employee.CACHE_REGION, Employee.NATURAL_ID_CACHE_REGION));
+    }
+
     /**
      *
      * @return
@@ -119,14 +160,100 @@ public class EmployeeController {
     }
 
     /**
+     * Sparse fieldset of the listing, only the JSON fields named by
+     * {@code fields} are read and returned, e.g.
+     * {@code fields=firstName,email,salary.amount}.
+     *
+     * @param qparams
+     * @return
+     */
+    @GetMapping(params = {EmployeeFields.FIELDS, EmployeeCursor.PAGINATION + "!=" + EmployeeCursor.CURSOR})
+    public ResponseEntity<SimplePage<Map<String, Object>>> allEmployeeFields(@RequestParam Map<String, String> qparams) {
+        log.info("Request params: {}", qparams);
+
+        EmployeeFields fields = EmployeeFields.parse(qparams.get(EmployeeFields.FIELDS));
+        Pageable pageable = PagingFactory.preparePageRequest(qparams);
+
+        SimplePage<Map<String, Object>> page = employeeFinderService.findAll(fields, pageable);
+
+        HttpStatus status = page.getTotalElements() == 0 ? HttpStatus.NOT_FOUND : HttpStatus.OK;
+
+        return ResponseEntity.status(status)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .body(page);
+    }
+
+    /**
+     * Cursor mode of the listing, selected with {@code pagination=cursor}. A
+     * page continues after the {@code cursor} of the previous one, and the
+     * total is only counted with {@code count=true}.
+     *
+     * @param qparams
+     * @return
+     */
+    @GetMapping(params = EmployeeCursor.PAGINATION + "=" + EmployeeCursor.CURSOR)
+    public ResponseEntity<KeysetPage<Employee>> employeesByCursor(@RequestParam Map<String, String> qparams) {
+        log.info("Request params: {}", qparams);
+
+        if (qparams.containsKey(EmployeeFields.FIELDS)) {
+            throw new InvalidRequestException(
+                    ResourceBundleAccessor.accessMessageInBundle("fields.cursor", new Object[]{}));
+        }
+
+        EmployeeCursor cursor = EmployeeCursor.from(qparams);
+        int size = PagingFactory.createPagingModel(qparams).getSize();
+        boolean withCount = Boolean.parseBoolean(qparams.get(EmployeeCursor.COUNT));
+
+        KeysetPage<Employee> page = employeeFinderService.findAll(cursor, size, withCount);
+
+        HttpStatus status = page.content().isEmpty() && cursor.isFirst() ? HttpStatus.NOT_FOUND : HttpStatus.OK;
+
+        return ResponseEntity.status(status)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .body(page);
+    }
+
+    /**
+     * All employees as newline-delimited JSON, written while the rows are
+     * read.
      *
-     * @param employeeId
      * @return
      */
+    @GetMapping(path = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        EmployeeStreamWriter writer = new EmployeeStreamWriter(employeeFinderService, objectMapper);
+
+        return ResponseEntity.ok()
+                .header("Content-Type", MediaType.APPLICATION_NDJSON_VALUE)
+                .body(writer::writeNdjson);
+    }
+
+    /**
+     *
+     * @param employeeId
+     * @return the employee, tagged with its version
+     */
     @GetMapping("/{empId}")
     public ResponseEntity<Employee> searchEmployeesById(@PathVariable("empId") String employeeId) {
         Employee employee = this.employeeFinderService.findByEmpId(employeeId);
 
+        return ResponseEntity.ok()
+                .eTag(EmployeeETag.of(employee))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .body(employee);
+    }
+
+    /**
+     *
+     * @param employeeId
+     * @param fields
+     * @return the JSON fields named by {@code fields}
+     */
+    @GetMapping(path = "/{empId}", params = EmployeeFields.FIELDS)
+    public ResponseEntity<Map<String, Object>> searchEmployeeFieldsById(@PathVariable("empId") String employeeId,
+            @RequestParam(EmployeeFields.FIELDS) String fields) {
+        Map<String, Object> employee = this.employeeFinderService.findByEmpId(employeeId, EmployeeFields.parse(fields));
+
         return ResponseEntity.ok()
                 .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                 .body(employee);
@@ -152,53 +279,104 @@ public class EmployeeController {
     }
 
     /**
+     * Creates, updates and deletes employees in one transaction. The status is
+     * that of the first operation that failed, when one did, and nothing is
+     * applied then.
+     *
+     * @param operations
+     * @return
+     */
+    @PostMapping("batch")
+    public ResponseEntity<List<EmployeeBatchResult>> batchEmployees(@RequestBody List<EmployeeBatchOperation> operations) {
+        List<EmployeeBatchResult> results = this.employeeBatchService.applyOperations(operations);
+
+        HttpStatusCode status = results.stream()
+                .filter(result -> !result.isApplied() && result.status() != HttpStatus.FAILED_DEPENDENCY.value())
+                .map(result -> HttpStatusCode.valueOf(result.status()))
+                .findFirst()
+                .orElse(HttpStatus.OK);
+
+        return ResponseEntity.status(status)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .body(results);
+    }
+
+    /**
+     * Applies only to the version named by {@code If-Match}, when the request
+     * has one, and is answered with 412 Precondition Failed otherwise.
      *
      * @param employeeId
      * @param employeeDto
+     * @param ifMatch
      * @return
      */
     @PutMapping(path = "/{empId}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable("empId") String employeeId,
-            @Valid @RequestBody UpdEmployeeRequest employeeDto) {
-        Employee employee = this.employeeService.updateEmployee(employeeDto, employeeId);
+            @Valid @RequestBody UpdEmployeeRequest employeeDto,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        OptionalInt expectedVersion = EmployeeETag.expectedVersion(ifMatch);
+
+        Employee employee = expectedVersion.isPresent()
+                ? this.employeeService.updateEmployee(employeeDto, employeeId, expectedVersion.getAsInt())
+                : this.employeeService.updateEmployee(employeeDto, employeeId);
 
         return ResponseEntity.ok()
+                .eTag(EmployeeETag.of(employee))
                 .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                 .body(employee);
     }
 
     /**
+     * With an {@code If-Match} version, the employee is updated by one
+     * conditional statement without being read.
      *
      * @param employeeId
      * @param employeeDto
+     * @param ifMatch
      * @return
      */
     @PatchMapping(path = "/{empId}/name")
     public ResponseEntity<String> updateEmployeeName(@PathVariable("empId") String employeeId,
-            @Valid @RequestBody EmployeeNameDTO employeeDto) {
-        this.employeeService.updateEmployeeName(employeeDto, employeeId);
+            @Valid @RequestBody EmployeeNameDTO employeeDto,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        OptionalInt expectedVersion = EmployeeETag.expectedVersion(ifMatch);
+
+        long version = expectedVersion.isPresent()
+                ? this.employeeService.updateEmployeeName(employeeDto, employeeId, expectedVersion.getAsInt())
+                : this.employeeService.updateEmployeeName(employeeDto, employeeId).getVersion();
 
         String responseMessage = "Successfully updated Employee name to: " + employeeDto;
 
         return ResponseEntity.ok()
+                .eTag(EmployeeETag.of(version))
                 .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                 .body(responseMessage);
     }
 
     /**
+     * With an {@code If-Match} version, a new salary amount of the same type
+     * and currency is set by one conditional statement without reading the
+     * employee.
      *
      * @param employeeId
      * @param employeeDto
+     * @param ifMatch
      * @return
      */
     @PatchMapping(path = "/{empId}/type")
     public ResponseEntity<String> updateEmployeeType(@PathVariable("empId") String employeeId,
-            @Valid @RequestBody EmployeeTypeDTO employeeDto) {
-        this.employeeService.updateEmployeeType(employeeDto, employeeId);
+            @Valid @RequestBody EmployeeTypeDTO employeeDto,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        OptionalInt expectedVersion = EmployeeETag.expectedVersion(ifMatch);
+
+        long version = expectedVersion.isPresent()
+                ? this.employeeService.updateEmployeeType(employeeDto, employeeId, expectedVersion.getAsInt())
+                : this.employeeService.updateEmployeeType(employeeDto, employeeId).getVersion();
 
         String responseMessage = "Successfully updated Employee type to: " + employeeDto;
 
         return ResponseEntity.ok()
+                .eTag(EmployeeETag.of(version))
                 .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                 .body(responseMessage);
     }
@@ -262,9 +440,7 @@ public class EmployeeController {
      */
     @DeleteMapping("/{empId}")
     public ResponseEntity<String> deleteEmployeeById(@PathVariable("empId") String employeeId) {
-        Employee employee = this.employeeFinderService.findByEmpId(employeeId);
-
-        this.employeeService.deleteEmployee(employee);
+        this.employeeService.deleteEmployee(employeeId);
 
         String responseMessage = "Successfully deleted Employee with id: " + employeeId;
 
@@ -273,4 +449,25 @@ public class EmployeeController {
                 .body(responseMessage);
     }
 
+    /**
+     * Deletes the employees of an {@code empType}, of a salary
+     * {@code currency}, or both, e.g. {@code ?empType=CONTRACT&currency=EUR}.
+     *
+     * @param employeeType
+     * @param currency
+     * @return the number of deleted employees
+     */
+    @DeleteMapping
+    public ResponseEntity<String> deleteEmployees(
+            @RequestParam(name = Employee.EMPLOYEE_TYPE, required = false) String employeeType,
+            @RequestParam(name = Employee.CURRENCY, required = false) String currency) {
+        int deleted = this.employeeService.deleteEmployees(employeeType, currency);
+
+        String responseMessage = "Deleted employee Count: " + deleted;
+
+        return ResponseEntity.ok()
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .body(responseMessage);
+    }
+
 }
@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.cometbid.kubeforce.payroll.common.util.PagingFactory;
+import org.cometbid.kubeforce.payroll.common.util.ResourceBundleAccessor;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of a cursor page: the sort key and direction, and the values of
+ * the last employee of the previous page, none on the first page. Handed to
+ * clients as an opaque token.
+ *
+ * @param sortKey
+ * @param direction
+ * @param value sort key value of the last employee
+ * @param employeeIdKey employee id key of the last employee
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public record EmployeeCursor(EmployeeSortKey sortKey, Sort.Direction direction, String value, String employeeIdKey) {
+
+    public static final String PAGINATION = "pagination";
+    public static final String CURSOR = "cursor";
+    public static final String COUNT = "count";
+
+    private static final String SEPARATOR = "\u0000";
+
+    /**
+     *
+     * @param sortKey
+     * @param direction
+     * @return
+     */
+    public static EmployeeCursor first(EmployeeSortKey sortKey, Sort.Direction direction) {
+        return new EmployeeCursor(sortKey, direction, null, null);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public boolean isFirst() {
+        return employeeIdKey == null;
+    }
+
+    /**
+     *
+     * @param last
+     * @return the position after the given employee
+     */
+    public EmployeeCursor after(Employee last) {
+        return new EmployeeCursor(sortKey, direction, sortKey.valueOf(last), last.getEmployeeIdKey());
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String getSortParam() {
+        return sortKey.getProperty() + "," + direction.name();
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortKey.name(), direction.name(), value, employeeIdKey);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     *
+     * @param token
+     * @return
+     */
+    public static EmployeeCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, -1);
+
+            if (parts.length == 4) {
+                EmployeeSortKey sortKey = EmployeeSortKey.valueOf(parts[0]);
+                sortKey.parse(parts[2]);
+
+                return new EmployeeCursor(sortKey, Sort.Direction.valueOf(parts[1]), parts[2], parts[3]);
+            }
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            log.info("Invalid cursor {}", token, ex);
+        }
+
+        throw new InvalidRequestException(
+                ResourceBundleAccessor.accessMessageInBundle("pagination.invalidCursor", new Object[]{}));
+    }
+
+    /**
+     * The cursor of the request, or the first page of its sort, which must
+     * name one sort key at most.
+     *
+     * @param queryParams
+     * @return
+     */
+    public static EmployeeCursor from(Map<String, String> queryParams) {
+        String token = queryParams.get(CURSOR);
+        if (StringUtils.isNotBlank(token)) {
+            return decode(token);
+        }
+
+        List<Sort.Order> orders = PagingFactory.preparePageRequest(queryParams).getSort().toList();
+        if (orders.size() == 1) {
+            Sort.Order order = orders.get(0);
+
+            return EmployeeSortKey.fromProperty(order.getProperty())
+                    .map(sortKey -> first(sortKey, order.getDirection()))
+                    .orElseThrow(() -> invalidSort());
+        }
+
+        throw invalidSort();
+    }
+
+    private static InvalidRequestException invalidSort() {
+        return new InvalidRequestException(ResourceBundleAccessor.accessMessageInBundle("pagination.cursorSort",
+                new Object[]{String.join(", ", EmployeeSortKey.getAllProperties())}));
+    }
+}
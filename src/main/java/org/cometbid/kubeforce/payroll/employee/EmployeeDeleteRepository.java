@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Deletes employees with one statement, without loading them. The statement
+ * returns the deleted rows, so that the counters and the second-level cache
+ * are kept in step as for an entity delete.
+ *
+ * @author samueladebowale
+ */
+public interface EmployeeDeleteRepository {
+
+    /**
+     *
+     * @param employeeIdKey
+     * @return the employee id keys of the deleted employees, none when it is
+     * missing
+     */
+    @Transactional
+    List<String> deleteDirectly(String employeeIdKey);
+
+    /**
+     * Deletes the employees matching all the given filters, at least one.
+     *
+     * @param empType or {@code null}
+     * @param currencyCode the salary currency, or {@code null}
+     * @return the employee id keys of the deleted employees
+     */
+    @Transactional
+    List<String> deleteAllDirectly(EmployeeType empType, String currencyCode);
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterAdjuster;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SessionImplementor;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@RequiredArgsConstructor
+public class EmployeeDeleteRepositoryImpl implements EmployeeDeleteRepository {
+
+    /**
+     * The rows removed by the DELETE, read from its data change delta table,
+     * what {@code DELETE ... RETURNING} gives on other databases.
+     */
+    private static final String DELETE_RETURNING = "select employee_id_key, employee_type, sal_currency"
+            + " from old table (delete from employee where %s)";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<String> deleteDirectly(String employeeIdKey) {
+        if (employeeIdKey == null) {
+            return List.of();
+        }
+        return delete(Map.of(Employee.EMPLOYEE_ID_KEY_COL, employeeIdKey));
+    }
+
+    @Override
+    public List<String> deleteAllDirectly(EmployeeType empType, String currencyCode) {
+        Map<String, Object> filters = new TreeMap<>();
+        if (empType != null) {
+            filters.put(Employee.EMPLOYEE_TYPE_COL, new EmployeeType.Converter().convertToDatabaseColumn(empType));
+        }
+        if (currencyCode != null) {
+            filters.put(Employee.SALARY_CURR_COL, currencyCode);
+        }
+
+        if (filters.isEmpty()) {
+            throw new IllegalArgumentException("A bulk delete takes at least one filter");
+        }
+        return delete(filters);
+    }
+
+    /**
+     * Counts the deleted employees out of their counters and evicts them from
+     * the second-level cache, as Hibernate does for bulk JPQL statements.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> delete(Map<String, Object> filters) {
+        StringJoiner where = new StringJoiner(" and ");
+        filters.keySet().forEach(column -> where.add(column + " = :" + column));
+
+        Query query = entityManager.createNativeQuery(DELETE_RETURNING.formatted(where));
+        filters.forEach(query::setParameter);
+
+        List<Object[]> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> employeeIdKeys = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            employeeIdKeys.add((String) row[0]);
+            EmployeeCounterAdjuster.removed(entityManager, EmployeeType.fromString((String) row[1]), (String) row[2]);
+        }
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.getActionQueue().addAction(new BulkOperationCleanupAction(session,
+                session.getFactory().getMappingMetamodel().getEntityDescriptor(Employee.class)));
+
+        return employeeIdKeys;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.util.OptionalInt;
+import org.apache.commons.lang3.StringUtils;
+import org.cometbid.kubeforce.payroll.common.util.ResourceBundleAccessor;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+
+/**
+ * Entity tag of an employee, its quoted version, e.g. {@code "3"}. A write
+ * naming it in {@code If-Match} only applies to that version.
+ *
+ * @author samueladebowale
+ */
+public final class EmployeeETag {
+
+    private static final String ANY = "*";
+    private static final char QUOTE = '"';
+
+    private EmployeeETag() {
+    }
+
+    /**
+     *
+     * @param employee
+     * @return
+     */
+    public static String of(Employee employee) {
+        return of(employee.getVersion());
+    }
+
+    /**
+     *
+     * @param version
+     * @return
+     */
+    public static String of(long version) {
+        return QUOTE + Long.toString(version) + QUOTE;
+    }
+
+    /**
+     * {@code If-Match} uses the strong comparison, a weak tag such as
+     * {@code W/"3"} matches no version and is rejected.
+     *
+     * @param ifMatch the {@code If-Match} header
+     * @return the version the request expects, none without header or for
+     * {@code *}
+     */
+    public static OptionalInt expectedVersion(String ifMatch) {
+        String tag = StringUtils.strip(ifMatch);
+
+        if (StringUtils.isEmpty(tag) || ANY.equals(tag)) {
+            return OptionalInt.empty();
+        }
+        if (tag.length() > 2 && tag.charAt(0) == QUOTE && tag.charAt(tag.length() - 1) == QUOTE) {
+            String version = tag.substring(1, tag.length() - 1);
+
+            if (StringUtils.isNumeric(version)) {
+                try {
+                    return OptionalInt.of(Integer.parseInt(version));
+                } catch (NumberFormatException ex) {
+                    // beyond any version
+                }
+            }
+        }
+        throw new InvalidRequestException(
+                ResourceBundleAccessor.accessMessageInBundle("ifMatch.invalid", new Object[]{}));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.cometbid.kubeforce.payroll.common.util.ResourceBundleAccessor;
+import static org.cometbid.kubeforce.payroll.employee.Employee.*;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+
+/**
+ * Sparse fieldset of the {@code fields} parameter, the JSON fields of
+ * {@link Employee#defaultFields} to select, in the order asked for.
+ * {@code salary} stands for both its amount and currency.
+ *
+ * @author samueladebowale
+ */
+public final class EmployeeFields {
+
+    public static final String FIELDS = "fields";
+
+    private static final String SEPARATOR = ",";
+
+    /**
+     * Entity attribute path of each JSON field.
+     */
+    private static final Map<String, String> ATTRIBUTES = mappedAttributes();
+
+    private final List<String> names;
+
+    private EmployeeFields(List<String> names) {
+        this.names = names;
+    }
+
+    private static Map<String, String> mappedAttributes() {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put(FIRST_NAME, "firstName");
+        attributes.put(LAST_NAME, "lastName");
+        attributes.put(MIDDLE_NAME, "middleName");
+        attributes.put(EMPLOYEE_ID, "employeeId");
+        attributes.put(EMPLOYEE_TYPE, "empType");
+        attributes.put(EMAIL, "email");
+        attributes.put(SALARY + PERIOD_CHAR + AMOUNT, "salary.amount");
+        attributes.put(SALARY + PERIOD_CHAR + CURRENCY, "salary.currency");
+        attributes.put(CREATION_DATETIME, "creationDate");
+
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     *
+     * @param queryParams
+     * @return the fieldset of the request, none when it names no fields
+     * parameter
+     */
+    public static Optional<EmployeeFields> from(Map<String, String> queryParams) {
+        return queryParams == null || !queryParams.containsKey(FIELDS)
+                ? Optional.empty()
+                : Optional.of(parse(queryParams.get(FIELDS)));
+    }
+
+    /**
+     *
+     * @param fields comma separated JSON field names
+     * @return
+     */
+    public static EmployeeFields parse(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+
+        for (String field : StringUtils.split(StringUtils.defaultString(fields), SEPARATOR)) {
+            String name = field.strip();
+
+            if (SALARY.equals(name)) {
+                names.add(SALARY + PERIOD_CHAR + AMOUNT);
+                names.add(SALARY + PERIOD_CHAR + CURRENCY);
+            } else if (ATTRIBUTES.containsKey(name)) {
+                names.add(name);
+            } else {
+                throw invalidFields();
+            }
+        }
+
+        if (names.isEmpty()) {
+            throw invalidFields();
+        }
+        return new EmployeeFields(List.copyOf(names));
+    }
+
+    private static InvalidRequestException invalidFields() {
+        return new InvalidRequestException(ResourceBundleAccessor.accessMessageInBundle("fields.invalid",
+                new Object[]{String.join(", ", getMappedDefaultFields())}));
+    }
+
+    /**
+     *
+     * @return
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     *
+     * @param employee
+     * @return the selection of the fields, in their order
+     */
+    public List<Selection<?>> select(Root<Employee> employee) {
+        List<Selection<?>> selection = new ArrayList<>(names.size());
+
+        for (String name : names) {
+            Path<?> path = employee;
+            for (String attribute : StringUtils.split(ATTRIBUTES.get(name), PERIOD_CHAR)) {
+                path = path.get(attribute);
+            }
+            selection.add(path);
+        }
+        return selection;
+    }
+
+    /**
+     * The row as the JSON object of its fields, a dotted field nested in the
+     * object of its prefix.
+     *
+     * @param row the tuple of {@link #select(Root)}
+     * @return
+     */
+    public Map<String, Object> toJson(Tuple row) {
+        Map<String, Object> json = new LinkedHashMap<>();
+
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            int period = name.indexOf(PERIOD_CHAR);
+            Object value = row.get(i);
+
+            // written the way Employee#getEmpType() writes it
+            if (value instanceof EmployeeType type) {
+                value = type.name();
+            }
+
+            if (period < 0) {
+                json.put(name, value);
+            } else {
+                nested(json, name.substring(0, period)).put(name.substring(period + 1), value);
+            }
+        }
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> nested(Map<String, Object> json, String name) {
+        return (Map<String, Object>) json.computeIfAbsent(name, k -> new LinkedHashMap<String, Object>());
+    }
+
+    @Override
+    public String toString() {
+        return String.join(SEPARATOR, names);
+    }
+}
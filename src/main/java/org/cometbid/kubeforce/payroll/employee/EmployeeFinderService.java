@@ -23,6 +23,9 @@
  */
 package org.cometbid.kubeforce.payroll.employee;
 
+import java.util.Map;
+import java.util.function.Consumer;
+import org.cometbid.kubeforce.payroll.common.util.KeysetPage;
 import org.cometbid.kubeforce.payroll.common.util.SimplePage;
 import org.springframework.data.domain.Pageable;
 
@@ -34,6 +37,36 @@ public interface EmployeeFinderService {
 
     SimplePage<Employee> findAll(Pageable pageable);
 
+    /**
+     * A page of the cursor pagination, counting the total only when asked
+     * to.
+     *
+     * @param cursor
+     * @param size
+     * @param withCount
+     * @return
+     */
+    KeysetPage<Employee> findAll(EmployeeCursor cursor, int size, boolean withCount);
+
+    /**
+     * A page of the given fields of the employees, without loading them.
+     *
+     * @param fields
+     * @param pageable
+     * @return
+     */
+    SimplePage<Map<String, Object>> findAll(EmployeeFields fields, Pageable pageable);
+
     Employee findByEmpId(String employeeId);
 
+    /**
+     *
+     * @param employeeId
+     * @param fields
+     * @return the given fields of the employee
+     */
+    Map<String, Object> findByEmpId(String employeeId, EmployeeFields fields);
+
+    void forEachEmployee(Pageable pageable, Consumer<Employee> action);
+
 }
@@ -23,17 +23,28 @@
  */
 package org.cometbid.kubeforce.payroll.employee;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.common.util.KeysetPage;
+import org.cometbid.kubeforce.payroll.common.util.ResourceBundleAccessor;
 import org.cometbid.kubeforce.payroll.common.util.SimplePage;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterService;
 import org.cometbid.kubeforce.payroll.exceptions.EmployeeNotFoundException;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  *
@@ -46,9 +57,15 @@ public class EmployeeFinderServiceImpl implements EmployeeFinderService {
 
     //@Autowired
     private final EmployeeRepository employeeRepository;
+    private final EmployeeCounterService employeeCounterService;
+    private final EmployeeCache employeeCache;
     //private final EmployeeMapper employeeMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
+     * Answered from the employee cache, a miss is cached as well.
      *
      * @param employeeId
      * @return
@@ -57,12 +74,29 @@ public class EmployeeFinderServiceImpl implements EmployeeFinderService {
     public Employee findByEmpId(String employeeId) {
         log.info("Getting employee with id {}", employeeId);
 
-        return employeeRepository.findByEmployeeIdIgnoreCase(employeeId)
+        return employeeCache.get(employeeId, employeeRepository::findByEmployeeIdKey)
+                .orElseThrow(() -> new EmployeeNotFoundException(
+                "employee.notfound.byEmpId", new Object[]{employeeId}));
+    }
+
+    /**
+     *
+     * @param employeeId
+     * @param fields
+     * @return
+     */
+    @Override
+    public Map<String, Object> findByEmpId(String employeeId, EmployeeFields fields) {
+        log.info("Getting fields {} of employee with id {}", fields, employeeId);
+
+        return employeeRepository.findFieldsByEmployeeIdKey(fields, Employee.employeeIdKey(employeeId))
                 .orElseThrow(() -> new EmployeeNotFoundException(
                 "employee.notfound.byEmpId", new Object[]{employeeId}));
     }
 
     /**
+     * The total comes from the maintained counter, the page itself is read as
+     * a slice, without a count query.
      *
      * @param pageable
      * @return
@@ -70,14 +104,80 @@ public class EmployeeFinderServiceImpl implements EmployeeFinderService {
     @Override
     public SimplePage<Employee> findAll(Pageable pageable) {
 
-        Page<Employee> page = employeeRepository.findAll(pageable);
+        Slice<Employee> page = employeeRepository.findAllBy(pageable);
 
         return new SimplePage<>(page.getContent()
                 .stream()
                 .map(m -> m)
                 //.map(employeeMapper::mapToEmployeeDTO)
                 .collect(Collectors.toList()),
-                pageable, page.getTotalElements());
+                pageable, employeeCounterService.total());
+    }
+
+    /**
+     *
+     * @param fields
+     * @param pageable
+     * @return
+     */
+    @Override
+    public SimplePage<Map<String, Object>> findAll(EmployeeFields fields, Pageable pageable) {
+
+        List<Map<String, Object>> employees = employeeRepository.findFields(fields, pageable);
+
+        return new SimplePage<>(employees, pageable, employeeCounterService.total());
+    }
+
+    /**
+     * Fetches one employee more than the page holds, to tell whether there is
+     * a next page without counting.
+     *
+     * @param cursor
+     * @param size
+     * @param withCount
+     * @return
+     */
+    @Override
+    public KeysetPage<Employee> findAll(EmployeeCursor cursor, int size, boolean withCount) {
+        if (size < 1) {
+            throw new InvalidRequestException(
+                    ResourceBundleAccessor.accessMessageInBundle("pagination.size", new Object[]{}));
+        }
+
+        List<Employee> employees = employeeRepository.findAfter(cursor, size + 1);
+
+        String next = null;
+        if (employees.size() > size) {
+            employees = employees.subList(0, size);
+            next = cursor.after(employees.get(size - 1)).encode();
+        }
+
+        Long totalElements = withCount ? employeeCounterService.total() : null;
+
+        return new KeysetPage<>(employees, size, List.of(cursor.getSortParam()), next, totalElements);
+    }
+
+    /**
+     * Hands every employee of the page to the action as it is read from the
+     * database. Each row is detached once handled, so the persistence context
+     * does not grow with the result.
+     *
+     * @param pageable
+     * @param action
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachEmployee(Pageable pageable, Consumer<Employee> action) {
+
+        try (Stream<Employee> employees = employeeRepository.streamAllBy(pageable)) {
+            employees.forEach(employee -> {
+                action.accept(employee);
+
+                if (entityManager != null) {
+                    entityManager.detach(employee);
+                }
+            });
+        }
     }
 
     /**
@@ -0,0 +1,237 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.metrics.ColdStartMetrics;
+import org.cometbid.kubeforce.payroll.metrics.EmbeddedMetricsLogger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out employee ids: the letters taken from the names followed by a
+ * suffix counted per prefix in the employee_id_prefix table. A create
+ * reserves a block of suffixes in its own short transaction, so the row lock
+ * is not held until the caller commits, and takes the suffixes of the block
+ * from memory. Suffixes are never handed out twice, whatever the number of
+ * instances; a block left unused only leaves a gap.
+ *
+ * The suffix has at least {@value #SUFFIX_DIGITS} digits and grows past them
+ * rather than running out. The share of the {@value #SUFFIX_DIGITS} digit
+ * suffixes used by a prefix is emitted as {@value #SATURATION} each time it
+ * crosses another tenth.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+@Component
+public class EmployeeIdAllocator {
+
+    public static final int SUFFIX_DIGITS = 4;
+    public static final long SUFFIX_SPACE = 10_000;
+    public static final int DEFAULT_BLOCK_SIZE = 10;
+
+    public static final String NAMESPACE = "Payroll/EmployeeIds";
+    public static final String SATURATION = "PrefixSaturation";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String RESERVE = "update employee_id_prefix set next_suffix = next_suffix + ? where prefix = ?";
+    private static final String NEXT_SUFFIX = "select next_suffix from employee_id_prefix where prefix = ?";
+    private static final String SEED = "insert into employee_id_prefix (prefix, next_suffix) values (?, ?)";
+    private static final String TAKEN = "select employee_id_key from employee where employee_id_key like ?";
+
+    private static final EmbeddedMetricsLogger metrics = new EmbeddedMetricsLogger(NAMESPACE, System.out);
+
+    // bumped on restore, blocks reserved in an earlier generation are dropped
+    private static volatile int generation;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    public EmployeeIdAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${payroll.employee-id.block-size:10}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Drops the blocks reserved so far. Must run after a SnapStart restore,
+     * otherwise every restored environment hands out the rest of the blocks
+     * reserved before the checkpoint.
+     */
+    public static void discardBlocks() {
+        generation++;
+    }
+
+    /**
+     * Gives the employee the next id of its prefix.
+     *
+     * @param employee
+     * @return the employee id
+     */
+    public String assign(Employee employee) {
+        String employeeId = nextEmployeeId(employee.getFirstName(), employee.getMiddleName(), employee.getLastName());
+
+        employee.setEmployeeId(employeeId);
+        return employeeId;
+    }
+
+    public String nextEmployeeId(String firstName, String middleName, String lastName) {
+        String prefix = prefixOf(firstName, middleName, lastName);
+        String suffix = Long.toString(nextSuffix(prefix));
+
+        StringBuilder employeeId = new StringBuilder(prefix.length() + Math.max(suffix.length(), SUFFIX_DIGITS))
+                .append(prefix);
+        for (int i = suffix.length(); i < SUFFIX_DIGITS; i++) {
+            employeeId.append('0');
+        }
+        return employeeId.append(suffix).toString();
+    }
+
+    /**
+     * Up to two letters of the first name, the initial of the middle name and
+     * up to two letters of the last name, in upper case. Only letters are
+     * kept, so that the digits of the suffix cannot extend the prefix.
+     *
+     * @param firstName
+     * @param middleName
+     * @param lastName
+     * @return
+     */
+    static String prefixOf(String firstName, String middleName, String lastName) {
+        String first = firstName != null && firstName.length() > 2 ? firstName.substring(0, 2) : "";
+        String middle = middleName == null || middleName.isBlank() ? "" : middleName.substring(0, 1);
+        String last = lastName != null && lastName.length() > 2 ? lastName.substring(0, 2) : "";
+
+        StringBuilder prefix = new StringBuilder(5);
+        (first + middle + last).codePoints().filter(Character::isLetter).forEach(prefix::appendCodePoint);
+
+        return prefix.toString().toUpperCase(Locale.ROOT);
+    }
+
+    private long nextSuffix(String prefix) {
+        Block block = blocks.get(prefix);
+
+        if (block != null && block.generation() == generation) {
+            long suffix = block.next().getAndIncrement();
+            if (suffix < block.limit()) {
+                return suffix;
+            }
+        }
+
+        // a concurrent create may reserve a block of its own, the one that is
+        // replaced only leaves a gap
+        Block reserved = reserve(prefix);
+        long suffix = reserved.next().getAndIncrement();
+        blocks.put(prefix, reserved);
+
+        return suffix;
+    }
+
+    private Block reserve(String prefix) {
+        int current = generation;
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                long limit = transactionTemplate.execute(status -> {
+                    if (jdbcTemplate.update(RESERVE, blockSize, prefix) == 0) {
+                        jdbcTemplate.update(SEED, prefix, firstFreeSuffix(prefix) + blockSize);
+                    }
+                    return jdbcTemplate.queryForObject(NEXT_SUFFIX, Long.class, prefix);
+                });
+
+                long first = limit - blockSize;
+                recordSaturation(prefix, first, limit);
+
+                return new Block(new AtomicLong(first), limit, current);
+            } catch (DuplicateKeyException | ConcurrencyFailureException ex) {
+                // seeded concurrently, the update then takes the next block
+                if (attempt == MAX_ATTEMPTS) {
+                    throw ex;
+                }
+                log.debug("Prefix {} was seeded concurrently", prefix);
+            }
+        }
+    }
+
+    // above the ids given out before the prefix was counted
+    private long firstFreeSuffix(String prefix) {
+        long taken = 0;
+
+        for (String employeeIdKey : jdbcTemplate.queryForList(TAKEN, String.class, prefix + "%")) {
+            String suffix = employeeIdKey.substring(prefix.length());
+
+            if (!suffix.isEmpty() && suffix.length() < 19 && suffix.chars().allMatch(Character::isDigit)) {
+                taken = Math.max(taken, Long.parseLong(suffix));
+            }
+        }
+        return taken + 1;
+    }
+
+    private void recordSaturation(String prefix, long first, long limit) {
+        long tenth = SUFFIX_SPACE / 10;
+
+        if ((limit - 1) / tenth == (first - 1) / tenth) {
+            return;
+        }
+
+        double saturation = 100.0 * (limit - 1) / SUFFIX_SPACE;
+        if (limit > SUFFIX_SPACE && first <= SUFFIX_SPACE) {
+            log.warn("Employee id prefix {} used up its {} digit suffixes", prefix, SUFFIX_DIGITS);
+        }
+
+        Map<String, String> dimensions = new LinkedHashMap<>();
+        dimensions.put("Service", ColdStartMetrics.SERVICE);
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("Prefix", prefix);
+        properties.put("Suffix", limit - 1);
+
+        metrics.emit(SATURATION, saturation, EmbeddedMetricsLogger.Unit.PERCENT, dimensions, properties);
+    }
+
+    private record Block(AtomicLong next, long limit, int generation) {
+
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.util.Comparator;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractClassJavaType;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+
+/**
+ * Maps {@link EmployeeId} to a {@code BIGINT} column instead of its serialized
+ * form, an 8 byte key that compares as a number in the primary key index.
+ *
+ * @author samueladebowale
+ */
+public class EmployeeIdJavaType extends AbstractClassJavaType<EmployeeId> {
+
+    private static final long serialVersionUID = 4412785398125871036L;
+
+    public static final EmployeeIdJavaType INSTANCE = new EmployeeIdJavaType();
+
+    public EmployeeIdJavaType() {
+        // hibernate.order_updates sorts the updates of a flush by id
+        super(EmployeeId.class, ImmutableMutabilityPlan.instance(), Comparator.comparing(EmployeeId::getId));
+    }
+
+    @Override
+    public JdbcType getRecommendedJdbcType(JdbcTypeIndicators indicators) {
+        return indicators.getTypeConfiguration().getJdbcTypeRegistry().getDescriptor(SqlTypes.BIGINT);
+    }
+
+    @Override
+    public String toString(EmployeeId value) {
+        return value.asString();
+    }
+
+    @Override
+    public EmployeeId fromString(CharSequence string) {
+        return string == null ? null : new EmployeeId(Long.parseLong(string.toString()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> X unwrap(EmployeeId value, Class<X> type, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (EmployeeId.class.isAssignableFrom(type)) {
+            return (X) value;
+        }
+        if (Long.class.isAssignableFrom(type)) {
+            return (X) value.getId();
+        }
+        if (String.class.isAssignableFrom(type)) {
+            return (X) value.asString();
+        }
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> EmployeeId wrap(X value, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof EmployeeId employeeId) {
+            return employeeId;
+        }
+        if (value instanceof Number number) {
+            return new EmployeeId(number.longValue());
+        }
+        if (value instanceof CharSequence string) {
+            return fromString(string);
+        }
+        throw unknownWrap(value.getClass());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@RequiredArgsConstructor
+public class EmployeeKeysetRepositoryImpl implements EmployeeKeysetRepository {
+
+    private static final String EMPLOYEE_ID_KEY = "employeeIdKey";
+
+    private final EntityManager entityManager;
+
+    /**
+     * The seek predicate is written as
+     * {@code key >= :value and (key > :value or employeeIdKey > :employeeIdKey)},
+     * reversed for a descending sort, so that its first term bounds a range of
+     * the (key, employee id key) index.
+     *
+     * @param cursor
+     * @param limit
+     * @return
+     */
+    @Override
+    public List<Employee> findAfter(EmployeeCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> employee = query.from(Employee.class);
+
+        boolean ascending = cursor.direction().isAscending();
+        Expression<Comparable<Object>> key = employee.get(cursor.sortKey().getAttribute());
+        Expression<Comparable<Object>> tieBreaker = employee.get(EMPLOYEE_ID_KEY);
+
+        if (!cursor.isFirst()) {
+            query.where(seek(cb, key, tieBreaker, cursor, ascending));
+        }
+
+        List<Order> orders = cursor.sortKey() == EmployeeSortKey.EMPLOYEE_ID
+                ? List.of(order(cb, key, ascending))
+                : List.of(order(cb, key, ascending), order(cb, tieBreaker, ascending));
+
+        return entityManager.createQuery(query.orderBy(orders))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate seek(CriteriaBuilder cb, Expression<Comparable<Object>> key,
+            Expression<Comparable<Object>> tieBreaker, EmployeeCursor cursor, boolean ascending) {
+        Comparable<Object> employeeIdKey = (Comparable<Object>) (Comparable<?>) cursor.employeeIdKey();
+
+        if (cursor.sortKey() == EmployeeSortKey.EMPLOYEE_ID) {
+            return after(cb, tieBreaker, employeeIdKey, ascending);
+        }
+
+        Comparable<Object> value = (Comparable<Object>) cursor.sortKey().parse(cursor.value());
+
+        return cb.and(
+                ascending ? cb.greaterThanOrEqualTo(key, value) : cb.lessThanOrEqualTo(key, value),
+                cb.or(after(cb, key, value, ascending), after(cb, tieBreaker, employeeIdKey, ascending)));
+    }
+
+    private static Predicate after(CriteriaBuilder cb, Expression<Comparable<Object>> path,
+            Comparable<Object> value, boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    private static Order order(CriteriaBuilder cb, Expression<?> path, boolean ascending) {
+        return ascending ? cb.asc(path) : cb.desc(path);
+    }
+}
@@ -26,8 +26,11 @@ package org.cometbid.kubeforce.payroll.employee;
 import lombok.extern.log4j.Log4j2;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 /**
+ * Applies the update requests to a loaded employee in place, so that its id
+ * and version are kept for the merge.
  *
  * @author samueladebowale
  */
@@ -38,9 +41,12 @@ public abstract class EmployeeMapper {
     @Mapping(source = "toUpdate.firstName", target = "firstName")
     @Mapping(source = "toUpdate.lastName", target = "lastName")
     @Mapping(source = "toUpdate.middleName", target = "middleName")
-    abstract Employee updateEmployeeName(Employee employee, EmployeeNameDTO toUpdate);
+    abstract void updateEmployeeName(@MappingTarget Employee employee, EmployeeNameDTO toUpdate);
 
     @Mapping(source = "toUpdate.salary", target = "salary")
-    @Mapping(source = "toUpdate.employeeType", target = "empType")
-    abstract Employee updateEmployeeType(Employee employee, EmployeeTypeDTO toUpdate);
+    @Mapping(target = "empType", expression = "java(EmployeeType.fromString(toUpdate.getEmployeeType()))")
+    abstract void updateEmployeeType(@MappingTarget Employee employee, EmployeeTypeDTO toUpdate);
+
+    @Mapping(target = "empType", expression = "java(EmployeeType.fromString(toUpdate.getEmployeeType()))")
+    abstract void updateEmployee(@MappingTarget Employee employee, UpdEmployeeRequest toUpdate);
 }
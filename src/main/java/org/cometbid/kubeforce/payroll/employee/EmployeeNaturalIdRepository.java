@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lookups by the natural id of the employees, the employee id key, which are
+ * answered from the natural-id and entity caches before the database.
+ *
+ * @author samueladebowale
+ */
+public interface EmployeeNaturalIdRepository {
+
+    /**
+     *
+     * @param employeeIdKey
+     * @return
+     */
+    @Transactional(readOnly = true)
+    Optional<Employee> findByEmployeeIdKey(String employeeIdKey);
+
+    /**
+     * Set-based counterpart of {@link #findByEmployeeIdKey(String)}, the keys
+     * missed by the caches are read in batches.
+     *
+     * @param employeeIdKeys
+     * @return the employees found, in no particular order
+     */
+    @Transactional(readOnly = true)
+    List<Employee> findByEmployeeIdKeyIn(Collection<String> employeeIdKeys);
+}
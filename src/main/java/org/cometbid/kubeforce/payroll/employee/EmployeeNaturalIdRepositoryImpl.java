@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@RequiredArgsConstructor
+public class EmployeeNaturalIdRepositoryImpl implements EmployeeNaturalIdRepository {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Employee> findByEmployeeIdKey(String employeeIdKey) {
+        return employeeIdKey == null
+                ? Optional.empty()
+                : entityManager.unwrap(Session.class)
+                        .bySimpleNaturalId(Employee.class)
+                        .loadOptional(employeeIdKey);
+    }
+
+    @Override
+    public List<Employee> findByEmployeeIdKeyIn(Collection<String> employeeIdKeys) {
+        if (employeeIdKeys.isEmpty()) {
+            return List.of();
+        }
+
+        return entityManager.unwrap(Session.class)
+                .byMultipleNaturalId(Employee.class)
+                .withBatchSize(BATCH_SIZE)
+                // ordered return is not supported for natural ids, callers key the result
+                .enableOrderedReturn(false)
+                .multiLoad(List.copyOf(employeeIdKeys))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Sparse fieldsets of the employees, read as tuples of the selected columns
+ * instead of managed entities.
+ *
+ * @author samueladebowale
+ */
+public interface EmployeeProjectionRepository {
+
+    /**
+     *
+     * @param fields
+     * @param pageable
+     * @return the fields of the employees of the page
+     */
+    List<Map<String, Object>> findFields(EmployeeFields fields, Pageable pageable);
+
+    /**
+     *
+     * @param fields
+     * @param employeeIdKey
+     * @return the fields of the employee
+     */
+    Optional<Map<String, Object>> findFieldsByEmployeeIdKey(EmployeeFields fields, String employeeIdKey);
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@RequiredArgsConstructor
+public class EmployeeProjectionRepositoryImpl implements EmployeeProjectionRepository {
+
+    private static final String EMPLOYEE_ID_KEY = "employeeIdKey";
+
+    private final EntityManager entityManager;
+
+    /**
+     * The page is sorted like the entity listing, on the attributes of the
+     * sort whether they are selected or not.
+     *
+     * @param fields
+     * @param pageable
+     * @return
+     */
+    @Override
+    public List<Map<String, Object>> findFields(EmployeeFields fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+
+        query.multiselect(fields.select(employee))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), employee, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()))
+                    .setMaxResults(pageable.getPageSize());
+        }
+
+        return typedQuery.getResultStream()
+                .map(fields::toJson)
+                .toList();
+    }
+
+    /**
+     *
+     * @param fields
+     * @param employeeIdKey
+     * @return
+     */
+    @Override
+    public Optional<Map<String, Object>> findFieldsByEmployeeIdKey(EmployeeFields fields, String employeeIdKey) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+
+        query.multiselect(fields.select(employee))
+                .where(cb.equal(employee.get(EMPLOYEE_ID_KEY), employeeIdKey));
+
+        return entityManager.createQuery(query)
+                .getResultStream()
+                .findFirst()
+                .map(fields::toJson);
+    }
+}
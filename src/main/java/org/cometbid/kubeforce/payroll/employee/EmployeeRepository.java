@@ -23,18 +23,135 @@
  */
 package org.cometbid.kubeforce.payroll.employee;
 
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  *
  * @author samueladebowale
  */
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, EmployeeId>, EmployeeNaturalIdRepository,
+        EmployeeKeysetRepository, EmployeeProjectionRepository, EmployeeDeleteRepository {
 
-    Optional<Employee> findByEmployeeIdIgnoreCase(String employeeId);
-    
-    Optional<Employee> deleteByEmployeeIdIgnoreCase(String employeeId);
+    /**
+     * Resolved by the employee id key, the natural id, where a derived
+     * IgnoreCase query compares upper(employee_id) and scans the table.
+     *
+     * @param employeeId
+     * @return
+     */
+    default Optional<Employee> findByEmployeeIdIgnoreCase(String employeeId) {
+        return findByEmployeeIdKey(Employee.employeeIdKey(employeeId));
+    }
 
-    boolean existsByEmail(String email);
+    Optional<Employee> deleteByEmployeeIdKey(String employeeIdKey);
+
+    default Optional<Employee> deleteByEmployeeIdIgnoreCase(String employeeId) {
+        return deleteByEmployeeIdKey(Employee.employeeIdKey(employeeId));
+    }
+
+    boolean existsByEmployeeIdKey(String employeeIdKey);
+
+    /**
+     * Renames the employee in one statement, when it is still at the given
+     * version. Bypasses the persistence context and the counter listener,
+     * the counters do not depend on the name.
+     *
+     * @param employeeIdKey
+     * @param version
+     * @param firstName
+     * @param middleName
+     * @param lastName
+     * @return the updated rows, none when the employee is missing or at
+     * another version
+     */
+    @Transactional
+    @Modifying
+    @Query("update Employee e set e.firstName = :firstName, e.middleName = :middleName, e.lastName = :lastName,"
+            + " e.version = e.version + 1"
+            + " where e.employeeIdKey = :employeeIdKey and e.version = :version")
+    int updateNameIfVersion(@Param("employeeIdKey") String employeeIdKey, @Param("version") int version,
+            @Param("firstName") String firstName, @Param("middleName") String middleName,
+            @Param("lastName") String lastName);
+
+    /**
+     * Sets the salary amount in one statement, when the employee is still at
+     * the given version and already has the given type and salary currency,
+     * so that its counters stay the same. Type or currency changes go through
+     * the entity.
+     *
+     * @param employeeIdKey
+     * @param version
+     * @param empType
+     * @param currency
+     * @param amount
+     * @return the updated rows
+     */
+    @Transactional
+    @Modifying
+    @Query("update Employee e set e.salary.amount = :amount, e.version = e.version + 1"
+            + " where e.employeeIdKey = :employeeIdKey and e.version = :version"
+            + " and e.empType = :empType and e.salary.currency = :currency")
+    int updateSalaryIfVersion(@Param("employeeIdKey") String employeeIdKey, @Param("version") int version,
+            @Param("empType") EmployeeType empType, @Param("currency") String currency,
+            @Param("amount") BigDecimal amount);
+
+    boolean existsByEmailKey(String emailKey);
+
+    /**
+     * Case-insensitive, a case variant of a taken email is taken too.
+     *
+     * @param email
+     * @return
+     */
+    default boolean existsByEmail(String email) {
+        return existsByEmailKey(Employee.emailKey(email));
+    }
+
+    /**
+     * Set-based counterpart of {@link #existsByEmailKey(String)}, one query
+     * for a whole batch.
+     *
+     * @param emailKeys
+     * @return the given email keys that are already taken
+     */
+    @Query("select e.emailKey from Employee e where e.emailKey in :emailKeys")
+    Set<String> findExistingEmailKeys(@Param("emailKeys") Collection<String> emailKeys);
+
+    /**
+     * A page without its count query, the total is kept by the employee
+     * counters. The ids of the page are kept in the query cache, until an
+     * employee is written, and the employees read from the entity cache.
+     *
+     * @param pageable
+     * @return
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<Employee> findAllBy(Pageable pageable);
+
+    /**
+     * Rows are fetched from the JDBC cursor while the stream is consumed, the
+     * caller must hold a transaction and close the stream.
+     *
+     * @param pageable
+     * @return
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Employee> streamAllBy(Pageable pageable);
 }
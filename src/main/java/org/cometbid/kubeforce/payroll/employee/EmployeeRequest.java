@@ -26,6 +26,7 @@ package org.cometbid.kubeforce.payroll.employee;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.gson.annotations.SerializedName;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import javax.money.MonetaryAmount;
 import lombok.AllArgsConstructor;
@@ -72,6 +73,7 @@ public abstract class EmployeeRequest {
 
     @SerializedName(SALARY)
     @JsonProperty(SALARY)
+    @NotNull(message = "{Salary.notNull}")
     protected MonetaryAmount salary;
 
 }
@@ -33,10 +33,44 @@ public interface EmployeeService {
 
     Employee updateEmployee(UpdEmployeeRequest requestDto, final String employeeId);
 
+    Employee updateEmployee(UpdEmployeeRequest requestDto, final String employeeId, int expectedVersion);
+
     Employee updateEmployeeName(EmployeeNameDTO employeeDto, final String employeeId);
 
+    /**
+     *
+     * @param employeeDto
+     * @param employeeId
+     * @param expectedVersion
+     * @return the new version of the employee
+     */
+    long updateEmployeeName(EmployeeNameDTO employeeDto, final String employeeId, int expectedVersion);
+
     Employee updateEmployeeType(EmployeeTypeDTO employeeDto, final String employeeId);
-    
-    void deleteEmployee(Employee employee);
+
+    /**
+     *
+     * @param employeeDto
+     * @param employeeId
+     * @param expectedVersion
+     * @return the new version of the employee
+     */
+    long updateEmployeeType(EmployeeTypeDTO employeeDto, final String employeeId, int expectedVersion);
+
+    /**
+     *
+     * @param employeeId
+     * @return the number of deleted employees
+     */
+    int deleteEmployee(final String employeeId);
+
+    /**
+     * Deletes the employees of a type, of a salary currency, or both.
+     *
+     * @param employeeType
+     * @param currency
+     * @return the number of deleted employees
+     */
+    int deleteEmployees(String employeeType, String currency);
 
 }
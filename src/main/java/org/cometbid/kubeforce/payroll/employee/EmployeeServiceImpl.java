@@ -23,13 +23,20 @@
  */
 package org.cometbid.kubeforce.payroll.employee;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import javax.money.MonetaryAmount;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
+import org.cometbid.kubeforce.payroll.common.util.ResourceBundleAccessor;
 import org.cometbid.kubeforce.payroll.exceptions.EmployeeAlreadyExistException;
 import org.cometbid.kubeforce.payroll.exceptions.EmployeeNotFoundException;
 import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import org.cometbid.kubeforce.payroll.exceptions.PreconditionFailedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
 /**
@@ -44,6 +51,8 @@ public class EmployeeServiceImpl implements EmployeeService {
     private final EmployeeRepository employeeRepository;
     private final EmployeeBuilder employeeBuilder;
     private final EmployeeMapper employeeMapper;
+    private final EmployeeCache employeeCache;
+    private final EmployeeIdAllocator employeeIdAllocator;
 
     /**
      *
@@ -62,9 +71,10 @@ public class EmployeeServiceImpl implements EmployeeService {
         
         log.info("Before Employee Create: ");
         Employee updatedEmployee = employeeBuilder.toEmployeeEntity(requestDto);
+        employeeIdAllocator.assign(updatedEmployee);
         log.info("After Employee Create: " + updatedEmployee);
 
-        return employeeRepository.save(updatedEmployee);
+        return cached(employeeRepository.save(updatedEmployee));
     }
 
     /**
@@ -83,16 +93,39 @@ public class EmployeeServiceImpl implements EmployeeService {
             Optional<Employee> employeeOpt = employeeRepository.findByEmployeeIdIgnoreCase(employeeId);
 
             if (employeeOpt.isPresent()) {
-                Employee updatedEmployee = employeeBuilder.updateEmployee(employeeOpt.get(), requestDto);
+                Employee updatedEmployee = employeeOpt.get();
+                employeeBuilder.updateEmployee(updatedEmployee, requestDto);
 
                 log.info("Employee Update: " + updatedEmployee);
-                return employeeRepository.save(updatedEmployee);
+                return cached(employeeRepository.save(updatedEmployee));
             }
             throw new EmployeeNotFoundException();
         }
         throw new InvalidRequestException("emp.notSpecified");
     }
 
+    /**
+     * Replaces the employee when it is still at the expected version.
+     *
+     * @param requestDto
+     * @param employeeId
+     * @param expectedVersion
+     * @return
+     */
+    @Override
+    public Employee updateEmployee(final UpdEmployeeRequest requestDto, final String employeeId,
+            final int expectedVersion) {
+        log.info("Update the employee {} at version {}", requestDto, expectedVersion);
+
+        if (StringUtils.isBlank(employeeId)) {
+            throw new InvalidRequestException("emp.notSpecified");
+        }
+        Employee employee = atVersion(employeeId, expectedVersion);
+        employeeBuilder.updateEmployee(employee, requestDto);
+
+        return saveAtVersion(employee, employeeId, expectedVersion);
+    }
+
     /**
      *
      * @param employeeDto
@@ -108,15 +141,44 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         if (employeeOpt.isPresent()) {
             log.info("Employee is present {}", employeeDto != null);
-            Employee updatedEmployee = employeeMapper.updateEmployeeName(employeeOpt.get(), employeeDto);
+            Employee updatedEmployee = employeeOpt.get();
+            employeeMapper.updateEmployeeName(updatedEmployee, employeeDto);
 
             log.info("Update Employee is present {}", updatedEmployee);
-            return employeeRepository.save(updatedEmployee);
+            return cached(employeeRepository.save(updatedEmployee));
         }
 
         throw new EmployeeNotFoundException();
     }
 
+    /**
+     * Renames the employee with one conditional UPDATE, it is not loaded.
+     *
+     * @param employeeDto
+     * @param employeeId
+     * @param expectedVersion
+     * @return
+     */
+    @Override
+    public long updateEmployeeName(final EmployeeNameDTO employeeDto, final String employeeId,
+            final int expectedVersion) {
+        log.info("Update employee name {} at version {}", employeeDto, expectedVersion);
+
+        String employeeIdKey = Employee.employeeIdKey(employeeId);
+        int updated = employeeRepository.updateNameIfVersion(employeeIdKey, expectedVersion,
+                employeeDto.getFirstName(), employeeDto.getMiddleName(), employeeDto.getLastName());
+
+        if (updated == 0) {
+            if (!employeeRepository.existsByEmployeeIdKey(employeeIdKey)) {
+                throw new EmployeeNotFoundException();
+            }
+            throw versionMismatch(employeeId, expectedVersion);
+        }
+        employeeCache.evict(employeeId);
+
+        return expectedVersion + 1L;
+    }
+
     /**
      *
      * @param employeeDto
@@ -132,22 +194,134 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         if (employeeOpt.isPresent()) {
             log.info("Employee is present {}", employeeDto != null);
-            Employee updatedEmployee = employeeMapper.updateEmployeeType(employeeOpt.get(), employeeDto);
+            Employee updatedEmployee = employeeOpt.get();
+            employeeMapper.updateEmployeeType(updatedEmployee, employeeDto);
 
             log.info("Update Employee is present {}", updatedEmployee);
-            return employeeRepository.save(updatedEmployee);
+            return cached(employeeRepository.save(updatedEmployee));
         }
 
         throw new EmployeeNotFoundException();
     }
 
     /**
+     * A new salary amount of the same type and currency is set with one
+     * conditional UPDATE. Other changes move the employee between counters,
+     * they are saved through the entity so that the counter listener sees
+     * them.
      *
-     * @param employee
+     * @param employeeDto
+     * @param employeeId
+     * @param expectedVersion
+     * @return
      */
     @Override
-    public void deleteEmployee(final Employee employee) {
+    public long updateEmployeeType(final EmployeeTypeDTO employeeDto, final String employeeId,
+            final int expectedVersion) {
+        log.info("Update employee type {} at version {}", employeeDto, expectedVersion);
+
+        EmployeeType empType = EmployeeType.fromString(employeeDto.getEmployeeType());
+        MonetaryAmount salary = employeeDto.getSalary();
+
+        if (empType != null && salary != null) {
+            int updated = employeeRepository.updateSalaryIfVersion(Employee.employeeIdKey(employeeId),
+                    expectedVersion, empType, salary.getCurrency().getCurrencyCode(),
+                    salary.getNumber().numberValue(BigDecimal.class));
+
+            if (updated == 1) {
+                employeeCache.evict(employeeId);
+                return expectedVersion + 1L;
+            }
+        }
+
+        Employee employee = atVersion(employeeId, expectedVersion);
+        employeeMapper.updateEmployeeType(employee, employeeDto);
+
+        return saveAtVersion(employee, employeeId, expectedVersion).getVersion();
+    }
+
+    /**
+     * One DELETE statement, the employee is not loaded first.
+     *
+     * @param employeeId
+     * @return
+     */
+    @Override
+    public int deleteEmployee(final String employeeId) {
+        List<String> deleted = employeeRepository.deleteDirectly(Employee.employeeIdKey(employeeId));
+
+        if (deleted.isEmpty()) {
+            throw new EmployeeNotFoundException("employee.notfound.byEmpId", new Object[]{employeeId});
+        }
+        deleted.forEach(employeeCache::evict);
+
+        return deleted.size();
+    }
+
+    /**
+     *
+     * @param employeeType
+     * @param currency
+     * @return
+     */
+    @Override
+    public int deleteEmployees(final String employeeType, final String currency) {
+        EmployeeType empType = null;
+        if (StringUtils.isNotBlank(employeeType)) {
+            empType = EmployeeType.fromString(employeeType.strip());
+
+            if (empType == null) {
+                throw new InvalidRequestException(ResourceBundleAccessor.accessMessageInBundle("delete.invalidType",
+                        new Object[]{EmployeeType.getAllNames()}));
+            }
+        }
+        String currencyCode = StringUtils.upperCase(StringUtils.trimToNull(currency), Locale.ROOT);
+
+        if (empType == null && currencyCode == null) {
+            throw new InvalidRequestException(
+                    ResourceBundleAccessor.accessMessageInBundle("delete.filter", new Object[]{}));
+        }
+
+        List<String> deleted = employeeRepository.deleteAllDirectly(empType, currencyCode);
+        deleted.forEach(employeeCache::evict);
+
+        log.info("Deleted {} employees of type {} and currency {}", deleted.size(), empType, currencyCode);
+        return deleted.size();
+    }
+
+    /**
+     * The repository committed the write, the cached lookup is refreshed with
+     * its result.
+     */
+    private Employee cached(Employee employee) {
+        employeeCache.put(employee);
+        return employee;
+    }
+
+    private Employee atVersion(String employeeId, int expectedVersion) {
+        Employee employee = employeeRepository.findByEmployeeIdIgnoreCase(employeeId)
+                .orElseThrow(EmployeeNotFoundException::new);
+
+        if (employee.getVersion() != expectedVersion) {
+            throw versionMismatch(employeeId, expectedVersion);
+        }
+        return employee;
+    }
+
+    /**
+     * The version is checked again by the UPDATE of the merge, a write
+     * committed since the employee was read fails it.
+     */
+    private Employee saveAtVersion(Employee employee, String employeeId, int expectedVersion) {
+        try {
+            return cached(employeeRepository.save(employee));
+        } catch (OptimisticLockingFailureException ex) {
+            employeeCache.evict(employeeId);
+            throw versionMismatch(employeeId, expectedVersion);
+        }
+    }
 
-        employeeRepository.delete(employee);
+    private static PreconditionFailedException versionMismatch(String employeeId, int expectedVersion) {
+        return new PreconditionFailedException(new Object[]{employeeId, expectedVersion});
     }
 }
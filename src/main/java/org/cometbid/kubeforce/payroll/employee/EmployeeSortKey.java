@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Sort keys of the cursor pagination, each one backed by an index that ends
+ * with the employee id key, which breaks ties.
+ *
+ * @author samueladebowale
+ */
+public enum EmployeeSortKey {
+
+    EMPLOYEE_ID("employeeIdKey", Employee::getEmployeeIdKey, Function.identity(),
+            Employee.DEFAULT_SORTFIELD, Employee.EMPLOYEE_ID),
+    LAST_NAME("lastName", Employee::getLastName, Function.identity(),
+            "lastName"),
+    EMAIL("emailKey", Employee::getEmailKey, Function.identity(),
+            Employee.EMAIL),
+    CREATION_DATE("creationDate", employee -> employee.getCreationDate().toString(), OffsetDateTime::parse,
+            "creationDate", Employee.CREATION_DATETIME);
+
+    private final String attribute;
+    private final Function<Employee, String> reader;
+    private final Function<String, ? extends Comparable<?>> parser;
+    private final List<String> properties;
+
+    EmployeeSortKey(String attribute, Function<Employee, String> reader,
+            Function<String, ? extends Comparable<?>> parser, String... properties) {
+        this.attribute = attribute;
+        this.reader = reader;
+        this.parser = parser;
+        this.properties = List.of(properties);
+    }
+
+    /**
+     *
+     * @return the entity attribute the seek predicate compares
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     *
+     * @return the name used in the sort parameter
+     */
+    public String getProperty() {
+        return properties.get(0);
+    }
+
+    /**
+     *
+     * @param employee
+     * @return the value of the key, as stored in a cursor
+     */
+    public String valueOf(Employee employee) {
+        return reader.apply(employee);
+    }
+
+    /**
+     *
+     * @param value
+     * @return the value of a cursor, typed as the attribute
+     */
+    public Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     *
+     * @param property
+     * @return
+     */
+    public static Optional<EmployeeSortKey> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(key -> key.properties.contains(property))
+                .findFirst();
+    }
+
+    /**
+     *
+     * @return
+     */
+    public static List<String> getAllProperties() {
+        return Arrays.stream(values()).map(EmployeeSortKey::getProperty).toList();
+    }
+}
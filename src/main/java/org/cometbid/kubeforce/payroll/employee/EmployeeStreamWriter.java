@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.employee;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Serializes employees to an output stream while they are read from the
+ * database, so neither the rows nor the document are held in memory. Used by
+ * the NDJSON export.
+ *
+ * @author samueladebowale
+ */
+public class EmployeeStreamWriter {
+
+    public static final Sort EXPORT_SORT = Sort.by(Employee.DEFAULT_SORTFIELD);
+
+    private final EmployeeFinderService employeeFinderService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter employeeWriter;
+
+    public EmployeeStreamWriter(EmployeeFinderService employeeFinderService, ObjectMapper objectMapper) {
+        this.employeeFinderService = employeeFinderService;
+        this.objectMapper = objectMapper;
+        this.employeeWriter = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes all employees as newline-delimited JSON, one compact document per
+     * line.
+     *
+     * @param out
+     * @throws IOException
+     */
+    public void writeNdjson(OutputStream out) throws IOException {
+        ObjectWriter lineWriter = employeeWriter.without(SerializationFeature.INDENT_OUTPUT);
+
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+
+            forEach(Pageable.unpaged(EXPORT_SORT), employee -> {
+                lineWriter.writeValue(generator, employee);
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        // the caller owns the stream, and a failed document must not be closed into valid JSON
+        return objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    private void forEach(Pageable pageable, EmployeeWrite write) throws IOException {
+        try {
+            employeeFinderService.forEachEmployee(pageable, employee -> {
+                try {
+                    write.write(employee);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface EmployeeWrite {
+
+        void write(Employee employee) throws IOException;
+    }
+}
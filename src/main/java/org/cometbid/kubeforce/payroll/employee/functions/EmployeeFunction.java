@@ -29,6 +29,7 @@ import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeId;
 import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
 import org.springframework.stereotype.Component;
 
@@ -46,7 +47,7 @@ public class EmployeeFunction implements Function<Long, Employee> {
 
     @Override
     public Employee apply(Long s) {
-        Optional<Employee> employeeOptional = employeeRepository.findById(s);
+        Optional<Employee> employeeOptional = employeeRepository.findById(new EmployeeId(s));
         
         if (employeeOptional.isPresent()) {
             return employeeOptional.get();
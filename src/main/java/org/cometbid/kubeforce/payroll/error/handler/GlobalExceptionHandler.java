@@ -51,6 +51,7 @@ import org.cometbid.kubeforce.payroll.exceptions.CustomConstraintViolationExcept
 import org.cometbid.kubeforce.payroll.exceptions.EmployeeAlreadyExistException;
 import org.cometbid.kubeforce.payroll.exceptions.EmployeeNotFoundException;
 import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import org.cometbid.kubeforce.payroll.exceptions.PreconditionFailedException;
 import org.cometbid.kubeforce.payroll.exceptions.ResourceNotFoundException;
 import org.cometbid.kubeforce.payroll.exceptions.ServiceUnavailableException;
 import org.cometbid.kubeforce.payroll.config.ConfigurationFactory;
@@ -174,6 +175,20 @@ public class GlobalExceptionHandler {
         return createHttpErrorInfo(CONFLICT, exception.getErrorCode(), request, null, exception);
     }
 
+    /**
+     *
+     * @param exception
+     * @param request
+     * @return
+     */
+    @ResponseStatus(PRECONDITION_FAILED)
+    @ExceptionHandler({PreconditionFailedException.class})
+    public @ResponseBody
+    AppResponse handlePreconditionFailedException(PreconditionFailedException exception, HttpServletRequest request) {
+
+        return createHttpErrorInfo(PRECONDITION_FAILED, exception.getErrorCode(), request, null, exception);
+    }
+
     /**
      *
      * @param request
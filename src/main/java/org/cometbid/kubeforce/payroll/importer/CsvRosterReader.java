@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+import static org.cometbid.kubeforce.payroll.employee.Employee.AMOUNT;
+import static org.cometbid.kubeforce.payroll.employee.Employee.CURRENCY;
+import static org.cometbid.kubeforce.payroll.employee.Employee.EMAIL;
+import static org.cometbid.kubeforce.payroll.employee.Employee.EMPLOYEE_TYPE;
+import static org.cometbid.kubeforce.payroll.employee.Employee.FIRST_NAME;
+import static org.cometbid.kubeforce.payroll.employee.Employee.LAST_NAME;
+import static org.cometbid.kubeforce.payroll.employee.Employee.MIDDLE_NAME;
+import org.javamoney.moneta.Money;
+
+/**
+ * CSV roster with a header line naming the columns by their JSON field names
+ * ({@code firstName, middleName, lastName, email, empType, amount, currency}),
+ * in any order. Fields may be quoted, quotes are escaped by doubling them; a
+ * record must not span lines.
+ *
+ * @author samueladebowale
+ */
+public class CsvRosterReader implements RosterReader {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long rowNumber;
+
+    public CsvRosterReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), RosterFormat.BUFFER_SIZE);
+
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IOException("Roster has no header line");
+        }
+
+        List<String> names = split(StringUtils.removeStart(header, "\uFEFF"));
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).strip(), i);
+        }
+
+        for (String required : List.of(FIRST_NAME, LAST_NAME, EMAIL)) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("Roster header has no " + required + " column");
+            }
+        }
+    }
+
+    @Override
+    public RosterRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            // blank lines are counted too, row n is the n-th line after the header
+            rowNumber++;
+            if (!line.isBlank()) {
+                return new RosterRow(rowNumber, line);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public CreateEmployeeRequest parse(RosterRow row) {
+        List<String> fields = split(row.line());
+
+        String amount = field(fields, AMOUNT);
+        String currency = field(fields, CURRENCY);
+
+        return CreateEmployeeRequest.builder()
+                .firstName(field(fields, FIRST_NAME))
+                .middleName(field(fields, MIDDLE_NAME))
+                .lastName(field(fields, LAST_NAME))
+                .email(field(fields, EMAIL))
+                .employeeType(field(fields, EMPLOYEE_TYPE))
+                .salary(amount == null || currency == null ? null : Money.of(new BigDecimal(amount), currency))
+                .build();
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        return StringUtils.trimToNull(fields.get(index));
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == QUOTE && i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else if (c == QUOTE) {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import java.io.IOException;
+
+/**
+ * Restart checkpoints of roster imports, per import the number of the last
+ * row whose chunk was committed. A checkpoint is kept after the import
+ * completed, so a repeated run of the same import skips every row.
+ *
+ * @author samueladebowale
+ */
+public interface ImportCheckpoints {
+
+    /**
+     *
+     * @param importId
+     * @return the last committed row, {@code 0} when the import has not
+     * committed anything yet
+     * @throws IOException
+     */
+    long lastCommittedRow(String importId) throws IOException;
+
+    void commit(String importId, long row) throws IOException;
+
+    void reset(String importId) throws IOException;
+
+    /**
+     * The import id as a file or object name.
+     *
+     * @param importId
+     * @return
+     */
+    static String fileName(String importId) {
+        return importId.replaceAll("[^A-Za-z0-9._-]", "_") + ".checkpoint";
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import java.util.List;
+
+/**
+ * Outcome of one run of an import.
+ *
+ * @author samueladebowale
+ * @param importId
+ * @param rowsRead rows read after the checkpoint
+ * @param rowsSkipped rows before the checkpoint, committed by an earlier run
+ * @param created
+ * @param rejected invalid rows and rows whose email is taken
+ * @param rejectedRows numbers of the first rejected rows
+ * @param elapsedMillis
+ */
+public record ImportReport(String importId, long rowsRead, long rowsSkipped, long created, long rejected,
+        List<Long> rejectedRows, long elapsedMillis) {
+
+    public long rowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000 / elapsedMillis;
+    }
+
+    public String summary() {
+        return String.format("%s: %d rows in %d ms (%d rows/s), %d created, %d rejected %s, %d skipped",
+                importId, rowsRead, elapsedMillis, rowsPerSecond(), created, rejected, rejectedRows, rowsSkipped);
+    }
+}
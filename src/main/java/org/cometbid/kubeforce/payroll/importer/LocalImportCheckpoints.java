@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Checkpoints in a local directory, one file per import. A checkpoint is
+ * replaced atomically. They only last as long as the directory does, which on
+ * Lambda is the execution environment.
+ *
+ * @author samueladebowale
+ */
+public class LocalImportCheckpoints implements ImportCheckpoints {
+
+    private final Path directory;
+
+    public LocalImportCheckpoints(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public long lastCommittedRow(String importId) throws IOException {
+        Path file = file(importId);
+        return Files.exists(file) ? Long.parseLong(Files.readString(file).strip()) : 0L;
+    }
+
+    @Override
+    public void commit(String importId, long row) throws IOException {
+        Files.createDirectories(directory);
+
+        Path temp = Files.createTempFile(directory, "checkpoint", ".tmp");
+        Files.writeString(temp, Long.toString(row));
+        Files.move(temp, file(importId), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void reset(String importId) throws IOException {
+        Files.deleteIfExists(file(importId));
+    }
+
+    private Path file(String importId) {
+        return directory.resolve(ImportCheckpoints.fileName(importId));
+    }
+}
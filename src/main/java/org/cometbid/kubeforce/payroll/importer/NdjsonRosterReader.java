@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import com.google.gson.Gson;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+
+/**
+ * NDJSON roster, one {@link CreateEmployeeRequest} per line in the JSON of
+ * the create-emp function.
+ *
+ * @author samueladebowale
+ */
+public class NdjsonRosterReader implements RosterReader {
+
+    private final BufferedReader reader;
+    private final Gson gson;
+    private long rowNumber;
+
+    public NdjsonRosterReader(InputStream in, Gson gson) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), RosterFormat.BUFFER_SIZE);
+        this.gson = gson;
+    }
+
+    @Override
+    public RosterRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (!line.isBlank()) {
+                return new RosterRow(rowNumber, line);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public CreateEmployeeRequest parse(RosterRow row) {
+        return gson.fromJson(row.line(), CreateEmployeeRequest.class);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ *
+ * @author samueladebowale
+ */
+public enum RosterFormat {
+
+    CSV(".csv"),
+    NDJSON(".ndjson", ".jsonl");
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String[] extensions;
+
+    RosterFormat(String... extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     *
+     * @param fileName file name or object key
+     * @return the format of the extension
+     * @throws IllegalArgumentException for any other extension
+     */
+    public static RosterFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+
+        for (RosterFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (name.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown roster format: " + fileName);
+    }
+
+    public RosterReader open(InputStream in, Gson gson) throws IOException {
+        return this == CSV ? new CsvRosterReader(in) : new NdjsonRosterReader(in, gson);
+    }
+}
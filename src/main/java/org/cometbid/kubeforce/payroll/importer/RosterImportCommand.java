@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.cometbid.kubeforce.payroll.PayrollFunctionalApplication;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Imports a roster file from the command line, on the context of
+ * {@link PayrollFunctionalApplication}:
+ * <pre>
+ * java -cp payroll-aws-h2-0.0.1-aws.jar org.cometbid.kubeforce.payroll.importer.RosterImportCommand \
+ *     --file=roster.csv [--format=csv|ndjson] [--chunk-size=1000] [--threads=4] \
+ *     [--checkpoints=.roster-checkpoints] [--restart] [--spring.datasource.url=...]
+ * </pre>
+ * A run that broke off continues after its checkpoint, {@code --restart}
+ * starts over. Options other than the ones above are handed to Spring.
+ *
+ * @author samueladebowale
+ */
+public final class RosterImportCommand {
+
+    private static final List<String> OPTIONS = List.of("file", "format", "chunk-size", "threads", "checkpoints",
+            "restart");
+
+    private RosterImportCommand() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (arg.startsWith("--") && OPTIONS.contains(option[0])) {
+                options.put(option[0], option.length > 1 ? option[1] : "true");
+            } else {
+                springArgs.add(arg);
+            }
+        }
+
+        if (!options.containsKey("file")) {
+            System.err.println("Usage: RosterImportCommand --file=<roster.csv|roster.ndjson> [options]");
+            System.exit(2);
+        }
+
+        Path file = Path.of(options.get("file")).toAbsolutePath().normalize();
+        RosterFormat format = options.containsKey("format")
+                ? RosterFormat.valueOf(options.get("format").toUpperCase(Locale.ROOT))
+                : RosterFormat.fromFileName(file.toString());
+        int chunkSize = Integer.parseInt(options.getOrDefault("chunk-size",
+                Integer.toString(RosterImportEngine.DEFAULT_CHUNK_SIZE)));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                Integer.toString(Runtime.getRuntime().availableProcessors())));
+
+        String importId = file.toString();
+        ImportCheckpoints checkpoints = new LocalImportCheckpoints(Path.of(options.getOrDefault("checkpoints",
+                ".roster-checkpoints")));
+        if (options.containsKey("restart")) {
+            checkpoints.reset(importId);
+        }
+
+        try (ConfigurableApplicationContext context = PayrollFunctionalApplication.run(
+                springArgs.toArray(String[]::new));
+                RosterImportEngine engine = new RosterImportEngine(context.getBean(EmployeeBuilder.class),
+                        context.getBean(EmployeeBatchService.class), checkpoints, chunkSize, threads);
+                InputStream in = Files.newInputStream(file);
+                RosterReader reader = format.open(in, context.getBean(Gson.class))) {
+
+            System.out.println(engine.run(importId, reader).summary());
+        }
+    }
+}
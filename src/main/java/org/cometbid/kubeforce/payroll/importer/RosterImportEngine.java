@@ -0,0 +1,220 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.common.util.GenericProgrammaticValidator;
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchOutcome;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+
+/**
+ * Imports a roster in chunks. The roster is read on the calling thread, one
+ * row at a time; each chunk is parsed, validated and mapped with
+ * {@link EmployeeBuilder} on a worker, and the mapped chunks are inserted in
+ * roster order, one transaction per chunk, by
+ * {@link EmployeeBatchService#insertEmployees(Map)}. After every chunk the
+ * number of its last row is committed to the {@link ImportCheckpoints}, a
+ * restarted import continues after it. A chunk whose transaction failed is
+ * not committed: the import stops with an exception, and its retry starts
+ * again with that chunk.
+ *
+ * At most {@code parallelism} chunks are mapped ahead of the writer, so the
+ * memory used does not grow with the roster.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public class RosterImportEngine implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    static final int REJECTED_ROWS_REPORTED = 100;
+
+    private final EmployeeBuilder employeeBuilder;
+    private final EmployeeBatchService employeeBatchService;
+    private final ImportCheckpoints checkpoints;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    public RosterImportEngine(EmployeeBuilder employeeBuilder, EmployeeBatchService employeeBatchService,
+            ImportCheckpoints checkpoints, int chunkSize, int parallelism) {
+        this.employeeBuilder = employeeBuilder;
+        this.employeeBatchService = employeeBatchService;
+        this.checkpoints = checkpoints;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("roster-import-", 0).daemon().factory());
+    }
+
+    /**
+     *
+     * @param importId identifies the roster for the checkpoints
+     * @param reader
+     * @return
+     * @throws IOException
+     */
+    public ImportReport run(String importId, RosterReader reader) throws IOException {
+        long resumeAfter = checkpoints.lastCommittedRow(importId);
+        if (resumeAfter > 0) {
+            log.info("Resuming import {} after row {}", importId, resumeAfter);
+        }
+
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        Deque<Future<MappedChunk>> pending = new ArrayDeque<>();
+
+        try {
+            List<RosterRow> chunk = new ArrayList<>(chunkSize);
+
+            for (RosterRow row = reader.next(); row != null; row = reader.next()) {
+                if (row.number() <= resumeAfter) {
+                    progress.skipped++;
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    pending.add(submit(reader, chunk));
+                    chunk = new ArrayList<>(chunkSize);
+
+                    if (pending.size() > parallelism) {
+                        write(importId, pending.remove(), progress);
+                    }
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                pending.add(submit(reader, chunk));
+            }
+
+            while (!pending.isEmpty()) {
+                write(importId, pending.remove(), progress);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+
+        ImportReport report = new ImportReport(importId, progress.read, progress.skipped, progress.created,
+                progress.rejected, List.copyOf(progress.rejectedRows),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        log.info("Imported {}", report.summary());
+        return report;
+    }
+
+    private Future<MappedChunk> submit(RosterReader reader, List<RosterRow> rows) {
+        return workers.submit(() -> map(reader, rows));
+    }
+
+    private MappedChunk map(RosterReader reader, List<RosterRow> rows) {
+        Map<String, Employee> employees = new LinkedHashMap<>();
+        List<Long> rejected = new ArrayList<>();
+
+        for (RosterRow row : rows) {
+            try {
+                CreateEmployeeRequest request = reader.parse(row);
+
+                if (request != null && GenericProgrammaticValidator.violations(request).isEmpty()) {
+                    employees.put(Long.toString(row.number()), employeeBuilder.toEmployeeEntity(request));
+                    continue;
+                }
+            } catch (RuntimeException ex) {
+                log.debug("Row {} of the roster is malformed", row.number(), ex);
+            }
+            rejected.add(row.number());
+        }
+
+        return new MappedChunk(rows.get(rows.size() - 1).number(), rows.size(), employees, rejected);
+    }
+
+    private void write(String importId, Future<MappedChunk> future, Progress progress) throws IOException {
+        MappedChunk chunk = await(future);
+
+        EmployeeBatchOutcome outcome = employeeBatchService.insertEmployees(chunk.employees());
+        if (!outcome.failed().isEmpty()) {
+            throw new IllegalStateException("Inserting the chunk up to row " + chunk.lastRow() + " of import "
+                    + importId + " failed, it stays committed up to row " + checkpoints.lastCommittedRow(importId));
+        }
+
+        progress.read += chunk.rows();
+        progress.created += chunk.employees().size() - outcome.rejected().size();
+        chunk.rejected().forEach(progress::reject);
+        outcome.rejected().forEach(key -> progress.reject(Long.valueOf(key)));
+
+        checkpoints.commit(importId, chunk.lastRow());
+        log.debug("Import {} committed up to row {}", importId, chunk.lastRow());
+    }
+
+    private static MappedChunk await(Future<MappedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Mapping a roster chunk failed", ex.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    private record MappedChunk(long lastRow, int rows, Map<String, Employee> employees, List<Long> rejected) {
+    }
+
+    private static final class Progress {
+
+        private long read;
+        private long skipped;
+        private long created;
+        private long rejected;
+        private final List<Long> rejectedRows = new ArrayList<>();
+
+        void reject(long row) {
+            rejected++;
+            if (rejectedRows.size() < REJECTED_ROWS_REPORTED) {
+                rejectedRows.add(row);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+
+/**
+ * Streams the rows of a roster, one line per record. {@link #next()} is
+ * called by the import thread only, {@link #parse(RosterRow)} by any number
+ * of workers at once.
+ *
+ * @author samueladebowale
+ */
+public interface RosterReader extends Closeable {
+
+    /**
+     *
+     * @return the next row, {@code null} at the end of the roster
+     * @throws IOException
+     */
+    RosterRow next() throws IOException;
+
+    /**
+     *
+     * @param row
+     * @return the create request of the row
+     * @throws RuntimeException when the row is malformed
+     */
+    CreateEmployeeRequest parse(RosterRow row);
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.importer;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * Checkpoints as objects of an S3 bucket, one per import. A put replaces the
+ * object atomically and is read back by every execution environment, so a
+ * retried import continues after its last committed chunk wherever it runs.
+ *
+ * @author samueladebowale
+ */
+public class S3ImportCheckpoints implements ImportCheckpoints {
+
+    private final S3Client s3Client;
+    private final String bucket;
+
+    public S3ImportCheckpoints(S3Client s3Client, String bucket) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public long lastCommittedRow(String importId) {
+        try {
+            String row = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(ImportCheckpoints.fileName(importId))
+                    .build()).asUtf8String();
+            return Long.parseLong(row.strip());
+        } catch (NoSuchKeyException ex) {
+            return 0L;
+        }
+    }
+
+    @Override
+    public void commit(String importId, long row) {
+        s3Client.putObject(PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(ImportCheckpoints.fileName(importId))
+                .build(), RequestBody.fromString(Long.toString(row)));
+    }
+
+    @Override
+    public void reset(String importId) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucket)
+                .key(ImportCheckpoints.fileName(importId))
+                .build());
+    }
+}
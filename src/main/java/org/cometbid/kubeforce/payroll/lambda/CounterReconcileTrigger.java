@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.lambda;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.config.CounterReconcileScheduler;
+import org.cometbid.kubeforce.payroll.config.JpaBootstrapGate;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterReconciler;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Reconciles the employee counters in the process that serves them. The
+ * database is in memory, a function of its own would only see its own copy.
+ * A Lambda environment is frozen between invocations, so no timer runs: the
+ * handler calls {@link #afterInvocation()} at the end of every invocation and
+ * the reconciliation runs when it is due, at most every
+ * {@code payroll.counters.reconcile-interval} (one hour by default), and on
+ * the first invocation after a SnapStart restore. The invocation it falls on
+ * pays for the three count queries.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public class CounterReconcileTrigger implements Resource {
+
+    static final Duration DEFAULT_INTERVAL = Duration.ofHours(1);
+
+    private final EmployeeCounterReconciler employeeCounterReconciler;
+    private final JpaBootstrapGate jpaBootstrapGate;
+    private final long intervalNanos;
+    private final AtomicLong dueAt;
+
+    CounterReconcileTrigger(EmployeeCounterReconciler employeeCounterReconciler, JpaBootstrapGate jpaBootstrapGate,
+            Duration interval) {
+        this.employeeCounterReconciler = employeeCounterReconciler;
+        this.jpaBootstrapGate = jpaBootstrapGate;
+        this.intervalNanos = interval.toNanos();
+        this.dueAt = new AtomicLong(System.nanoTime() + intervalNanos);
+    }
+
+    /**
+     * Creates the trigger and registers it with the global CRaC context. The
+     * caller must keep a strong reference to it, the CRaC context only holds
+     * it weakly.
+     *
+     * @param context
+     * @return
+     */
+    public static CounterReconcileTrigger register(ApplicationContext context) {
+        CounterReconcileTrigger trigger = new CounterReconcileTrigger(
+                context.getBean(EmployeeCounterReconciler.class),
+                context.getBeanProvider(JpaBootstrapGate.class).getIfAvailable(),
+                context.getEnvironment().getProperty(CounterReconcileScheduler.INTERVAL_PROPERTY, Duration.class,
+                        DEFAULT_INTERVAL));
+
+        Core.getGlobalContext().register(trigger);
+        return trigger;
+    }
+
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) throws Exception {
+        // nothing to release
+    }
+
+    /**
+     * The snapshot may be hours old, the next invocation reconciles.
+     */
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) throws Exception {
+        dueAt.set(System.nanoTime());
+    }
+
+    /**
+     * Reconciles when it is due. Only one of concurrent callers does, and a
+     * failure is logged and retried an interval later, it must not fail the
+     * invocation.
+     */
+    public void afterInvocation() {
+        long now = System.nanoTime();
+        long due = dueAt.get();
+
+        if (now - due < 0 || (jpaBootstrapGate != null && !jpaBootstrapGate.isReady())
+                || !dueAt.compareAndSet(due, now + intervalNanos)) {
+            return;
+        }
+
+        try {
+            employeeCounterReconciler.reconcile();
+        } catch (RuntimeException ex) {
+            log.warn("Employee counters could not be reconciled", ex);
+        }
+    }
+}
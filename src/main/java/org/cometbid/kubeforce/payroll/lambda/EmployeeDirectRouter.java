@@ -0,0 +1,391 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.lambda;
+
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.amazonaws.serverless.proxy.model.MultiValuedTreeMap;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.common.util.PagingFactory;
+import org.cometbid.kubeforce.payroll.common.util.ResourceBundleAccessor;
+import org.cometbid.kubeforce.payroll.common.util.SimplePage;
+import org.cometbid.kubeforce.payroll.config.ConfigurationFactory;
+import org.cometbid.kubeforce.payroll.config.JpaBootstrapGate;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterService;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeETag;
+import org.cometbid.kubeforce.payroll.employee.EmployeeFinderService;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import org.cometbid.kubeforce.payroll.exceptions.ResourceNotFoundException;
+import org.cometbid.kubeforce.payroll.response.model.ApiError;
+import org.cometbid.kubeforce.payroll.response.model.AppResponse;
+import org.cometbid.kubeforce.payroll.response.model.ErrorCode;
+import static org.cometbid.kubeforce.payroll.common.util.LocalizationContextUtils.*;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * Answers the hot read routes of {@code /api/v1/employees} straight from the
+ * API Gateway event, without the servlet emulation of the container handler:
+ * no fake servlet request, no DispatcherServlet, interceptors or message
+ * converters. The services are called directly and the proxy response is
+ * written to the Lambda output stream with a {@link JsonGenerator}.
+ *
+ * Only requests whose outcome is known to be identical to the
+ * {@code EmployeeController} one are taken: the list (with paging, sorting and
+ * localization parameters only), the count and the lookup by id. Everything
+ * else is declined and goes through the container handler. Once a read route
+ * has queried the services it is not declined anymore, a failure is answered
+ * here in the form of the {@code GlobalExceptionHandler}, so the database is
+ * not queried a second time.
+ *
+ * Set {@code PAYROLL_DIRECT_ROUTES=false} to send every request through the
+ * container handler.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public class EmployeeDirectRouter {
+
+    public static final String ENABLED_ENV = "PAYROLL_DIRECT_ROUTES";
+
+    static final String EMPLOYEES_PATH = "/api/v1/employees";
+
+    /**
+     * Query parameters read by the list route, the paging/sorting ones of
+     * {@link PagingFactory} and the localization ones of the interceptors.
+     */
+    private static final Set<String> LIST_PARAMS = Set.of("page", "size", "sort", "sort_by", "sortBy", "sortby",
+            "tz", "lang", "language", "locale");
+
+    private static final Set<String> LOCALIZATION_PARAMS = Set.of("tz", "lang", "language", "locale");
+
+    /**
+     * Fixed GET routes of the controller that would otherwise match
+     * {@code /{empId}}.
+     */
+    private static final Set<String> RESERVED_SEGMENTS = Set.of("all-fields", "mandatory-fields",
+            "count-mandatory-fields", "count-all-fields", "export", "counters", "cache-statistics");
+
+    private final EmployeeFinderService employeeFinderService;
+    private final EmployeeCounterService employeeCounterService;
+    private final ObjectMapper objectMapper;
+    private final ConfigurationFactory configurationFactory;
+    private final JpaBootstrapGate jpaBootstrapGate;
+    private final boolean enabled;
+
+    EmployeeDirectRouter(EmployeeFinderService employeeFinderService, EmployeeCounterService employeeCounterService,
+            ObjectMapper objectMapper, ConfigurationFactory configurationFactory,
+            JpaBootstrapGate jpaBootstrapGate, boolean enabled) {
+        this.employeeFinderService = employeeFinderService;
+        this.employeeCounterService = employeeCounterService;
+        this.objectMapper = objectMapper;
+        this.configurationFactory = configurationFactory;
+        this.jpaBootstrapGate = jpaBootstrapGate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Creates the router from the beans of the given context. The object mapper
+     * is the one of the MVC JSON converter, so both paths serialize the same
+     * way. With the async-init profile, requests are
+     * left to the container, and its wait on the {@link JpaBootstrapGate},
+     * until the database is ready.
+     *
+     * @param context
+     * @return
+     */
+    public static EmployeeDirectRouter create(ApplicationContext context) {
+        String enabled = System.getenv(ENABLED_ENV);
+
+        return new EmployeeDirectRouter(context.getBean(EmployeeFinderService.class),
+                context.getBean(EmployeeCounterService.class),
+                mvcObjectMapper(context),
+                context.getBean(ConfigurationFactory.class),
+                context.getBeanProvider(JpaBootstrapGate.class).getIfAvailable(),
+                enabled == null || Boolean.parseBoolean(enabled));
+    }
+
+    private static ObjectMapper mvcObjectMapper(ApplicationContext context) {
+        // Data REST registers an adapter of its own, the MVC one is taken by name
+        return context.getBean("requestMappingHandlerAdapter", RequestMappingHandlerAdapter.class)
+                .getMessageConverters().stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(converter -> ((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                .findFirst()
+                .orElseGet(() -> context.getBean(ObjectMapper.class));
+    }
+
+    private boolean accepting() {
+        return enabled && (jpaBootstrapGate == null || jpaBootstrapGate.isReady());
+    }
+
+    /**
+     * Answers the request if it is one of the direct routes.
+     *
+     * @param request
+     * @return the response, or {@code null} when the request must go through
+     * the container handler
+     */
+    public DirectResponse route(AwsProxyRequest request) {
+        if (!accepting() || !"GET".equalsIgnoreCase(request.getHttpMethod()) || request.getPath() == null) {
+            return null;
+        }
+
+        String path = request.getPath();
+        if (!path.startsWith(EMPLOYEES_PATH)) {
+            return null;
+        }
+
+        Map<String, String> params = queryParams(request);
+        String rest = path.substring(EMPLOYEES_PATH.length());
+
+        try {
+            if (rest.isEmpty()) {
+                return params.keySet().stream().allMatch(LIST_PARAMS::contains)
+                        ? answer(path, () -> list(request, params)) : null;
+            }
+
+            if (!rest.startsWith("/") || rest.indexOf('/', 1) >= 0 || rest.length() == 1
+                    || !params.keySet().stream().allMatch(LOCALIZATION_PARAMS::contains)) {
+                return null;
+            }
+
+            String segment = rest.substring(1);
+            if ("count".equals(segment)) {
+                return answer(path, this::count);
+            }
+
+            return RESERVED_SEGMENTS.contains(segment) ? null : answer(path, () -> findById(request, params, segment));
+        } finally {
+            clearContext();
+        }
+    }
+
+    /**
+     * Runs a read route and answers its failure the way the
+     * {@code GlobalExceptionHandler} does.
+     */
+    private DirectResponse answer(String path, Supplier<DirectResponse> route) {
+        try {
+            return route.get();
+        } catch (RuntimeException ex) {
+            return failure(path, ex);
+        }
+    }
+
+    private DirectResponse failure(String path, RuntimeException ex) {
+        if (ex instanceof ResourceNotFoundException notFound) {
+            return error(HttpStatus.NOT_FOUND, notFound.getErrorCode(), path, notFound.getErrorMessage(), ex);
+        }
+        if (ex instanceof InvalidRequestException invalid) {
+            return error(HttpStatus.BAD_REQUEST, invalid.getErrorCode(), path, null, ex);
+        }
+
+        log.error("Direct route failed GET {}", path, ex);
+
+        String message = ResourceBundleAccessor.accessMessageInBundle(
+                ErrorCode.SYS_DEFINED_ERR_CODE.getErrMsgKey(), new Object[]{});
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, ErrorCode.SYS_DEFINED_ERR_CODE.getErrCode(), path,
+                message, ex);
+    }
+
+    private DirectResponse error(HttpStatus status, String errorCode, String path, String message, Exception ex) {
+        ApiError apiError = ApiError.create(path, "GET", errorCode, status.name(), status.value(),
+                message != null && !message.isBlank() ? message : status.getReasonPhrase(), ex.getMessage());
+
+        AppResponse response = AppResponse.error(apiError, configurationFactory.createResponseMetadata());
+        return new DirectResponse(status.value(), writeJson(response));
+    }
+
+    private DirectResponse list(AwsProxyRequest request, Map<String, String> params) {
+        applyLocalization(request, params);
+
+        SimplePage<Employee> page = employeeFinderService.findAll(PagingFactory.preparePageRequest(params));
+
+        int status = page.getTotalElements() == 0 ? HttpStatus.NOT_FOUND.value() : HttpStatus.OK.value();
+        return new DirectResponse(status, writeJson(page));
+    }
+
+    private DirectResponse count() {
+        String response = "All employee Count: " + employeeCounterService.total();
+
+        return new DirectResponse(HttpStatus.OK.value(), response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private DirectResponse findById(AwsProxyRequest request, Map<String, String> params, String employeeId) {
+        applyLocalization(request, params);
+
+        Employee employee = employeeFinderService.findByEmpId(employeeId);
+
+        return new DirectResponse(HttpStatus.OK.value(), writeJson(employee), EmployeeETag.of(employee));
+    }
+
+    private byte[] writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to serialize " + value.getClass().getSimpleName(), ex);
+        }
+    }
+
+    /**
+     * Same thread context the {@code CustomLocaleChangeInterceptor} and the
+     * {@code RequestInterceptor} set up for the controllers. It is cleared when
+     * the route returns, as their {@code afterCompletion} does.
+     */
+    private static void applyLocalization(AwsProxyRequest request, Map<String, String> params) {
+        Headers headers = request.getMultiValueHeaders();
+
+        String langCode = header(headers, "locale");
+        if (langCode == null) {
+            langCode = params.getOrDefault("lang", params.getOrDefault("language",
+                    params.getOrDefault("locale", DEFAULT_LANG_CODE)));
+        }
+        setContextLocale(langCode);
+
+        String timezone = header(headers, "timezone");
+        setContextTimezone(timezone != null ? timezone : params.getOrDefault("tz", DEFAULT_TIMEZONE));
+    }
+
+    private static String header(Headers headers, String name) {
+        return headers == null ? null : headers.getFirst(name);
+    }
+
+    /**
+     * First value of every query parameter, like {@code @RequestParam Map}.
+     */
+    private static Map<String, String> queryParams(AwsProxyRequest request) {
+        MultiValuedTreeMap<String, String> multiValue = request.getMultiValueQueryStringParameters();
+        if (multiValue != null && !multiValue.isEmpty()) {
+            Map<String, String> params = new HashMap<>();
+            multiValue.keySet().forEach(key -> params.put(key, multiValue.getFirst(key)));
+            return params;
+        }
+
+        Map<String, String> single = request.getQueryStringParameters();
+        return single == null ? Map.of() : single;
+    }
+
+    /**
+     * A response of the direct router, a JSON or plain body as written by the
+     * controller.
+     *
+     * @param statusCode
+     * @param body UTF-8 encoded body
+     * @param eTag the ETag header of an employee, or {@code null}
+     */
+    public record DirectResponse(int statusCode, byte[] body, String eTag) {
+
+        public static final String CONTENT_TYPE = MediaType.APPLICATION_JSON_VALUE;
+
+        public DirectResponse(int statusCode, byte[] body) {
+            this(statusCode, body, null);
+        }
+
+        /**
+         *
+         * @return the response headers, each with a single value
+         */
+        public Map<String, List<String>> headers() {
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            if (eTag != null) {
+                headers.put(HttpHeaders.ETAG, List.of(eTag));
+            }
+            headers.put(HttpHeaders.CONTENT_TYPE, List.of(CONTENT_TYPE));
+            return headers;
+        }
+
+        // the Lambda runtime owns the output stream
+        private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .build();
+
+        /**
+         * Streams the API Gateway proxy response to the Lambda output. The body
+         * is escaped straight from its UTF-8 bytes.
+         *
+         * @param out
+         * @throws IOException
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeNumberField("statusCode", statusCode);
+
+                Map<String, List<String>> headers = headers();
+
+                generator.writeObjectFieldStart("headers");
+                for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                    generator.writeStringField(header.getKey(), header.getValue().get(0));
+                }
+                generator.writeEndObject();
+
+                generator.writeObjectFieldStart("multiValueHeaders");
+                for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                    generator.writeArrayFieldStart(header.getKey());
+                    generator.writeString(header.getValue().get(0));
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+
+                generator.writeFieldName("body");
+                generator.writeUTF8String(body, 0, body.length);
+                generator.writeBooleanField("isBase64Encoded", false);
+                generator.writeEndObject();
+            }
+        }
+
+        /**
+         * The same response as a container handler response, used when the
+         * caller needs the object rather than the stream.
+         *
+         * @return
+         */
+        public AwsProxyResponse toAwsProxyResponse() {
+            Headers headers = new Headers();
+            headers().forEach(headers::put);
+
+            return new AwsProxyResponse(statusCode, headers, new String(body, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.lambda;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Lambda context of the synthetic priming requests, which are not sent by the
+ * runtime. It names the function from the runtime environment where it is
+ * set and logs through Log4j.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+class PrimingContext implements Context {
+
+    private static final int PRIMING_TIMEOUT_MILLIS = 30_000;
+
+    private final String awsRequestId = UUID.randomUUID().toString();
+
+    private final LambdaLogger logger = new LambdaLogger() {
+        @Override
+        public void log(String message) {
+            log.info(message);
+        }
+
+        @Override
+        public void log(byte[] message) {
+            log.info(new String(message, StandardCharsets.UTF_8));
+        }
+    };
+
+    @Override
+    public String getAwsRequestId() {
+        return awsRequestId;
+    }
+
+    @Override
+    public String getLogGroupName() {
+        return System.getenv("AWS_LAMBDA_LOG_GROUP_NAME");
+    }
+
+    @Override
+    public String getLogStreamName() {
+        return System.getenv("AWS_LAMBDA_LOG_STREAM_NAME");
+    }
+
+    @Override
+    public String getFunctionName() {
+        return System.getenv("AWS_LAMBDA_FUNCTION_NAME");
+    }
+
+    @Override
+    public String getFunctionVersion() {
+        return System.getenv("AWS_LAMBDA_FUNCTION_VERSION");
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return null;
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        return PRIMING_TIMEOUT_MILLIS;
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+        String memory = System.getenv("AWS_LAMBDA_FUNCTION_MEMORY_SIZE");
+        return memory != null ? Integer.parseInt(memory) : 0;
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+        return logger;
+    }
+}
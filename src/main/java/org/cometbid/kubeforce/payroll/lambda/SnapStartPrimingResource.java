@@ -0,0 +1,306 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.lambda;
+
+import com.amazonaws.serverless.proxy.model.ApiGatewayRequestIdentity;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequestContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.amazonaws.serverless.proxy.model.HttpApiV2HttpContext;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequestContext;
+import com.amazonaws.serverless.proxy.model.MultiValuedTreeMap;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import lombok.extern.log4j.Log4j2;
+import org.cometbid.kubeforce.payroll.base.InMemoryUniqueIdGenerator;
+import org.cometbid.kubeforce.payroll.base.PooledSequenceIdGenerator;
+import org.cometbid.kubeforce.payroll.common.util.RandomUtil;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
+import org.crac.Core;
+import org.crac.Resource;
+
+/**
+ * CRaC resource used by the Lambda handlers under SnapStart. Before the
+ * snapshot is taken it drives a handful of synthetic requests through the full
+ * MVC/JPA stack so the restored environment does not pay for Jackson, Hibernate,
+ * MapStruct and Bean Validation warm-up on its first real invocation. After
+ * restore it reseeds every random source and drops the id blocks reserved from
+ * the sequences and the employee id prefixes, all of them would otherwise be
+ * shared by the environments restored from the same snapshot.
+ *
+ * Priming can be switched off with {@code PAYROLL_SNAPSTART_PRIMING=false} to
+ * compare the first post-restore invocation of a primed and an unprimed
+ * snapshot.
+ *
+ * @author samueladebowale
+ */
+@Log4j2
+public class SnapStartPrimingResource implements Resource {
+
+    public static final String PRIMING_ENABLED_ENV = "PAYROLL_SNAPSTART_PRIMING";
+
+    static final String EMPLOYEES_PATH = "/api/v1/employees";
+    static final String PRIMING_EMAIL = "snapstart.priming@payroll.cometbid.org";
+    static final String UNKNOWN_EMPLOYEE_ID = "SNAPSTART0000";
+
+    private final String handlerName;
+    private final BiFunction<AwsProxyRequest, Context, AwsProxyResponse> proxy;
+    private final boolean primingEnabled;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicBoolean firstInvocationPending = new AtomicBoolean(false);
+    private volatile long primingMillis;
+    private volatile int primedRequests;
+    private volatile long restoreHookMillis;
+
+    SnapStartPrimingResource(String handlerName,
+            BiFunction<AwsProxyRequest, Context, AwsProxyResponse> proxy,
+            boolean primingEnabled) {
+        this.handlerName = handlerName;
+        this.proxy = proxy;
+        this.primingEnabled = primingEnabled;
+    }
+
+    /**
+     * Creates a priming resource for the given handler and registers it with
+     * the global CRaC context. The caller must keep a strong reference to the
+     * returned resource, the CRaC context only holds it weakly.
+     *
+     * @param handlerName
+     * @param proxy sends a request through the handler's container
+     * @return
+     */
+    public static SnapStartPrimingResource register(String handlerName,
+            BiFunction<AwsProxyRequest, Context, AwsProxyResponse> proxy) {
+
+        String enabled = System.getenv(PRIMING_ENABLED_ENV);
+        SnapStartPrimingResource resource = new SnapStartPrimingResource(handlerName, proxy,
+                enabled == null || Boolean.parseBoolean(enabled));
+
+        Core.getGlobalContext().register(resource);
+        return resource;
+    }
+
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) throws Exception {
+        if (!primingEnabled) {
+            log.info("SnapStart priming disabled for {}", handlerName);
+            return;
+        }
+
+        long start = System.nanoTime();
+        int count = prime();
+
+        this.primedRequests = count;
+        this.primingMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        log.info("SnapStart priming of {} sent {} requests in {} ms", handlerName, count, primingMillis);
+    }
+
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) throws Exception {
+        long start = System.nanoTime();
+
+        RandomUtil.reseed();
+        InMemoryUniqueIdGenerator.reseed();
+        PooledSequenceIdGenerator.discardPools();
+        EmployeeIdAllocator.discardBlocks();
+
+        this.restoreHookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        this.firstInvocationPending.set(true);
+
+        log.info("SnapStart restore hooks of {} completed in {} ms (primed={}, primingRequests={}, primingDuration={} ms)",
+                handlerName, restoreHookMillis, primingEnabled, primedRequests, primingMillis);
+    }
+
+    /**
+     * Called by the handler after every invocation. The first invocation
+     * following a restore is reported once, which is the number to compare
+     * between a primed and an unprimed snapshot.
+     *
+     * @param startNanos {@link System#nanoTime()} taken when the invocation
+     * started
+     */
+    public void recordInvocation(long startNanos) {
+        if (firstInvocationPending.compareAndSet(true, false)) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            log.info("First invocation of {} after restore took {} ms (primed={}, restoreHooks={} ms)",
+                    handlerName, millis, primingEnabled, restoreHookMillis);
+        }
+    }
+
+    /**
+     * Sends the synthetic requests. The employee created here is deleted again
+     * so nothing of the priming run is left in the snapshot's database.
+     *
+     * @return number of requests sent
+     */
+    int prime() {
+        String salary = "{\"amount\": 1500.00, \"currency\": \"USD\"}";
+        String createBody = "{\"email\": \"" + PRIMING_EMAIL + "\", \"firstName\": \"Snap\", "
+                + "\"middleName\": \"Start\", \"lastName\": \"Priming\", \"empType\": \"FULL-TIME\", "
+                + "\"salary\": " + salary + "}";
+
+        int count = 0;
+        for (AwsProxyRequest request : List.of(
+                request("GET", EMPLOYEES_PATH, Map.of("page", "1", "size", "10"), null),
+                request("GET", EMPLOYEES_PATH + "/count", Map.of(), null),
+                request("GET", EMPLOYEES_PATH + "/" + UNKNOWN_EMPLOYEE_ID, Map.of(), null),
+                request("POST", EMPLOYEES_PATH, Map.of(), "{\"email\": \"invalid\"}"))) {
+
+            send(request);
+            count++;
+        }
+
+        AwsProxyResponse created = send(request("POST", EMPLOYEES_PATH, Map.of(), createBody));
+        count++;
+
+        String empId = employeeIdOf(created);
+        if (empId == null) {
+            return count;
+        }
+
+        for (AwsProxyRequest request : List.of(
+                request("GET", EMPLOYEES_PATH + "/" + empId, Map.of(), null),
+                request("PATCH", EMPLOYEES_PATH + "/" + empId + "/name", Map.of(),
+                        "{\"firstName\": \"Snap\", \"middleName\": \"\", \"lastName\": \"Primed\"}"),
+                request("PATCH", EMPLOYEES_PATH + "/" + empId + "/type", Map.of(),
+                        "{\"empType\": \"CONTRACT\", \"salary\": " + salary + "}"),
+                request("DELETE", EMPLOYEES_PATH + "/" + empId, Map.of(), null))) {
+
+            send(request);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * A REST API proxy event as API Gateway sends it, a JSON body when there
+     * is one.
+     */
+    static AwsProxyRequest request(String method, String path, Map<String, String> query, String body) {
+        AwsProxyRequest request = new AwsProxyRequest();
+        request.setHttpMethod(method);
+        request.setPath(path);
+
+        MultiValuedTreeMap<String, String> queryString = new MultiValuedTreeMap<>();
+        query.forEach(queryString::add);
+        request.setMultiValueQueryStringParameters(queryString);
+
+        Headers headers = new Headers();
+        headers.putSingle("Accept", "application/json");
+        if (body != null) {
+            headers.putSingle("Content-Type", "application/json");
+            request.setBody(body);
+        }
+        request.setMultiValueHeaders(headers);
+
+        ApiGatewayRequestIdentity identity = new ApiGatewayRequestIdentity();
+        identity.setSourceIp("127.0.0.1");
+
+        AwsProxyRequestContext requestContext = new AwsProxyRequestContext();
+        requestContext.setRequestId(UUID.randomUUID().toString());
+        requestContext.setStage("priming");
+        requestContext.setProtocol("HTTP/1.1");
+        requestContext.setRequestTimeEpoch(System.currentTimeMillis());
+        requestContext.setIdentity(identity);
+        request.setRequestContext(requestContext);
+
+        return request;
+    }
+
+    /**
+     * The same request as an HTTP API (payload 2.0) event, for the handlers
+     * behind an HTTP API.
+     *
+     * @param request
+     * @return
+     */
+    public static HttpApiV2ProxyRequest toHttpApiV2Request(AwsProxyRequest request) {
+        HttpApiV2ProxyRequest v2 = new HttpApiV2ProxyRequest();
+        v2.setVersion("2.0");
+        v2.setRouteKey("$default");
+        v2.setRawPath(request.getPath());
+        v2.setBody(request.getBody());
+
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        request.getMultiValueHeaders().forEach((name, values) -> headers.put(name, String.join(",", values)));
+        v2.setHeaders(headers);
+
+        StringBuilder rawQuery = new StringBuilder();
+        request.getMultiValueQueryStringParameters().forEach((name, values) -> values.forEach(value ->
+                rawQuery.append(rawQuery.isEmpty() ? "" : "&").append(name).append('=').append(value)));
+        v2.setRawQueryString(rawQuery.toString());
+
+        HttpApiV2HttpContext http = new HttpApiV2HttpContext();
+        http.setMethod(request.getHttpMethod());
+        http.setPath(request.getPath());
+        http.setProtocol("HTTP/1.1");
+        http.setSourceIp(request.getRequestContext().getIdentity().getSourceIp());
+
+        HttpApiV2ProxyRequestContext requestContext = new HttpApiV2ProxyRequestContext();
+        requestContext.setRequestId(request.getRequestContext().getRequestId());
+        requestContext.setRouteKey("$default");
+        requestContext.setStage("$default");
+        requestContext.setTimeEpoch(request.getRequestContext().getRequestTimeEpoch());
+        requestContext.setHttp(http);
+        v2.setRequestContext(requestContext);
+
+        return v2;
+    }
+
+    private AwsProxyResponse send(AwsProxyRequest request) {
+        try {
+            return proxy.apply(request, new PrimingContext());
+        } catch (RuntimeException ex) {
+            // priming must never prevent the snapshot from being taken
+            log.warn("SnapStart priming request failed", ex);
+            return null;
+        }
+    }
+
+    private String employeeIdOf(AwsProxyResponse response) {
+        if (response == null || response.getStatusCode() != 201 || response.getBody() == null) {
+            log.warn("SnapStart priming could not create an employee, skipping the write path");
+            return null;
+        }
+
+        try {
+            return objectMapper.readTree(response.getBody()).path("empId").asText(null);
+        } catch (Exception ex) {
+            log.warn("SnapStart priming could not read the created employee", ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Hits and misses of the application's response cache and of the
+ * second-level cache since the session factory started, per region, with the
+ * JDBC statements prepared meanwhile, i.e. the database round-trips the caches
+ * did not save.
+ *
+ * @param responses the cache of the built responses, none without one
+ * @param regions entity and natural-id regions
+ * @param queries the query results region
+ * @param statements
+ *
+ * @author samueladebowale
+ */
+public record CacheStatistics(Region responses, List<Region> regions, Region queries, long statements) {
+
+    /**
+     *
+     * @param name
+     * @param hits
+     * @param misses
+     * @param puts
+     * @param size entries held in memory, {@code -1} when unknown
+     */
+    public record Region(String name, long hits, long misses, long puts, long size) {
+
+        static Region of(String name, CacheRegionStatistics statistics) {
+            return new Region(name, statistics.getHitCount(), statistics.getMissCount(),
+                    statistics.getPutCount(), statistics.getElementCountInMemory());
+        }
+
+        /**
+         *
+         * @return hits among the lookups, {@code 0} before the first
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     *
+     * @param responses
+     * @param entityManagerFactory
+     * @param regionNames entity and natural-id regions to report
+     * @return
+     */
+    public static CacheStatistics of(Region responses, EntityManagerFactory entityManagerFactory,
+            String... regionNames) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Region> regions = Arrays.stream(regionNames)
+                .map(name -> Region.of(name, statistics.getDomainDataRegionStatistics(name)))
+                .toList();
+
+        Region queries = new Region(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(), -1);
+
+        return new CacheStatistics(responses, regions, queries, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the phases of a cold start and emits each one as an EMF log line in
+ * the {@value #NAMESPACE} namespace, metric {@value #DURATION}, dimensioned by
+ * service and phase. The Spring phases are fed by {@link StartupStepRecorder},
+ * the Hibernate metamodel by {@link HibernateMetamodelTimer} and the handler
+ * phases by the Lambda handlers themselves.
+ *
+ * Set {@code PAYROLL_COLDSTART_METRICS=false} to switch the lines off.
+ *
+ * @author samueladebowale
+ */
+public final class ColdStartMetrics {
+
+    public static final String ENABLED_ENV = "PAYROLL_COLDSTART_METRICS";
+    public static final String NAMESPACE = "Payroll/ColdStart";
+    public static final String DURATION = "Duration";
+    public static final String HEAP_USED = "HeapUsed";
+
+    public static final String HANDLER_INIT = "HandlerStaticInit";
+    public static final String CONTEXT_REFRESH = "ContextRefresh";
+    public static final String ENTITY_MANAGER_FACTORY = "EntityManagerFactoryBootstrap";
+    public static final String SQL_SCRIPTS = "SqlScriptInitialization";
+    public static final String JPA_READY = "JpaBackgroundBootstrap";
+    public static final String HIBERNATE_METAMODEL = "HibernateMetamodel";
+    public static final String SPRINGDOC = "SpringdocInitialization";
+    public static final String FIRST_BYTE = "TimeToFirstByte";
+    public static final String AFTER_START = "AfterStart";
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getenv(ENABLED_ENV));
+
+    public static final String SERVICE = Objects.requireNonNullElse(System.getenv("AWS_LAMBDA_FUNCTION_NAME"),
+            Objects.requireNonNullElse(System.getenv("K_SERVICE"), "payroll-aws-h2"));
+
+    private static final AtomicBoolean firstResponsePending = new AtomicBoolean(true);
+
+    private static final EmbeddedMetricsLogger metrics = new EmbeddedMetricsLogger(NAMESPACE, System.out);
+    private static volatile String handlerName = "none";
+    private static volatile String activeProfiles = "default";
+
+    private ColdStartMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Marks the start of a handler's static initialization.
+     *
+     * @param handler simple name of the handler class
+     * @return start time to pass to {@link #handlerInitCompleted(long)}
+     */
+    public static long handlerInitStarted(String handler) {
+        handlerName = handler;
+        return System.nanoTime();
+    }
+
+    public static void handlerInitCompleted(long startNanos) {
+        record(HANDLER_INIT, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Active Spring profiles, added to every line so runs with and without a
+     * profile can be told apart.
+     *
+     * @param profiles
+     */
+    public static void setActiveProfiles(String[] profiles) {
+        activeProfiles = profiles.length == 0 ? "default" : String.join(",", profiles);
+    }
+
+    /**
+     * Emits the duration of one cold-start phase.
+     *
+     * @param phase
+     * @param nanos
+     */
+    public static void record(String phase, long nanos) {
+        emit(DURATION, nanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                EmbeddedMetricsLogger.Unit.MILLISECONDS, phase);
+    }
+
+    /**
+     * Emits the heap in use once the context is up, before any request has
+     * been served.
+     */
+    public static void recordHeapAfterStart() {
+        emit(HEAP_USED, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                EmbeddedMetricsLogger.Unit.BYTES, AFTER_START);
+    }
+
+    private static void emit(String metricName, double value, EmbeddedMetricsLogger.Unit unit, String phase) {
+        if (!ENABLED) {
+            return;
+        }
+
+        Map<String, String> dimensions = new LinkedHashMap<>();
+        dimensions.put("Service", SERVICE);
+        dimensions.put("Phase", phase);
+
+        metrics.emit(metricName, value, unit, dimensions,
+                Map.of("Handler", handlerName, "Profiles", activeProfiles));
+    }
+
+    /**
+     * Records the time to the first response byte, once per JVM, for handlers
+     * that hand back a complete response object.
+     *
+     * @param requestStartNanos
+     */
+    public static void firstResponse(long requestStartNanos) {
+        if (firstResponsePending.compareAndSet(true, false)) {
+            record(FIRST_BYTE, System.nanoTime() - requestStartNanos);
+        }
+    }
+
+    /**
+     * Wraps the handler's output stream so the first byte written for the
+     * first request is timed. Later requests get the stream back unchanged.
+     *
+     * @param out
+     * @param requestStartNanos
+     * @return
+     */
+    public static OutputStream firstByteTimer(OutputStream out, long requestStartNanos) {
+        if (!firstResponsePending.get()) {
+            return out;
+        }
+
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                firstResponse(requestStartNanos);
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                firstResponse(requestStartNanos);
+                out.write(b, off, len);
+            }
+        };
+    }
+}
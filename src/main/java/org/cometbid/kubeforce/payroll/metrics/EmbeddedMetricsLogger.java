@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.PrintStream;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes metrics as CloudWatch Embedded Metric Format (EMF) log lines. Lambda
+ * forwards stdout to CloudWatch Logs, where each line is turned into a metric
+ * without any call to the CloudWatch API. Every line is one self-contained
+ * JSON document, so the lines are written straight to the stream rather than
+ * through the log4j layout.
+ *
+ * @author samueladebowale
+ */
+public class EmbeddedMetricsLogger {
+
+    public static final String AWS_METADATA = "_aws";
+
+    private final String namespace;
+    private final PrintStream out;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public EmbeddedMetricsLogger(String namespace, PrintStream out) {
+        this(namespace, out, Clock.systemUTC());
+    }
+
+    public EmbeddedMetricsLogger(String namespace, PrintStream out, Clock clock) {
+        this.namespace = namespace;
+        this.out = out;
+        this.clock = clock;
+    }
+
+    /**
+     * Metric units understood by CloudWatch.
+     */
+    public enum Unit {
+        MILLISECONDS("Milliseconds"),
+        BYTES("Bytes"),
+        COUNT("Count"),
+        PERCENT("Percent");
+
+        private final String value;
+
+        Unit(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Emits a single metric value.
+     *
+     * @param metricName
+     * @param value
+     * @param unit
+     * @param dimensions dimension names and values, all of them form one
+     * dimension set
+     * @param properties additional searchable fields that are not dimensions
+     */
+    public void emit(String metricName, double value, Unit unit,
+            Map<String, String> dimensions, Map<String, Object> properties) {
+
+        String line = format(metricName, value, unit, dimensions, properties);
+
+        // println writes the line atomically; a monitor held around the write would pin virtual threads
+        out.println(line);
+        out.flush();
+    }
+
+    /**
+     * Builds the EMF document for one metric value.
+     *
+     * @param metricName
+     * @param value
+     * @param unit
+     * @param dimensions
+     * @param properties
+     * @return the document as a single JSON line
+     */
+    public String format(String metricName, double value, Unit unit,
+            Map<String, String> dimensions, Map<String, Object> properties) {
+
+        Map<String, Object> metric = new LinkedHashMap<>();
+        metric.put("Name", metricName);
+        metric.put("Unit", unit.getValue());
+
+        Map<String, Object> directive = new LinkedHashMap<>();
+        directive.put("Namespace", namespace);
+        directive.put("Dimensions", List.of(List.copyOf(dimensions.keySet())));
+        directive.put("Metrics", List.of(metric));
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("Timestamp", clock.millis());
+        metadata.put("CloudWatchMetrics", List.of(directive));
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put(AWS_METADATA, metadata);
+        document.putAll(dimensions);
+        properties.forEach(document::putIfAbsent);
+        document.put(metricName, value);
+
+        try {
+            return objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to format metric " + metricName, ex);
+        }
+    }
+}
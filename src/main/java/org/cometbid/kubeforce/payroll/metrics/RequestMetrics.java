@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emits the latency of every API invocation as an EMF log line in the
+ * {@value #NAMESPACE} namespace, metric {@value #LATENCY}, dimensioned by
+ * service and route. The route tells requests answered by the direct router
+ * apart from requests that went through the servlet container, so CloudWatch
+ * can report p50/p99 of both paths side by side. The bytes allocated by the
+ * invoking thread are emitted alongside as {@value #ALLOCATED}, when the JVM
+ * supports thread allocation accounting.
+ *
+ * Set {@code PAYROLL_REQUEST_METRICS=false} to switch the lines off.
+ *
+ * @author samueladebowale
+ */
+public final class RequestMetrics {
+
+    public static final String ENABLED_ENV = "PAYROLL_REQUEST_METRICS";
+    public static final String NAMESPACE = "Payroll/Requests";
+    public static final String LATENCY = "Latency";
+    public static final String ALLOCATED = "AllocatedBytes";
+
+    public static final String DIRECT_ROUTE = "direct";
+    public static final String CONTAINER_ROUTE = "container";
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getenv(ENABLED_ENV));
+
+    private static final EmbeddedMetricsLogger metrics = new EmbeddedMetricsLogger(NAMESPACE, System.out);
+
+    private static final com.sun.management.ThreadMXBean threads = allocationCounter();
+
+    private RequestMetrics() {
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean counter && counter.isThreadAllocatedMemorySupported()) {
+            counter.setThreadAllocatedMemoryEnabled(true);
+            return counter;
+        }
+        return null;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, taken when an invocation
+     * starts.
+     *
+     * @return the counter, or {@code -1} when it is not available
+     */
+    public static long allocatedBytes() {
+        return ENABLED && threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Emits the latency and the allocation of one invocation.
+     *
+     * @param route
+     * @param method
+     * @param statusCode
+     * @param startNanos {@link System#nanoTime()} taken when the invocation
+     * started
+     * @param startAllocatedBytes {@link #allocatedBytes()} taken when the
+     * invocation started
+     */
+    public static void record(String route, String method, int statusCode, long startNanos,
+            long startAllocatedBytes) {
+        if (!ENABLED) {
+            return;
+        }
+
+        Map<String, String> dimensions = new LinkedHashMap<>();
+        dimensions.put("Service", ColdStartMetrics.SERVICE);
+        dimensions.put("Route", route);
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("Method", method);
+        properties.put("StatusCode", statusCode);
+
+        metrics.emit(LATENCY, (System.nanoTime() - startNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                EmbeddedMetricsLogger.Unit.MILLISECONDS, dimensions, properties);
+
+        if (startAllocatedBytes >= 0) {
+            metrics.emit(ALLOCATED, threads.getCurrentThreadAllocatedBytes() - startAllocatedBytes,
+                    EmbeddedMetricsLogger.Unit.BYTES, dimensions, properties);
+        }
+    }
+}
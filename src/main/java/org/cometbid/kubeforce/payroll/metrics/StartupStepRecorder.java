@@ -0,0 +1,204 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * {@link ApplicationStartup} that times the Spring startup steps we report as
+ * cold-start phases: the context refresh, the EntityManagerFactory bean, the
+ * SQL script initializer and the springdoc beans. Bean steps nest, so bean
+ * phases are reported with their own time only, excluding the beans created
+ * while they were being instantiated.
+ *
+ * Beans may be created on other threads than the refresh, with the async-init
+ * profile for instance, and a step may end on another thread than the one it
+ * started on. The open steps are therefore kept by id, and the parent of a
+ * new step is the innermost open step of the thread starting it.
+ *
+ * @author samueladebowale
+ */
+public class StartupStepRecorder implements ApplicationStartup {
+
+    static final String CONTEXT_REFRESH_STEP = "spring.context.refresh";
+    static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+    static final String ENTITY_MANAGER_FACTORY_BEAN = "entityManagerFactory";
+    static final String SQL_INITIALIZER_BEAN = "dataSourceScriptDatabaseInitializer";
+
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong springdocNanos = new AtomicLong();
+    private final Map<Long, RecordingStep> openSteps = new ConcurrentHashMap<>();
+
+    @Override
+    public StartupStep start(String name) {
+        long threadId = Thread.currentThread().threadId();
+        RecordingStep parent = innermostStep(threadId);
+
+        RecordingStep step = new RecordingStep(name, ids.incrementAndGet(), parent, threadId);
+        openSteps.put(step.id, step);
+        return step;
+    }
+
+    private RecordingStep innermostStep(long threadId) {
+        RecordingStep innermost = null;
+
+        for (RecordingStep step : openSteps.values()) {
+            if (step.threadId == threadId && (innermost == null || step.id > innermost.id)) {
+                innermost = step;
+            }
+        }
+        return innermost;
+    }
+
+    private void ended(RecordingStep step) {
+        long elapsed = System.nanoTime() - step.startNanos;
+        if (openSteps.remove(step.id) == null) {
+            // ended twice
+            return;
+        }
+
+        if (step.parent != null) {
+            step.parent.childNanos.addAndGet(elapsed);
+        }
+
+        if (CONTEXT_REFRESH_STEP.equals(step.name)) {
+            ColdStartMetrics.record(ColdStartMetrics.CONTEXT_REFRESH, elapsed);
+            ColdStartMetrics.recordHeapAfterStart();
+
+            long springdoc = springdocNanos.getAndSet(0);
+            if (springdoc > 0) {
+                ColdStartMetrics.record(ColdStartMetrics.SPRINGDOC, springdoc);
+            }
+            return;
+        }
+
+        if (!BEAN_INSTANTIATE_STEP.equals(step.name)) {
+            return;
+        }
+
+        long self = elapsed - step.childNanos.get();
+        String beanName = step.tag("beanName");
+
+        if (ENTITY_MANAGER_FACTORY_BEAN.equals(beanName)) {
+            ColdStartMetrics.record(ColdStartMetrics.ENTITY_MANAGER_FACTORY, self);
+        } else if (SQL_INITIALIZER_BEAN.equals(beanName)) {
+            ColdStartMetrics.record(ColdStartMetrics.SQL_SCRIPTS, self);
+        } else if (isSpringdocBean(beanName, step.tag("beanType"))) {
+            springdocNanos.addAndGet(self);
+        }
+    }
+
+    static boolean isSpringdocBean(String beanName, String beanType) {
+        String name = beanName == null ? "" : beanName.toLowerCase(Locale.ROOT);
+        String type = beanType == null ? "" : beanType;
+
+        return type.contains("org.springdoc") || type.contains("io.swagger")
+                || name.contains("springdoc") || name.contains("swagger") || name.contains("openapi");
+    }
+
+    private final class RecordingStep implements StartupStep {
+
+        private final String name;
+        private final long id;
+        private final RecordingStep parent;
+        private final long threadId;
+        private final long startNanos = System.nanoTime();
+        private final List<Tag> tags = new ArrayList<>(2);
+        // ended on any thread
+        private final AtomicLong childNanos = new AtomicLong();
+
+        RecordingStep(String name, long id, RecordingStep parent, long threadId) {
+            this.name = name;
+            this.id = id;
+            this.parent = parent;
+            this.threadId = threadId;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parent == null ? null : parent.id;
+        }
+
+        @Override
+        public StartupStep tag(String key, String value) {
+            tags.add(new SimpleTag(key, value));
+            return this;
+        }
+
+        @Override
+        public StartupStep tag(String key, Supplier<String> value) {
+            return tag(key, value.get());
+        }
+
+        @Override
+        public Tags getTags() {
+            return tags::iterator;
+        }
+
+        @Override
+        public void end() {
+            ended(this);
+        }
+
+        String tag(String key) {
+            for (Tag tag : tags) {
+                if (tag.getKey().equals(key)) {
+                    return tag.getValue();
+                }
+            }
+            return null;
+        }
+    }
+
+    private record SimpleTag(String key, String value) implements StartupStep.Tag {
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+    }
+}
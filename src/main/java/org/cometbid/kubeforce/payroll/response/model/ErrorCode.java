@@ -37,6 +37,7 @@ public enum ErrorCode {
     GENERIC_NOT_FOUND_ERR_CODE("GEN-NF-001", "not.found.error"),
     EMP_EXIST_ERR_CODE("EMP-EXIST-001", "employee.exist.err"),
     EMP_NOT_FOUND_ERR_CODE("EMP-NF-001", "employee.not.found"),
+    EMP_VERSION_MISMATCH_ERR_CODE("EMP-VER-001", "employee.version.mismatch"),
     REQUEST_CONNECT_TIMEOUT_ERR_CODE("TIMEOUT-001", "connect.timeout.err"),
     UNAVAILABLE_SERVICE_ERR_CODE("UN-SERV-001", "unavailable.service"),
     HTTP_MEDIATYPE_NOT_SUPPORTED("HTTP-ERR-0002", "media.type.unsupported"),
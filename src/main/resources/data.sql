@@ -1,14 +1,14 @@
 /*
 INSERT INTO employee 
 (
-    id, employee_id, first_name, 
-    middle_name, last_name, email, 
+    id, employee_id, employee_id_key, first_name, 
+    middle_name, last_name, email, email_key, 
     sal_amount, sal_currency
 )
  values
 (
-    8487856, 'LEMGI67437', 'Lexiton', 
-    'Mark', 'Gibson', 'lexiton@yahoo.com', 
+    8487856, 'LEMGI67437', 'LEMGI67437', 'Lexiton', 
+    'Mark', 'Gibson', 'lexiton@yahoo.com', 'lexiton@yahoo.com', 
     10000, 'USD'
 );
 */
@@ -1,12 +1,21 @@
 DROP TABLE IF EXISTS employee;
+DROP TABLE IF EXISTS employee_counter;
+DROP TABLE IF EXISTS employee_id_prefix;
+DROP TABLE IF EXISTS worker_lease;
+DROP SEQUENCE IF EXISTS employee_id_seq;
+
+-- pooled-lo blocks of ids, the increment is the allocation size of the entity
+CREATE SEQUENCE employee_id_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE employee (
-    id              BINARY VARYING(500) PRIMARY KEY,
+    id              BIGINT              PRIMARY KEY,
     employee_id     varchar(250)        NOT NULL,
+    employee_id_key varchar(250)        NOT NULL,
     first_name      varchar(100)        NOT NULL,
     last_name       varchar(100)        NOT NULL,
     middle_name     varchar(100),
     email           varchar(250)        NOT NULL,
+    email_key       varchar(250)        NOT NULL,
     employee_type   varchar(100)        NOT NULL default 'FULL-TIME',
     sal_amount      number              NOT NULL,
     sal_currency    varchar(250)        NOT NULL,
@@ -14,8 +23,35 @@ CREATE TABLE employee (
     version         BIGINT             
 );
 
+-- upper-cased employee id and lower-cased email, written by the application
 CREATE UNIQUE INDEX UN_EMP_ID_IDX 
-ON employee(employee_id);
+ON employee(employee_id_key);
 
 CREATE UNIQUE INDEX UN_EMP_EMAIL_IDX 
-ON employee(email);
\ No newline at end of file
+ON employee(email_key);
+
+-- seek indexes of the cursor pagination, the employee id key breaks ties
+CREATE INDEX EMP_LAST_NAME_SEEK_IDX 
+ON employee(last_name, employee_id_key);
+
+CREATE INDEX EMP_CREATION_DATE_SEEK_IDX 
+ON employee(creation_date, employee_id_key);
+
+-- maintained counts: the total, per employee type and per salary currency
+CREATE TABLE employee_counter (
+    counter_key     varchar(100)        PRIMARY KEY,
+    counter_value   BIGINT              NOT NULL
+);
+
+-- next employee id suffix of each prefix, reserved by blocks
+CREATE TABLE employee_id_prefix (
+    prefix          varchar(10)         PRIMARY KEY,
+    next_suffix     BIGINT              NOT NULL
+);
+
+-- Snowflake worker ids, each leased by one node until expires_at (epoch milliseconds)
+CREATE TABLE worker_lease (
+    worker_id       INT                 PRIMARY KEY,
+    owner           varchar(100)        NOT NULL,
+    expires_at      BIGINT              NOT NULL
+);
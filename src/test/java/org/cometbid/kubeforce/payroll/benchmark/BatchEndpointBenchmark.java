@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.cometbid.kubeforce.payroll.PayrollAwsApplication;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Throughput of the batch endpoint against the single-item endpoints called in
+ * a loop, for the same creates, updates and deletes, through the container
+ * handler. Not part of the regular build, run with:
+ *
+ * <pre>
+ * mvn test -Dtest=BatchEndpointBenchmark
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+class BatchEndpointBenchmark {
+
+    private static final int ROUNDS = 20;
+    private static final int BATCH = 200;
+    private static final String EMPLOYEES_PATH = "/api/v1/employees";
+
+    private SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
+    private int sequence;
+
+    @Test
+    void compareThroughput() throws Exception {
+        handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(PayrollAwsApplication.class);
+
+        // warm up both paths before measuring
+        loopRound();
+        batchRound();
+
+        long loopNanos = 0;
+        long batchNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            loopNanos += loopRound();
+            batchNanos += batchRound();
+        }
+
+        // each round creates, updates and deletes BATCH employees
+        double operations = 3.0 * BATCH * ROUNDS;
+        System.out.printf("single-item loop %10.0f ops/s%n", operations / (loopNanos / 1e9));
+        System.out.printf("batch endpoint   %10.0f ops/s%n", operations / (batchNanos / 1e9));
+    }
+
+    private long loopRound() throws IOException {
+        long start = System.nanoTime();
+
+        List<String> empIds = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            AwsProxyResponse created = proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH, "POST")
+                    .json().body(createBody()).build(), 201);
+            empIds.add(LambdaContainerHandler.getObjectMapper().readTree(created.getBody()).path("empId").asText());
+        }
+        for (String empId : empIds) {
+            proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/" + empId, "PUT")
+                    .json().body(updateBody()).build(), 200);
+        }
+        for (String empId : empIds) {
+            proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/" + empId, "DELETE").build(), 200);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private long batchRound() throws IOException {
+        long start = System.nanoTime();
+
+        StringBuilder creates = new StringBuilder("[");
+        for (int i = 0; i < BATCH; i++) {
+            creates.append(i == 0 ? "" : ",").append("{\"op\": \"create\", \"employee\": ").append(createBody()).append('}');
+        }
+        AwsProxyResponse created = batch(creates.append(']').toString());
+
+        StringBuilder updates = new StringBuilder("[");
+        StringBuilder deletes = new StringBuilder("[");
+        for (JsonNode result : LambdaContainerHandler.getObjectMapper().readTree(created.getBody())) {
+            String empId = result.path("empId").asText();
+            String separator = updates.length() == 1 ? "" : ",";
+
+            updates.append(separator).append("{\"op\": \"update\", \"empId\": \"").append(empId)
+                    .append("\", \"employee\": ").append(updateBody()).append('}');
+            deletes.append(separator).append("{\"op\": \"delete\", \"empId\": \"").append(empId).append("\"}");
+        }
+        batch(updates.append(']').toString());
+        batch(deletes.append(']').toString());
+
+        return System.nanoTime() - start;
+    }
+
+    private AwsProxyResponse batch(String body) {
+        return proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/batch", "POST").json().body(body).build(), 200);
+    }
+
+    private AwsProxyResponse proxy(AwsProxyRequest request, int expectedStatus) {
+        AwsProxyResponse response = handler.proxy(request, new MockLambdaContext());
+        assertEquals(expectedStatus, response.getStatusCode(), response.getBody());
+        return response;
+    }
+
+    private String createBody() {
+        return "{\"email\": \"batch.benchmark" + (sequence++) + "@payroll.cometbid.org\", \"firstName\": \"Batch\", "
+                + "\"middleName\": \"Endpoint\", \"lastName\": \"Benchmark\", \"empType\": \"FULL-TIME\", "
+                + "\"salary\": {\"amount\": 1500.00, \"currency\": \"USD\"}}";
+    }
+
+    private static String updateBody() {
+        return "{\"firstName\": \"Batch\", \"middleName\": \"Endpoint\", \"lastName\": \"Updated\", "
+                + "\"empType\": \"PART-TIME\", \"salary\": {\"amount\": 1200.00, \"currency\": \"USD\"}}";
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.cometbid.kubeforce.payroll.PayrollAwsApplication;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Latency of the name PATCH, loaded and merged without {@code If-Match}
+ * against the single conditional UPDATE with it, through the container
+ * handler. Not part of the regular build, run with:
+ *
+ * <pre>
+ * mvn test -Dtest=ConditionalUpdateBenchmark
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+class ConditionalUpdateBenchmark {
+
+    private static final int EMPLOYEES = 200;
+    private static final int ROUNDS = 10;
+    private static final String EMPLOYEES_PATH = "/api/v1/employees";
+
+    private SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
+
+    @Test
+    void compareLatency() throws Exception {
+        handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(PayrollAwsApplication.class);
+
+        List<String> empIds = new ArrayList<>(EMPLOYEES);
+        List<String> eTags = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            AwsProxyResponse created = proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH, "POST")
+                    .json().body(createBody(i)).build(), 201);
+            String empId = LambdaContainerHandler.getObjectMapper().readTree(created.getBody()).path("empId").asText();
+
+            empIds.add(empId);
+            eTags.add(proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/" + empId, "GET").build(), 200)
+                    .getMultiValueHeaders().getFirst(HttpHeaders.ETAG));
+        }
+
+        // warm up both paths before measuring
+        round(empIds, eTags, false);
+        round(empIds, eTags, true);
+
+        long[] loaded = new long[EMPLOYEES * ROUNDS];
+        long[] conditional = new long[EMPLOYEES * ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            System.arraycopy(round(empIds, eTags, false), 0, loaded, round * EMPLOYEES, EMPLOYEES);
+            System.arraycopy(round(empIds, eTags, true), 0, conditional, round * EMPLOYEES, EMPLOYEES);
+        }
+        Arrays.sort(loaded);
+        Arrays.sort(conditional);
+
+        System.out.printf("load and merge    p50=%8.1f us p99=%8.1f us%n", percentile(loaded, 50), percentile(loaded, 99));
+        System.out.printf("conditional UPDATE p50=%8.1f us p99=%8.1f us%n", percentile(conditional, 50),
+                percentile(conditional, 99));
+
+        // a stale tag no longer matches
+        proxy(patch(empIds.get(0), "\"0\""), 412);
+    }
+
+    /**
+     *
+     * @return the latency of each PATCH, in nanoseconds
+     */
+    private long[] round(List<String> empIds, List<String> eTags, boolean conditional) throws IOException {
+        long[] samples = new long[empIds.size()];
+
+        for (int i = 0; i < empIds.size(); i++) {
+            long start = System.nanoTime();
+            AwsProxyResponse response = proxy(patch(empIds.get(i), conditional ? eTags.get(i) : null), 200);
+            samples[i] = System.nanoTime() - start;
+
+            eTags.set(i, response.getMultiValueHeaders().getFirst(HttpHeaders.ETAG));
+        }
+        return samples;
+    }
+
+    private static AwsProxyRequest patch(String empId, String ifMatch) {
+        AwsProxyRequestBuilder builder = new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/" + empId + "/name", "PATCH")
+                .json().body("{\"firstName\": \"Conditional\", \"middleName\": \"Update\", \"lastName\": \"Benchmark\"}");
+        if (ifMatch != null) {
+            builder.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return builder.build();
+    }
+
+    private AwsProxyResponse proxy(AwsProxyRequest request, int expectedStatus) {
+        AwsProxyResponse response = handler.proxy(request, new MockLambdaContext());
+        assertEquals(expectedStatus, response.getStatusCode(), response.getBody());
+        return response;
+    }
+
+    private static String createBody(int i) {
+        return "{\"email\": \"conditional.update" + i + "@payroll.cometbid.org\", \"firstName\": \"Conditional\", "
+                + "\"middleName\": \"Update\", \"lastName\": \"Benchmark\", \"empType\": \"FULL-TIME\", "
+                + "\"salary\": {\"amount\": 1500.00, \"currency\": \"USD\"}}";
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Employee deletes on schema.sql: the statements of an entity delete, the
+ * row read by the employee id key then deleted by id and version, against
+ * the single DELETE whose deleted rows are read from its delta table. Each
+ * delete commits, as a request does. The hydration and merge of the entity
+ * come on top of the first. Not part of the regular build, run with:
+ *
+ * <pre>
+ * mvn test -Dtest=DirectDeleteBenchmark
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+class DirectDeleteBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int DELETES = 2_000;
+
+    private static final String SELECT = "select * from employee e where e.employee_id_key = ?";
+    private static final String DELETE_BY_ID = "delete from employee where id = ? and version = ?";
+    private static final String DELETE_RETURNING = "select employee_id_key, employee_type, sal_currency"
+            + " from old table (delete from employee where employee_id_key = ?)";
+    private static final String INSERT = "insert into employee (id, employee_id, employee_id_key, first_name, "
+            + "last_name, email, email_key, sal_amount, sal_currency, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Test
+    void compareDeletes() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:direct-delete;DB_CLOSE_DELAY=-1", "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("runscript from 'classpath:schema.sql'");
+            }
+            populate(connection);
+            connection.setAutoCommit(false);
+
+            // warm up both paths before measuring, on rows not measured
+            loadAndDelete(connection, ROWS - DELETES, ROWS - DELETES / 2);
+            deleteReturning(connection, ROWS - DELETES / 2, ROWS);
+
+            long[] loaded = loadAndDelete(connection, 0, DELETES);
+            long[] direct = deleteReturning(connection, DELETES, 2 * DELETES);
+            Arrays.sort(loaded);
+            Arrays.sort(direct);
+
+            System.out.printf("load then delete p50=%8.1f us p99=%8.1f us%n", percentile(loaded, 50),
+                    percentile(loaded, 99));
+            System.out.printf("delete returning p50=%8.1f us p99=%8.1f us%n", percentile(direct, 50),
+                    percentile(direct, 99));
+
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("select count(*) from employee")) {
+                rs.next();
+                assertEquals(ROWS - 3 * DELETES, rs.getLong(1));
+            }
+        }
+    }
+
+    private static long[] loadAndDelete(Connection connection, int from, int to) throws SQLException {
+        long[] samples = new long[to - from];
+
+        try (PreparedStatement select = connection.prepareStatement(SELECT);
+                PreparedStatement delete = connection.prepareStatement(DELETE_BY_ID)) {
+            for (int row = from; row < to; row++) {
+                long start = System.nanoTime();
+
+                select.setString(1, employeeIdKey(row));
+                try (ResultSet rs = select.executeQuery()) {
+                    assertTrue(rs.next());
+                    delete.setLong(1, rs.getLong("id"));
+                    delete.setLong(2, rs.getLong("version"));
+                }
+                assertEquals(1, delete.executeUpdate());
+                connection.commit();
+
+                samples[row - from] = System.nanoTime() - start;
+            }
+        }
+        return samples;
+    }
+
+    private static long[] deleteReturning(Connection connection, int from, int to) throws SQLException {
+        long[] samples = new long[to - from];
+
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_RETURNING)) {
+            for (int row = from; row < to; row++) {
+                long start = System.nanoTime();
+
+                delete.setString(1, employeeIdKey(row));
+                try (ResultSet rs = delete.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals("USD", rs.getString(3));
+                }
+                connection.commit();
+
+                samples[row - from] = System.nanoTime() - start;
+            }
+        }
+        return samples;
+    }
+
+    private static void populate(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (int row = 0; row < ROWS; row++) {
+                String email = "employee" + row + "@payroll.cometbid.org";
+
+                insert.setLong(1, row);
+                insert.setString(2, employeeIdKey(row).toLowerCase(Locale.ROOT));
+                insert.setString(3, employeeIdKey(row));
+                insert.setString(4, "Direct");
+                insert.setString(5, "Delete");
+                insert.setString(6, email);
+                insert.setString(7, email);
+                insert.setInt(8, 1500);
+                insert.setString(9, "USD");
+                insert.addBatch();
+
+                if ((row + 1) % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private static String employeeIdKey(int row) {
+        return "DIDE" + row;
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+}
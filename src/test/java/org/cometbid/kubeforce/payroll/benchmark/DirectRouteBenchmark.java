@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import org.cometbid.kubeforce.payroll.PayrollAwsApplication;
+import org.cometbid.kubeforce.payroll.lambda.ApplicationContextProvider;
+import org.cometbid.kubeforce.payroll.lambda.EmployeeDirectRouter;
+import org.cometbid.kubeforce.payroll.lambda.EmployeeDirectRouter.DirectResponse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Latency of the direct router against the container handler for the same
+ * requests, each measured up to the serialized proxy response. Not part of the
+ * regular build, run with:
+ *
+ * <pre>
+ * mvn test -Dtest=DirectRouteBenchmark
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+class DirectRouteBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+    private static final String EMPLOYEES_PATH = "/api/v1/employees";
+
+    @Test
+    void compareRoutes() throws Exception {
+        SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler
+                = SpringBootLambdaContainerHandler.getAwsProxyHandler(PayrollAwsApplication.class);
+        EmployeeDirectRouter router = EmployeeDirectRouter.create(ApplicationContextProvider.getApplicationContext());
+
+        String empId = createEmployee(handler);
+
+        Map<String, AwsProxyRequest> requests = Map.of(
+                "list", new AwsProxyRequestBuilder(EMPLOYEES_PATH, "GET")
+                        .queryString("page", "1").queryString("size", "20").build(),
+                "count", new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/count", "GET").build(),
+                "by-id", new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/" + empId, "GET").build());
+
+        for (Map.Entry<String, AwsProxyRequest> entry : requests.entrySet()) {
+            AwsProxyRequest request = entry.getValue();
+
+            DirectResponse direct = router.route(request);
+            assertNotNull(direct, entry.getKey() + " must be a direct route");
+            assertEquals(handler.proxy(request, new MockLambdaContext()).getStatusCode(), direct.statusCode());
+
+            long[] directNanos = measure(() -> router.route(request).writeTo(new ByteArrayOutputStream()));
+            long[] containerNanos = measure(() -> LambdaContainerHandler.getObjectMapper()
+                    .writeValue(new ByteArrayOutputStream(), handler.proxy(request, new MockLambdaContext())));
+
+            System.out.printf("%-6s direct    p50=%8.1f us p99=%8.1f us%n", entry.getKey(),
+                    percentile(directNanos, 50), percentile(directNanos, 99));
+            System.out.printf("%-6s container p50=%8.1f us p99=%8.1f us%n", entry.getKey(),
+                    percentile(containerNanos, 50), percentile(containerNanos, 99));
+        }
+    }
+
+    private static String createEmployee(SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler)
+            throws IOException {
+        String body = "{\"email\": \"route.benchmark@payroll.cometbid.org\", \"firstName\": \"Route\", "
+                + "\"middleName\": \"Direct\", \"lastName\": \"Benchmark\", \"empType\": \"FULL-TIME\", "
+                + "\"salary\": {\"amount\": 1500.00, \"currency\": \"USD\"}}";
+
+        AwsProxyResponse created = handler.proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH, "POST")
+                .json().body(body).build(), new MockLambdaContext());
+        assertEquals(201, created.getStatusCode(), created.getBody());
+
+        return LambdaContainerHandler.getObjectMapper().readTree(created.getBody()).path("empId").asText();
+    }
+
+    private static long[] measure(Call call) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            call.run();
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+
+        void run() throws IOException;
+    }
+}
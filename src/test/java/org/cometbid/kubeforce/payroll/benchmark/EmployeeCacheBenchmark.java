@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.cometbid.kubeforce.payroll.PayrollAwsApplication;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Read-heavy lookups of employees by id, through the container handler, and
+ * the database round-trips the response, natural-id and entity caches saved
+ * them: each lookup without the caches prepares one statement. A share of the
+ * lookups is followed by a batch update of the employee, whose new version
+ * must be read back. Not part of the regular build, run with:
+ *
+ * <pre>
+ * mvn test -Dtest=EmployeeCacheBenchmark
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+class EmployeeCacheBenchmark {
+
+    private static final int EMPLOYEES = 200;
+    private static final int LOOKUPS = 20_000;
+    private static final int WRITE_PERCENT = 2;
+    private static final String EMPLOYEES_PATH = "/api/v1/employees";
+
+    private SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
+
+    @Test
+    void compareRoundTrips() throws Exception {
+        handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(PayrollAwsApplication.class);
+
+        List<String> empIds = createEmployees();
+
+        JsonNode before = statistics();
+        long start = System.nanoTime();
+        int updates = 0;
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            String empId = empIds.get(ThreadLocalRandom.current().nextInt(empIds.size()));
+            proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/" + empId, "GET").build(), 200);
+
+            if (ThreadLocalRandom.current().nextInt(100) < WRITE_PERCENT) {
+                String lastName = "Updated" + i;
+                proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/batch", "POST").json()
+                        .body("[{\"op\": \"update\", \"empId\": \"" + empId + "\", \"employee\": "
+                                + "{\"firstName\": \"Cache\", \"lastName\": \"" + lastName + "\", "
+                                + "\"empType\": \"PART-TIME\", \"salary\": {\"amount\": 1200.00, \"currency\": \"USD\"}}}]")
+                        .build(), 200);
+                updates++;
+
+                // the update replaced the cached entry, it is not read stale
+                AwsProxyResponse read = proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/" + empId, "GET")
+                        .build(), 200);
+                assertEquals(lastName, json(read).path("lastName").asText());
+            }
+        }
+
+        long nanos = System.nanoTime() - start;
+        JsonNode after = statistics();
+
+        long statements = after.path("statements").asLong() - before.path("statements").asLong();
+        long lookups = LOOKUPS + updates;
+        System.out.printf("lookups %d, updates %d, %10.0f lookups/s%n", lookups, updates, lookups / (nanos / 1e9));
+        // uncached, every lookup alone prepares a statement, and every update more
+        System.out.printf("statements %d, %.3f per lookup, at least %d round-trips saved%n",
+                statements, statements / (double) lookups, lookups - statements);
+
+        List<JsonNode> regions = new ArrayList<>();
+        regions.add(after.path("responses"));
+        after.path("regions").forEach(regions::add);
+
+        for (JsonNode region : regions) {
+            System.out.printf("%-22s hits %8d misses %6d puts %6d hit ratio %.3f%n", region.path("name").asText(),
+                    region.path("hits").asLong(), region.path("misses").asLong(), region.path("puts").asLong(),
+                    region.path("hitRatio").asDouble());
+        }
+
+        assertTrue(statements < lookups, "the caches saved no round-trip");
+    }
+
+    private List<String> createEmployees() throws IOException {
+        StringBuilder creates = new StringBuilder("[");
+        for (int i = 0; i < EMPLOYEES; i++) {
+            creates.append(i == 0 ? "" : ",").append("{\"op\": \"create\", \"employee\": {")
+                    .append("\"email\": \"cache.benchmark").append(i).append("@payroll.cometbid.org\", ")
+                    .append("\"firstName\": \"Cache\", \"lastName\": \"Benchmark\", \"empType\": \"FULL-TIME\", ")
+                    .append("\"salary\": {\"amount\": 1500.00, \"currency\": \"USD\"}}}");
+        }
+
+        AwsProxyResponse created = proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/batch", "POST")
+                .json().body(creates.append(']').toString()).build(), 200);
+
+        List<String> empIds = new ArrayList<>(EMPLOYEES);
+        for (JsonNode result : json(created)) {
+            empIds.add(result.path("empId").asText());
+        }
+        return empIds;
+    }
+
+    private JsonNode statistics() throws IOException {
+        return json(proxy(new AwsProxyRequestBuilder(EMPLOYEES_PATH + "/cache-statistics", "GET").build(), 200));
+    }
+
+    private static JsonNode json(AwsProxyResponse response) throws IOException {
+        return LambdaContainerHandler.getObjectMapper().readTree(response.getBody());
+    }
+
+    private AwsProxyResponse proxy(AwsProxyRequest request, int expectedStatus) {
+        AwsProxyResponse response = handler.proxy(request, new MockLambdaContext());
+        assertEquals(expectedStatus, response.getStatusCode(), response.getBody());
+        return response;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Employee ids of a million employees with skewed names: the former four
+ * random digits per prefix, where every taken id fails the insert on
+ * UN_EMP_ID_IDX and is retried, against {@link EmployeeIdAllocator} on
+ * schema.sql. Not part of the regular build, run with:
+ *
+ * <pre>
+ * mvn test -Dtest=EmployeeIdAllocationBenchmark
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+class EmployeeIdAllocationBenchmark {
+
+    private static final int EMPLOYEES = 1_000_000;
+    private static final int MAX_RETRIES = 10;
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+        "Michael", "Linda", "David", "Elizabeth", "William", "Barbara"};
+    private static final String[] MIDDLE_NAMES = {null, null, null, "Ann", "Lee"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+        "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez"};
+
+    @Test
+    void compareAllocations() {
+        randomSuffixes();
+
+        for (int blockSize : new int[]{1, 10, 100}) {
+            allocator(blockSize);
+        }
+    }
+
+    private static void randomSuffixes() {
+        SplittableRandom names = new SplittableRandom(7);
+        SplittableRandom digits = new SplittableRandom(11);
+        HashSet<String> taken = new HashSet<>();
+        long collisions = 0;
+        int failed = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            String prefix = prefix(names);
+
+            int attempt = 0;
+            while (attempt < MAX_RETRIES && !taken.add(prefix + String.format("%04d", digits.nextInt(10_000)))) {
+                attempt++;
+            }
+            collisions += attempt;
+            if (attempt == MAX_RETRIES) {
+                failed++;
+            }
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("random digits: %d ms, %d rejected inserts, %d creates failed after %d retries%n",
+                millis, collisions, failed, MAX_RETRIES);
+    }
+
+    private static void allocator(int blockSize) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:employee-id-allocation;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("runscript from 'classpath:schema.sql'");
+
+        EmployeeIdAllocator allocator = new EmployeeIdAllocator(jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), blockSize);
+
+        SplittableRandom names = new SplittableRandom(7);
+        HashSet<String> taken = new HashSet<>();
+        Map<String, Integer> perPrefix = new HashMap<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            int first = skewed(names, FIRST_NAMES.length);
+            String middle = MIDDLE_NAMES[names.nextInt(MIDDLE_NAMES.length)];
+            int last = skewed(names, LAST_NAMES.length);
+
+            String employeeId = allocator.nextEmployeeId(FIRST_NAMES[first], middle, LAST_NAMES[last]);
+            taken.add(employeeId);
+            perPrefix.merge(employeeId.replaceAll("\\d", ""), 1, Integer::sum);
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(EMPLOYEES, taken.size());
+
+        long widened = perPrefix.values().stream().filter(count -> count >= EmployeeIdAllocator.SUFFIX_SPACE).count();
+        System.out.printf("allocator, blocks of %3d: %d ms, %.0f ids/s, %d prefixes, %d past four digits%n",
+                blockSize, millis, EMPLOYEES * 1_000.0 / millis, perPrefix.size(), widened);
+    }
+
+    // the same draws as the allocator run, so both see the same prefixes
+    private static String prefix(SplittableRandom names) {
+        int first = skewed(names, FIRST_NAMES.length);
+        String middle = MIDDLE_NAMES[names.nextInt(MIDDLE_NAMES.length)];
+        int last = skewed(names, LAST_NAMES.length);
+
+        String firstName = FIRST_NAMES[first];
+        String lastName = LAST_NAMES[last];
+        return (firstName.substring(0, 2) + (middle == null ? "" : middle.substring(0, 1))
+                + lastName.substring(0, 2)).toUpperCase();
+    }
+
+    // a few names are much more common than the others
+    private static int skewed(SplittableRandom random, int bound) {
+        double r = random.nextDouble();
+        return (int) (bound * r * r * r);
+    }
+}
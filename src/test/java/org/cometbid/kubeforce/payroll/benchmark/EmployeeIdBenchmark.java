@@ -0,0 +1,204 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.cometbid.kubeforce.payroll.employee.EmployeeId;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Inserts and primary key lookups of employees before and after the id
+ * mapping change: the serialized {@link EmployeeId} of a random long in a
+ * BINARY VARYING column against a BIGINT allocated in pooled-lo blocks of 50
+ * from employee_id_seq. Not part of the regular build, run with:
+ *
+ * <pre>
+ * mvn test -Dtest=EmployeeIdBenchmark
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+class EmployeeIdBenchmark {
+
+    private static final int ROWS = 200_000;
+    private static final int LOOKUPS = 10_000;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String SERIALIZED_TABLE = "create table employee_serialized_id "
+            + "(id binary varying(500) primary key, employee_id varchar(250) not null)";
+
+    @Test
+    void compareIdMappings() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:employee-id;DB_CLOSE_DELAY=-1", "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("runscript from 'classpath:schema.sql'");
+                statement.execute(SERIALIZED_TABLE);
+            }
+
+            SerializedIds serialized = new SerializedIds();
+            PooledIds pooled = new PooledIds(connection);
+
+            long serializedInsert = insert(connection, "insert into employee_serialized_id (id, employee_id) values (?, ?)",
+                    (insert, row) -> insert.setBytes(1, serialized.next(row)));
+            long pooledInsert = insert(connection, "insert into employee (id, employee_id, employee_id_key, first_name, "
+                    + "last_name, email, email_key, sal_amount, sal_currency) values (?, ?, ?, 'Id', 'Mapping', ?, ?, 1500, 'USD')",
+                    (insert, row) -> {
+                        insert.setLong(1, pooled.next(row));
+                        insert.setString(3, "IDMA" + row);
+                        insert.setString(4, "employee" + row + "@payroll.cometbid.org");
+                        insert.setString(5, "employee" + row + "@payroll.cometbid.org");
+                    });
+
+            // a round trip per block instead of a random key per row
+            assertEquals(ROWS / ALLOCATION_SIZE, pooled.roundTrips);
+
+            System.out.printf("serialized id: %d bytes, insert of %d rows %6d ms%n",
+                    serialized.ids[0].length, ROWS, serializedInsert);
+            System.out.printf("bigint id:     %d bytes, insert of %d rows %6d ms (%d sequence round trips)%n",
+                    Long.BYTES, ROWS, pooledInsert, pooled.roundTrips);
+
+            double[] serializedLookup = lookup(connection, "select employee_id from employee_serialized_id where id = ?",
+                    (lookup, row) -> lookup.setBytes(1, serialized.ids[row]));
+            double[] pooledLookup = lookup(connection, "select employee_id from employee where id = ?",
+                    (lookup, row) -> lookup.setLong(1, pooled.ids[row]));
+
+            System.out.printf("serialized id lookup p50=%8.1f us p99=%8.1f us%n", serializedLookup[0], serializedLookup[1]);
+            System.out.printf("bigint id lookup     p50=%8.1f us p99=%8.1f us%n", pooledLookup[0], pooledLookup[1]);
+        }
+    }
+
+    private static long insert(Connection connection, String sql, Binder binder) throws SQLException {
+        connection.setAutoCommit(false);
+
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int row = 0; row < ROWS; row++) {
+                binder.bind(insert, row);
+                insert.setString(2, "IDMA" + row);
+                insert.addBatch();
+
+                if ((row + 1) % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static double[] lookup(Connection connection, String sql, Binder binder) throws SQLException {
+        SplittableRandom random = new SplittableRandom(17);
+        long[] samples = new long[LOOKUPS];
+
+        try (PreparedStatement lookup = connection.prepareStatement(sql)) {
+            for (int i = 0; i < LOOKUPS; i++) {
+                int row = random.nextInt(ROWS);
+
+                long start = System.nanoTime();
+                binder.bind(lookup, row);
+                try (ResultSet rs = lookup.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals("IDMA" + row, rs.getString(1));
+                }
+                samples[i] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(samples);
+        return new double[]{percentile(samples, 50), percentile(samples, 99)};
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+
+        void bind(PreparedStatement statement, int row) throws SQLException;
+    }
+
+    // the former mapping: a random long, written as a serialized EmployeeId
+    private static final class SerializedIds {
+
+        private final SplittableRandom random = new SplittableRandom(42);
+        private final byte[][] ids = new byte[ROWS][];
+
+        byte[] next(int row) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(new EmployeeId(random.nextLong()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            ids[row] = bytes.toByteArray();
+            return ids[row];
+        }
+    }
+
+    // the pooled-lo allocation of PooledSequenceIdGenerator
+    private static final class PooledIds {
+
+        private final Connection connection;
+        private final long[] ids = new long[ROWS];
+        private long next;
+        private long limit;
+        private int roundTrips;
+
+        PooledIds(Connection connection) {
+            this.connection = connection;
+        }
+
+        long next(int row) throws SQLException {
+            if (next >= limit) {
+                try (Statement statement = connection.createStatement();
+                        ResultSet rs = statement.executeQuery("select next value for employee_id_seq")) {
+                    rs.next();
+                    next = rs.getLong(1);
+                    limit = next + ALLOCATION_SIZE;
+                    roundTrips++;
+                }
+            }
+            ids[row] = next++;
+            return ids[row];
+        }
+    }
+}
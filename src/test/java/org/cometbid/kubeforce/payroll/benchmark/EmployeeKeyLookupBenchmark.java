@@ -0,0 +1,164 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Employee id lookups at a million rows, on schema.sql: the upper(employee_id)
+ * comparison of a derived IgnoreCase query against the seek on the key column.
+ * Prints the H2 plan and the latency of both. Not part of the regular build,
+ * run with:
+ *
+ * <pre>
+ * mvn test -Dtest=EmployeeKeyLookupBenchmark
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+class EmployeeKeyLookupBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int LOOKUPS = 200;
+
+    private static final String IGNORE_CASE_QUERY = "select * from employee e where upper(e.employee_id) = upper(?)";
+    private static final String KEY_QUERY = "select * from employee e where e.employee_id_key = ?";
+    private static final String INSERT = "insert into employee (id, employee_id, employee_id_key, first_name, "
+            + "last_name, email, email_key, sal_amount, sal_currency) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Test
+    void compareLookups() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:key-lookup;DB_CLOSE_DELAY=-1", "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("runscript from 'classpath:schema.sql'");
+            }
+            populate(connection);
+
+            String ignoreCasePlan = plan(connection, IGNORE_CASE_QUERY);
+            String keyPlan = plan(connection, KEY_QUERY);
+            System.out.printf("ignore case plan: %s%nkey plan:         %s%n", ignoreCasePlan, keyPlan);
+
+            assertTrue(ignoreCasePlan.contains("tableScan"), ignoreCasePlan);
+            assertTrue(keyPlan.contains("UN_EMP_ID_IDX"), keyPlan);
+
+            // lower-cased input, as sent by a client
+            double[] ignoreCase = measure(connection, IGNORE_CASE_QUERY, id -> id.toLowerCase(Locale.ROOT));
+            double[] key = measure(connection, KEY_QUERY, id -> id.toLowerCase(Locale.ROOT).toUpperCase(Locale.ROOT));
+            System.out.printf("ignore case p50=%10.1f us p99=%10.1f us%n", ignoreCase[0], ignoreCase[1]);
+            System.out.printf("key         p50=%10.1f us p99=%10.1f us%n", key[0], key[1]);
+
+            // a case variant of a taken email is rejected by the email key index
+            assertThrows(SQLException.class, () -> insert(connection, ROWS, "Employee0@Payroll.Cometbid.org"));
+        }
+    }
+
+    private static void populate(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (int row = 0; row < ROWS; row++) {
+                bind(insert, row, "employee" + row + "@payroll.cometbid.org");
+                insert.addBatch();
+
+                if ((row + 1) % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private static void insert(Connection connection, int row, String email) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            bind(insert, row, email);
+            insert.executeUpdate();
+        }
+    }
+
+    private static void bind(PreparedStatement insert, int row, String email) throws SQLException {
+        String employeeId = employeeId(row);
+
+        insert.setLong(1, row);
+        insert.setString(2, employeeId);
+        insert.setString(3, employeeId.toUpperCase(Locale.ROOT));
+        insert.setString(4, "Key");
+        insert.setString(5, "Lookup");
+        insert.setString(6, email);
+        insert.setString(7, email.toLowerCase(Locale.ROOT));
+        insert.setInt(8, 1500);
+        insert.setString(9, "USD");
+    }
+
+    private static String employeeId(int row) {
+        return "KELO" + row;
+    }
+
+    private static String plan(Connection connection, String query) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("explain " + query)) {
+            explain.setString(1, employeeId(ROWS / 2));
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                return rs.getString(1).replaceAll("\\s+", " ");
+            }
+        }
+    }
+
+    private static double[] measure(Connection connection, String query, UnaryOperator<String> canonicalizer)
+            throws SQLException {
+        long[] samples = new long[LOOKUPS];
+
+        try (PreparedStatement lookup = connection.prepareStatement(query)) {
+            for (int i = 0; i < LOOKUPS; i++) {
+                String employeeId = canonicalizer.apply(employeeId((int) ((i * 7_919L) % ROWS)));
+
+                long start = System.nanoTime();
+                lookup.setString(1, employeeId);
+                try (ResultSet rs = lookup.executeQuery()) {
+                    assertTrue(rs.next(), employeeId);
+                }
+                samples[i] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(samples);
+        return new double[]{percentile(samples, 50), percentile(samples, 99)};
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.benchmark;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.cometbid.kubeforce.payroll.base.SnowflakeIdGenerator;
+import org.cometbid.kubeforce.payroll.base.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH throughput of the id generators: the former random long of a shared
+ * SecureRandom, the Snowflake ids, random UUIDs and version 7 UUIDs. The
+ * generators are shared by the benchmark threads (-t), as by the request
+ * threads. Not part of the regular build, run with:
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) \
+ *     org.openjdk.jmh.Main UniqueIdGeneratorBenchmark -t 8
+ * </pre>
+ *
+ * @author samueladebowale
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class UniqueIdGeneratorBenchmark {
+
+    private final SecureRandom random = new SecureRandom();
+    private final SnowflakeIdGenerator snowflake = new SnowflakeIdGenerator(1, System::currentTimeMillis);
+    private final UuidV7Generator uuidV7 = new UuidV7Generator(System::currentTimeMillis);
+
+    @Benchmark
+    public long randomLong() {
+        return random.nextLong();
+    }
+
+    @Benchmark
+    public long snowflake() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID uuidV7() {
+        return uuidV7.getNextUniqueId();
+    }
+}
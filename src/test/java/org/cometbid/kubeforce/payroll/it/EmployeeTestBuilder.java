@@ -87,7 +87,7 @@ public class EmployeeTestBuilder {
 
     public Employee build() {
 
-        return Employee.builder()
+        Employee employee = Employee.builder()
                 //.id(id)
                 .firstName(this.firstName)
                 .lastName(this.lastName)
@@ -96,6 +96,11 @@ public class EmployeeTestBuilder {
                 .email(this.email)
                 .empType(EmployeeType.fromString(getEmpType()))
                 .build();
+
+        if (this.employeeId != null) {
+            employee.setEmployeeId(this.employeeId);
+        }
+        return employee;
     }
 
     public CreateEmployeeRequest buildDto() {
@@ -171,6 +176,11 @@ public class EmployeeTestBuilder {
         return this;
     }
 
+    public EmployeeTestBuilder withEmpId(String employeeId) {
+        this.employeeId = employeeId;
+        return this;
+    }
+
     public static String genEmpId() {
         Faker faker = Faker.instance();
         String ite = Faker.instance().number().digits(4);
@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import javax.money.MonetaryAmount;
+import org.cometbid.kubeforce.payroll.PayrollFunctionalApplication;
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the tests of a class against the context of
+ * {@link PayrollFunctionalApplication}: Hibernate with its listeners and the
+ * second-level cache, on the in-memory H2 database created from schema.sql.
+ * Every class gets a fresh database.
+ *
+ * @author samueladebowale
+ */
+public abstract class BasePersistenceTest {
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void startContext() {
+        context = PayrollFunctionalApplication.run();
+    }
+
+    @AfterAll
+    static void closeContext() {
+        context.close();
+    }
+
+    protected static <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    protected static Employee createEmployee(String email, EmployeeType empType, MonetaryAmount salary) {
+        return bean(EmployeeService.class).saveEmployee(CreateEmployeeRequest.builder()
+                .email(email)
+                .firstName("Jane")
+                .lastName("Doe")
+                .employeeType(empType.getValue())
+                .salary(salary)
+                .build());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.cometbid.kubeforce.payroll.metrics.ColdStartMetrics;
+import org.cometbid.kubeforce.payroll.metrics.EmbeddedMetricsLogger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author samueladebowale
+ */
+class EmbeddedMetricsLoggerTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ByteArrayOutputStream buffer;
+
+    private EmbeddedMetricsLogger metricsLogger;
+
+    @BeforeEach
+    void init() {
+        this.buffer = new ByteArrayOutputStream();
+        this.metricsLogger = new EmbeddedMetricsLogger(ColdStartMetrics.NAMESPACE,
+                new PrintStream(buffer, true, StandardCharsets.UTF_8),
+                Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+    }
+
+    @DisplayName("phase is written as a single EMF line")
+    @Test
+    void testEmitWritesOneLine() {
+        metricsLogger.emit(ColdStartMetrics.DURATION, 12.5, EmbeddedMetricsLogger.Unit.MILLISECONDS,
+                dimensions(ColdStartMetrics.CONTEXT_REFRESH), Map.of("Handler", "StreamLambdaHandler"));
+
+        String output = buffer.toString(StandardCharsets.UTF_8);
+
+        assertTrue(output.endsWith(System.lineSeparator()));
+        assertFalse(output.strip().contains("\n"));
+    }
+
+    @DisplayName("EMF document carries the CloudWatch metadata")
+    @Test
+    void testFormatMetadata() throws Exception {
+        JsonNode document = objectMapper.readTree(metricsLogger.format(ColdStartMetrics.DURATION, 12.5,
+                EmbeddedMetricsLogger.Unit.MILLISECONDS, dimensions(ColdStartMetrics.HIBERNATE_METAMODEL),
+                Map.of("Handler", "StreamLambdaHandler")));
+
+        JsonNode metadata = document.get(EmbeddedMetricsLogger.AWS_METADATA);
+        assertEquals(NOW, metadata.get("Timestamp").asLong());
+
+        JsonNode directive = metadata.get("CloudWatchMetrics").get(0);
+        assertEquals(ColdStartMetrics.NAMESPACE, directive.get("Namespace").asText());
+        assertEquals(ColdStartMetrics.DURATION, directive.get("Metrics").get(0).get("Name").asText());
+        assertEquals("Milliseconds", directive.get("Metrics").get(0).get("Unit").asText());
+
+        JsonNode dimensionSet = directive.get("Dimensions").get(0);
+        assertEquals(2, dimensionSet.size());
+        assertEquals("Service", dimensionSet.get(0).asText());
+        assertEquals("Phase", dimensionSet.get(1).asText());
+    }
+
+    @DisplayName("dimensions, properties and value are top-level members")
+    @Test
+    void testFormatMembers() throws Exception {
+        JsonNode document = objectMapper.readTree(metricsLogger.format(ColdStartMetrics.DURATION, 12.5,
+                EmbeddedMetricsLogger.Unit.MILLISECONDS, dimensions(ColdStartMetrics.FIRST_BYTE),
+                Map.of("Handler", "StreamLambdaHandler")));
+
+        // every dimension referenced by the directive must resolve to a string member
+        for (JsonNode name : document.get(EmbeddedMetricsLogger.AWS_METADATA)
+                .get("CloudWatchMetrics").get(0).get("Dimensions").get(0)) {
+            assertTrue(document.get(name.asText()).isTextual());
+        }
+
+        assertEquals("payroll-test", document.get("Service").asText());
+        assertEquals(ColdStartMetrics.FIRST_BYTE, document.get("Phase").asText());
+        assertEquals("StreamLambdaHandler", document.get("Handler").asText());
+        assertTrue(document.get(ColdStartMetrics.DURATION).isNumber());
+        assertEquals(12.5, document.get(ColdStartMetrics.DURATION).asDouble());
+    }
+
+    private static Map<String, String> dimensions(String phase) {
+        Map<String, String> dimensions = new LinkedHashMap<>();
+        dimensions.put("Service", "payroll-test");
+        dimensions.put("Phase", phase);
+        return dimensions;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.util.List;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchOperation;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchResult;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.employee.UpdEmployeeRequest;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Batches of several employees, flushed in one transaction on H2 with the
+ * inserts and updates ordered.
+ *
+ * @author samueladebowale
+ */
+class EmployeeBatchPersistenceTest extends BasePersistenceTest {
+
+    @DisplayName("employees of one batch are updated together")
+    @Test
+    void testUpdateSeveral() {
+        Employee first = EmployeeVersionTest.create("batch.first@example.com");
+        Employee second = EmployeeVersionTest.create("batch.second@example.com");
+
+        List<EmployeeBatchResult> results = bean(EmployeeBatchService.class).applyOperations(List.of(
+                new EmployeeBatchOperation.Update(second.getEmployeeId(), update("Bola")),
+                new EmployeeBatchOperation.Update(first.getEmployeeId(), update("Ada"))));
+
+        assertEquals(List.of(HttpStatus.OK.value(), HttpStatus.OK.value()),
+                results.stream().map(EmployeeBatchResult::status).toList());
+
+        EmployeeRepository employeeRepository = bean(EmployeeRepository.class);
+        assertEquals("Ada", employeeRepository.findByEmployeeIdIgnoreCase(first.getEmployeeId()).orElseThrow().getFirstName());
+        assertEquals("Bola", employeeRepository.findByEmployeeIdIgnoreCase(second.getEmployeeId()).orElseThrow().getFirstName());
+    }
+
+    private static UpdEmployeeRequest update(String firstName) {
+        return UpdEmployeeRequest.builder()
+                .firstName(firstName)
+                .lastName("Doe")
+                .employeeType(EmployeeType.PART_TIME.getValue())
+                .salary(Money.of(2500, "USD"))
+                .build();
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import jakarta.persistence.EntityManager;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchOperation;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchOutcome;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchResult;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.cometbid.kubeforce.payroll.employee.EmployeeCache;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
+import org.cometbid.kubeforce.payroll.employee.EmployeeMapper;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.employee.UpdEmployeeRequest;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EmployeeBatchServiceTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeBuilder employeeBuilder;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EmployeeIdAllocator employeeIdAllocator;
+
+    private EmployeeBatchServiceImpl batchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void init() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .getArgument(0, TransactionCallback.class).doInTransaction(new SimpleTransactionStatus()));
+
+        when(employeeBuilder.toEmployeeEntity(any())).thenAnswer(invocation -> {
+            Employee employee = new Employee();
+            employee.setEmail(invocation.getArgument(0, CreateEmployeeRequest.class).getEmail());
+            return employee;
+        });
+        when(employeeRepository.findExistingEmailKeys(anyCollection())).thenReturn(Set.of());
+
+        this.batchService = new EmployeeBatchServiceImpl(employeeRepository, employeeBuilder,
+                Mappers.getMapper(EmployeeMapper.class),
+                entityManager, transactionTemplate, new EmployeeCache(EmployeeCache.DEFAULT_MAXIMUM_SIZE,
+                        EmployeeCache.DEFAULT_TTL, EmployeeCache.DEFAULT_MISS_TTL), employeeIdAllocator);
+    }
+
+    @DisplayName("valid batch is checked with one query and inserted")
+    @Test
+    void testSaveEmployees() {
+        Map<String, CreateEmployeeRequest> requests = new LinkedHashMap<>();
+        requests.put("m1", request("jane.doe@example.com"));
+        requests.put("m2", request("john.doe@example.com"));
+
+        assertTrue(batchService.saveEmployees(requests).isComplete());
+
+        verify(employeeRepository, times(1)).findExistingEmailKeys(anyCollection());
+        verify(entityManager, times(2)).persist(any(Employee.class));
+    }
+
+    @DisplayName("invalid, duplicate and existing emails are reported, the rest is inserted")
+    @Test
+    void testRejectedRequests() {
+        when(employeeRepository.findExistingEmailKeys(anyCollection())).thenReturn(Set.of("taken@example.com"));
+
+        Map<String, CreateEmployeeRequest> requests = new LinkedHashMap<>();
+        requests.put("m1", request("jane.doe@example.com"));
+        requests.put("m2", request("Jane.Doe@example.com"));
+        requests.put("m3", request("Taken@example.com"));
+        requests.put("m4", request("not-an-email"));
+        requests.put("m5", null);
+
+        EmployeeBatchOutcome outcome = batchService.saveEmployees(requests);
+
+        assertEquals(Set.of("m2", "m3", "m4", "m5"), outcome.rejected());
+        assertEquals(Set.of(), outcome.failed());
+
+        verify(entityManager, times(1)).persist(any(Employee.class));
+    }
+
+    @DisplayName("failed insert reports every accepted message for retry, invalid ones as rejected")
+    @Test
+    void testFailedInsert() {
+        doThrow(new DataIntegrityViolationException("UN_EMP_EMAIL_IDX"))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        Map<String, CreateEmployeeRequest> requests = new LinkedHashMap<>();
+        requests.put("m1", request("jane.doe@example.com"));
+        requests.put("m2", request("not-an-email"));
+
+        EmployeeBatchOutcome outcome = batchService.saveEmployees(requests);
+
+        assertEquals(Set.of("m2"), outcome.rejected());
+        assertEquals(Set.of("m1"), outcome.failed());
+    }
+
+    @DisplayName("mixed operations are applied with one lookup per kind")
+    @Test
+    void testApplyOperations() {
+        Employee updated = employee("JADO1234");
+        when(employeeRepository.findByEmployeeIdKeyIn(anyCollection()))
+                .thenReturn(List.of(updated, employee("JODO5678")));
+
+        List<EmployeeBatchResult> results = batchService.applyOperations(List.of(
+                new EmployeeBatchOperation.Create(request("jane.doe@example.com")),
+                new EmployeeBatchOperation.Update("jado1234", update()),
+                new EmployeeBatchOperation.Delete("JODO5678")));
+
+        assertEquals(List.of(201, 200, 200), results.stream().map(EmployeeBatchResult::status).toList());
+
+        verify(employeeRepository, times(1)).findExistingEmailKeys(anyCollection());
+        verify(employeeRepository, times(1)).findByEmployeeIdKeyIn(anyCollection());
+        verify(entityManager, times(1)).persist(any(Employee.class));
+        assertEquals("Jane", updated.getFirstName());
+        assertEquals(EmployeeType.PART_TIME.name(), updated.getEmpType());
+        assertTrue(updated.getSalary().isEqualTo(Money.of(4000, "USD")));
+        verify(entityManager, times(1)).remove(any(Employee.class));
+    }
+
+    @DisplayName("one failed operation leaves the whole batch unapplied")
+    @Test
+    void testRejectedOperations() {
+        when(employeeRepository.findByEmployeeIdKeyIn(anyCollection())).thenReturn(List.of(employee("JADO1234")));
+
+        List<EmployeeBatchResult> results = batchService.applyOperations(List.of(
+                new EmployeeBatchOperation.Create(request("jane.doe@example.com")),
+                new EmployeeBatchOperation.Delete("JADO1234"),
+                new EmployeeBatchOperation.Delete("UNKNOWN1")));
+
+        assertEquals(List.of(424, 424, 404), results.stream().map(EmployeeBatchResult::status).toList());
+
+        results = batchService.applyOperations(List.of(
+                new EmployeeBatchOperation.Delete("JADO1234"),
+                new EmployeeBatchOperation.Update("jado1234", update()),
+                new EmployeeBatchOperation.Create(request("not-an-email"))));
+
+        assertEquals(List.of(424, 409, 400), results.stream().map(EmployeeBatchResult::status).toList());
+
+        verify(entityManager, never()).persist(any(Employee.class));
+        verify(entityManager, never()).remove(any(Employee.class));
+    }
+
+    private static Employee employee(String employeeId) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeId);
+        return employee;
+    }
+
+    private static UpdEmployeeRequest update() {
+        return UpdEmployeeRequest.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .employeeType("PART-TIME")
+                .salary(Money.of(4000, "USD"))
+                .build();
+    }
+
+    private static CreateEmployeeRequest request(String email) {
+        return CreateEmployeeRequest.builder()
+                .email(email)
+                .firstName("Jane")
+                .lastName("Doe")
+                .employeeType("FULL-TIME")
+                .salary(Money.of(5000, "USD"))
+                .build();
+    }
+}
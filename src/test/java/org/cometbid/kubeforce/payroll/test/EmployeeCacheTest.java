@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterService;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeCache;
+import org.cometbid.kubeforce.payroll.employee.EmployeeFinderServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.exceptions.EmployeeNotFoundException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EmployeeCacheTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeCounterService employeeCounterService;
+
+    private EmployeeCache employeeCache;
+
+    private EmployeeFinderServiceImpl finderService;
+
+    @BeforeEach
+    void init() {
+        this.employeeCache = new EmployeeCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1));
+        this.finderService = new EmployeeFinderServiceImpl(employeeRepository, employeeCounterService, employeeCache);
+    }
+
+    @DisplayName("repeated lookups, in any case, read the employee once")
+    @Test
+    void testReadThrough() {
+        Employee employee = employee("JADO1234");
+        when(employeeRepository.findByEmployeeIdKey("JADO1234")).thenReturn(Optional.of(employee));
+
+        assertSame(employee, finderService.findByEmpId("jado1234"));
+        assertSame(employee, finderService.findByEmpId(" JADO1234"));
+
+        verify(employeeRepository, times(1)).findByEmployeeIdKey("JADO1234");
+        assertEquals(1, employeeCache.statistics().hits());
+    }
+
+    @DisplayName("misses are cached until the employee is written")
+    @Test
+    void testNegativeCaching() {
+        when(employeeRepository.findByEmployeeIdKey("JADO1234")).thenReturn(Optional.empty());
+
+        assertThrows(EmployeeNotFoundException.class, () -> finderService.findByEmpId("JADO1234"));
+        assertThrows(EmployeeNotFoundException.class, () -> finderService.findByEmpId("JADO1234"));
+        verify(employeeRepository, times(1)).findByEmployeeIdKey("JADO1234");
+
+        Employee employee = employee("JADO1234");
+        employeeCache.put(employee);
+        assertSame(employee, finderService.findByEmpId("JADO1234"));
+
+        employeeCache.evict("jado1234");
+        assertThrows(EmployeeNotFoundException.class, () -> finderService.findByEmpId("JADO1234"));
+        verify(employeeRepository, times(2)).findByEmployeeIdKey("JADO1234");
+    }
+
+    @DisplayName("employees without an id are not cached")
+    @Test
+    void testPutWithoutEmployeeId() {
+        employeeCache.put(new Employee());
+
+        assertEquals(0, employeeCache.statistics().size());
+    }
+
+    private static Employee employee(String employeeId) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeId);
+        return employee;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.cometbid.kubeforce.payroll.employee.EmployeeCache;
+import org.cometbid.kubeforce.payroll.employee.EmployeeETag;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
+import org.cometbid.kubeforce.payroll.employee.EmployeeMapper;
+import org.cometbid.kubeforce.payroll.employee.EmployeeNameDTO;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.employee.EmployeeTypeDTO;
+import org.cometbid.kubeforce.payroll.exceptions.EmployeeNotFoundException;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import org.cometbid.kubeforce.payroll.exceptions.PreconditionFailedException;
+import org.cometbid.kubeforce.payroll.it.EmployeeTestBuilder;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+class EmployeeConditionalUpdateTest {
+
+    private static final String EMPLOYEE_ID = "jado0001";
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeIdAllocator employeeIdAllocator;
+
+    private EmployeeCache employeeCache;
+
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void init() {
+        this.employeeCache = new EmployeeCache(EmployeeCache.DEFAULT_MAXIMUM_SIZE, EmployeeCache.DEFAULT_TTL,
+                EmployeeCache.DEFAULT_MISS_TTL);
+        this.employeeService = new EmployeeServiceImpl(employeeRepository, Mappers.getMapper(EmployeeBuilder.class),
+                Mappers.getMapper(EmployeeMapper.class), employeeCache, employeeIdAllocator);
+    }
+
+    @DisplayName("If-Match names one strong version, * and no header name none")
+    @Test
+    void testExpectedVersion() {
+        assertEquals(OptionalInt.of(3), EmployeeETag.expectedVersion("\"3\""));
+        assertEquals(OptionalInt.of(3), EmployeeETag.expectedVersion(" \"3\" "));
+        assertEquals(OptionalInt.empty(), EmployeeETag.expectedVersion(null));
+        assertEquals(OptionalInt.empty(), EmployeeETag.expectedVersion("*"));
+        assertEquals("\"7\"", EmployeeETag.of(7));
+
+        assertThrows(InvalidRequestException.class, () -> EmployeeETag.expectedVersion("3"));
+        assertThrows(InvalidRequestException.class, () -> EmployeeETag.expectedVersion("W/\"3\""));
+        assertThrows(InvalidRequestException.class, () -> EmployeeETag.expectedVersion("\"\""));
+        assertThrows(InvalidRequestException.class, () -> EmployeeETag.expectedVersion("\"1\", \"2\""));
+        assertThrows(InvalidRequestException.class, () -> EmployeeETag.expectedVersion("\"-1\""));
+        assertThrows(InvalidRequestException.class, () -> EmployeeETag.expectedVersion("\"99999999999\""));
+    }
+
+    @DisplayName("name is updated by one statement at the expected version")
+    @Test
+    void testUpdateNameAtVersion() {
+        EmployeeNameDTO name = EmployeeNameDTO.builder().firstName("Ada").lastName("Obi").build();
+        when(employeeRepository.updateNameIfVersion("JADO0001", 3, "Ada", null, "Obi")).thenReturn(1);
+
+        assertEquals(4L, employeeService.updateEmployeeName(name, EMPLOYEE_ID, 3));
+
+        verify(employeeRepository, never()).findByEmployeeIdKey(anyString());
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    @DisplayName("no updated row is a version mismatch, or a missing employee")
+    @Test
+    void testUpdateNameMismatch() {
+        EmployeeNameDTO name = EmployeeNameDTO.builder().firstName("Ada").lastName("Obi").build();
+        when(employeeRepository.updateNameIfVersion(anyString(), anyInt(), anyString(), any(), anyString()))
+                .thenReturn(0);
+
+        when(employeeRepository.existsByEmployeeIdKey("JADO0001")).thenReturn(true);
+        assertThrows(PreconditionFailedException.class, () -> employeeService.updateEmployeeName(name, EMPLOYEE_ID, 3));
+
+        when(employeeRepository.existsByEmployeeIdKey("JADO0001")).thenReturn(false);
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.updateEmployeeName(name, EMPLOYEE_ID, 3));
+    }
+
+    @DisplayName("salary amount of the same type and currency is updated by one statement")
+    @Test
+    void testUpdateSalaryAtVersion() {
+        EmployeeTypeDTO type = EmployeeTypeDTO.builder()
+                .employeeType(EmployeeType.CONTRACT.getValue())
+                .salary(Money.of(5200, "EUR"))
+                .build();
+        when(employeeRepository.updateSalaryIfVersion(eq("JADO0001"), eq(2), eq(EmployeeType.CONTRACT), eq("EUR"),
+                any(BigDecimal.class))).thenReturn(1);
+
+        assertEquals(3L, employeeService.updateEmployeeType(type, EMPLOYEE_ID, 2));
+
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    @DisplayName("other type changes are saved through the entity, only at the expected version")
+    @Test
+    void testUpdateTypeMismatch() {
+        Employee employee = EmployeeTestBuilder.employee().withEmpId("JADO0001").withSalary(Money.of(100, "USD")).build();
+        EmployeeTypeDTO type = EmployeeTypeDTO.builder()
+                .employeeType(EmployeeType.CONTRACT.getValue())
+                .salary(Money.of(5200, "EUR"))
+                .build();
+
+        when(employeeRepository.updateSalaryIfVersion(anyString(), anyInt(), any(), anyString(), any()))
+                .thenReturn(0);
+        when(employeeRepository.findByEmployeeIdKey("JADO0001")).thenReturn(Optional.of(employee));
+        when(employeeRepository.findByEmployeeIdIgnoreCase(EMPLOYEE_ID)).thenReturn(Optional.of(employee));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> employeeService.updateEmployeeType(type, EMPLOYEE_ID, (int) employee.getVersion() + 1));
+        verify(employeeRepository, never()).save(any(Employee.class));
+
+        when(employeeRepository.save(any(Employee.class))).thenReturn(employee);
+        employeeService.updateEmployeeType(type, EMPLOYEE_ID, (int) employee.getVersion());
+        verify(employeeRepository).save(any(Employee.class));
+    }
+}
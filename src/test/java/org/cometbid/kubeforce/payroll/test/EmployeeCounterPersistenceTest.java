@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.cometbid.kubeforce.payroll.counter.CounterDrift;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounter;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterReconciler;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterRepository;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterService;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounts;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.employee.EmployeeTypeDTO;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The employee counters on H2: the deltas of the counter listener, their
+ * merge right before the commit and the reconciliation of drifted counters.
+ *
+ * @author samueladebowale
+ */
+class EmployeeCounterPersistenceTest extends BasePersistenceTest {
+
+    private static final String DELTAS_CLASS = "org.cometbid.kubeforce.payroll.counter.EmployeeCounterDeltas";
+
+    @DisplayName("insert, update and delete of an employee move it in and out of its counters")
+    @Test
+    void testListenerDeltas() {
+        EmployeeCounts initial = counts();
+
+        Employee employee = createEmployee("counted@example.com", EmployeeType.FULL_TIME, Money.of(3000, "USD"));
+
+        EmployeeCounts inserted = counts();
+        assertEquals(initial.total() + 1, inserted.total());
+        assertEquals(byType(initial, EmployeeType.FULL_TIME) + 1, byType(inserted, EmployeeType.FULL_TIME));
+        assertEquals(byCurrency(initial, "USD") + 1, byCurrency(inserted, "USD"));
+
+        bean(EmployeeService.class).updateEmployeeType(EmployeeTypeDTO.builder()
+                .employeeType(EmployeeType.CONTRACT.getValue())
+                .salary(Money.of(4000, "EUR"))
+                .build(), employee.getEmployeeId());
+
+        EmployeeCounts updated = counts();
+        assertEquals(inserted.total(), updated.total());
+        assertEquals(byType(inserted, EmployeeType.FULL_TIME) - 1, byType(updated, EmployeeType.FULL_TIME));
+        assertEquals(byType(inserted, EmployeeType.CONTRACT) + 1, byType(updated, EmployeeType.CONTRACT));
+        assertEquals(byCurrency(inserted, "USD") - 1, byCurrency(updated, "USD"));
+        assertEquals(byCurrency(inserted, "EUR") + 1, byCurrency(updated, "EUR"));
+
+        EmployeeRepository employeeRepository = bean(EmployeeRepository.class);
+        employeeRepository.delete(employeeRepository.findByEmployeeIdIgnoreCase(employee.getEmployeeId()).orElseThrow());
+
+        EmployeeCounts deleted = counts();
+        assertEquals(initial.total(), deleted.total());
+        assertEquals(byType(initial, EmployeeType.CONTRACT), byType(deleted, EmployeeType.CONTRACT));
+        assertEquals(byCurrency(initial, "EUR"), byCurrency(deleted, "EUR"));
+    }
+
+    @DisplayName("the first employee of a currency creates its counter, the next ones add to it")
+    @Test
+    void testMergeCreatesAndUpdatesCounter() {
+        EmployeeCounterRepository counterRepository = bean(EmployeeCounterRepository.class);
+        String currencyKey = EmployeeCounter.currencyKey("JPY");
+
+        assertTrue(counterRepository.findById(currencyKey).isEmpty());
+
+        createEmployee("yen1@example.com", EmployeeType.PART_TIME, Money.of(250000, "JPY"));
+        assertEquals(1L, counterRepository.findById(currencyKey).orElseThrow().getCounterValue());
+
+        createEmployee("yen2@example.com", EmployeeType.PART_TIME, Money.of(260000, "JPY"));
+        assertEquals(2L, counterRepository.findById(currencyKey).orElseThrow().getCounterValue());
+    }
+
+    @DisplayName("deltas of the flushes of one transaction are written once it commits, not on rollback")
+    @Test
+    void testDeltasFollowTheTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        EmployeeRepository employeeRepository = bean(EmployeeRepository.class);
+        EmployeeCounts initial = counts();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            createEmployee("flush1@example.com", EmployeeType.CONTRACT, Money.of(5000, "CHF"));
+            employeeRepository.flush();
+            createEmployee("flush2@example.com", EmployeeType.CONTRACT, Money.of(5100, "CHF"));
+            employeeRepository.flush();
+
+            // counted by the listener, not yet written
+            assertFalse(pendingDeltas().isEmpty());
+            assertEquals(initial.total(), counts().total());
+        });
+
+        assertTrue(pendingDeltas().isEmpty());
+        assertEquals(initial.total() + 2, counts().total());
+        assertEquals(byCurrency(initial, "CHF") + 2, byCurrency(counts(), "CHF"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            createEmployee("rolledback@example.com", EmployeeType.CONTRACT, Money.of(5200, "CHF"));
+            employeeRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertTrue(pendingDeltas().isEmpty());
+        assertEquals(initial.total() + 2, counts().total());
+        assertEquals(byCurrency(initial, "CHF") + 2, byCurrency(counts(), "CHF"));
+    }
+
+    @DisplayName("counters changed behind the listener are repaired to the employee counts")
+    @Test
+    void testReconcile() {
+        EmployeeCounterReconciler reconciler = bean(EmployeeCounterReconciler.class);
+        createEmployee("reconciled@example.com", EmployeeType.FULL_TIME, Money.of(3000, "CAD"));
+        reconciler.reconcile();
+
+        EmployeeCounts inStep = counts();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(bean(DataSource.class));
+        jdbcTemplate.update("update employee_counter set counter_value = counter_value + 5 where counter_key = ?",
+                EmployeeCounter.TOTAL);
+        jdbcTemplate.update("delete from employee_counter where counter_key = ?", EmployeeCounter.currencyKey("CAD"));
+
+        List<CounterDrift> drifts = reconciler.reconcile();
+
+        assertEquals(List.of(
+                new CounterDrift(EmployeeCounter.currencyKey("CAD"), 0, byCurrency(inStep, "CAD")),
+                new CounterDrift(EmployeeCounter.TOTAL, inStep.total() + 5, inStep.total())), drifts);
+        assertEquals(inStep, counts());
+        assertTrue(reconciler.reconcile().isEmpty());
+    }
+
+    private static EmployeeCounts counts() {
+        return bean(EmployeeCounterService.class).counts();
+    }
+
+    private static long byType(EmployeeCounts counts, EmployeeType empType) {
+        return counts.byType().getOrDefault(empType.name(), 0L);
+    }
+
+    private static long byCurrency(EmployeeCounts counts, String currencyCode) {
+        return counts.byCurrency().getOrDefault(currencyCode, 0L);
+    }
+
+    private static Map<?, ?> pendingDeltas() {
+        try {
+            return (Map<?, ?>) ReflectionTestUtils.getField(Class.forName(DELTAS_CLASS), "PENDING");
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.cometbid.kubeforce.payroll.common.util.KeysetPage;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterService;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeCache;
+import org.cometbid.kubeforce.payroll.employee.EmployeeCursor;
+import org.cometbid.kubeforce.payroll.employee.EmployeeFinderServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeSortKey;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Sort;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EmployeeCursorTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeCounterService employeeCounterService;
+
+    private EmployeeFinderServiceImpl finderService;
+
+    @BeforeEach
+    void init() {
+        this.finderService = new EmployeeFinderServiceImpl(employeeRepository, employeeCounterService,
+                new EmployeeCache(EmployeeCache.DEFAULT_MAXIMUM_SIZE, EmployeeCache.DEFAULT_TTL,
+                        EmployeeCache.DEFAULT_MISS_TTL));
+    }
+
+    @DisplayName("cursor token carries the sort key value and the employee id key")
+    @Test
+    void testEncodeDecode() {
+        Employee last = employee("jado1234");
+        last.setCreationDate(OffsetDateTime.of(2024, 3, 1, 9, 30, 0, 0, ZoneOffset.UTC));
+
+        EmployeeCursor cursor = EmployeeCursor.first(EmployeeSortKey.CREATION_DATE, Sort.Direction.DESC).after(last);
+
+        assertEquals(cursor, EmployeeCursor.decode(cursor.encode()));
+        assertEquals("JADO1234", cursor.employeeIdKey());
+        assertEquals(cursor, EmployeeCursor.from(Map.of(EmployeeCursor.PAGINATION, EmployeeCursor.CURSOR,
+                EmployeeCursor.CURSOR, cursor.encode())));
+    }
+
+    @DisplayName("first page follows the sort parameter, tampered tokens are rejected")
+    @Test
+    void testFirstPage() {
+        assertEquals(EmployeeCursor.first(EmployeeSortKey.EMPLOYEE_ID, Sort.Direction.ASC),
+                EmployeeCursor.from(Map.of(EmployeeCursor.PAGINATION, EmployeeCursor.CURSOR)));
+        assertEquals(EmployeeCursor.first(EmployeeSortKey.LAST_NAME, Sort.Direction.DESC),
+                EmployeeCursor.from(Map.of(EmployeeCursor.PAGINATION, EmployeeCursor.CURSOR, "sort", "lastName.desc")));
+
+        assertThrows(InvalidRequestException.class, () -> EmployeeCursor.from(Map.of("sort", "salary")));
+        assertThrows(InvalidRequestException.class, () -> EmployeeCursor.decode("bm90LWEtY3Vyc29y"));
+    }
+
+    @DisplayName("next cursor is set while rows remain and the count is skipped")
+    @Test
+    void testFindAll() {
+        EmployeeCursor first = EmployeeCursor.first(EmployeeSortKey.EMPLOYEE_ID, Sort.Direction.ASC);
+        when(employeeRepository.findAfter(any(), eq(3)))
+                .thenReturn(List.of(employee("A1"), employee("B2"), employee("C3")));
+
+        KeysetPage<Employee> page = finderService.findAll(first, 2, false);
+
+        assertEquals(2, page.content().size());
+        assertEquals(first.after(employee("B2")), EmployeeCursor.decode(page.next()));
+        assertNull(page.totalElements());
+        verify(employeeCounterService, never()).total();
+
+        when(employeeRepository.findAfter(any(), eq(3))).thenReturn(List.of(employee("C3")));
+        when(employeeCounterService.total()).thenReturn(3L);
+
+        page = finderService.findAll(first.after(employee("B2")), 2, true);
+
+        assertNull(page.next());
+        assertEquals(3L, page.totalElements());
+        assertTrue(page.sort().contains("employeeId,ASC"));
+    }
+
+    private static Employee employee(String employeeId) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeId);
+        return employee;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounterService;
+import org.cometbid.kubeforce.payroll.counter.EmployeeCounts;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.exceptions.EmployeeNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.NaturalIdStatistics;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Deletes through the {@code OLD TABLE (DELETE ...)} statement on H2: the
+ * rows it returns, the counters it adjusts and the second-level cache it
+ * invalidates.
+ *
+ * @author samueladebowale
+ */
+class EmployeeDeletePersistenceTest extends BasePersistenceTest {
+
+    @DisplayName("one employee is deleted, counted out and no longer found in the caches")
+    @Test
+    void testDeleteEmployee() {
+        EntityManagerFactory entityManagerFactory = bean(EntityManagerFactory.class);
+        EmployeeRepository employeeRepository = bean(EmployeeRepository.class);
+
+        Employee employee = createEmployee("delete.one@example.com", EmployeeType.PART_TIME, Money.of(1500, "GBP"));
+        String employeeId = employee.getEmployeeId();
+
+        // warms the entity and natural-id regions
+        employeeRepository.findByEmployeeIdIgnoreCase(employeeId).orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(Employee.class, employee.getId()));
+
+        EmployeeCounts before = counts();
+        NaturalIdStatistics naturalIds = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getNaturalIdStatistics(Employee.class.getName());
+        long missesBefore = naturalIds.getCacheMissCount();
+
+        assertEquals(1, bean(EmployeeService.class).deleteEmployee(employeeId.toLowerCase()));
+
+        assertFalse(entityManagerFactory.getCache().contains(Employee.class, employee.getId()));
+        assertTrue(employeeRepository.findByEmployeeIdIgnoreCase(employeeId).isEmpty());
+        assertTrue(naturalIds.getCacheMissCount() > missesBefore);
+
+        EmployeeCounts after = counts();
+        assertEquals(before.total() - 1, after.total());
+        assertEquals(byType(before, EmployeeType.PART_TIME) - 1, byType(after, EmployeeType.PART_TIME));
+        assertEquals(byCurrency(before, "GBP") - 1, byCurrency(after, "GBP"));
+
+        assertThrows(EmployeeNotFoundException.class, () -> bean(EmployeeService.class).deleteEmployee(employeeId));
+    }
+
+    @DisplayName("employees of a type and currency are deleted together and counted out")
+    @Test
+    void testDeleteEmployees() {
+        Employee first = createEmployee("delete.eur1@example.com", EmployeeType.CONTRACT, Money.of(5000, "EUR"));
+        Employee second = createEmployee("delete.eur2@example.com", EmployeeType.CONTRACT, Money.of(5200, "EUR"));
+        Employee kept = createEmployee("delete.usd@example.com", EmployeeType.CONTRACT, Money.of(5400, "USD"));
+
+        EmployeeCounts before = counts();
+
+        assertEquals(2, bean(EmployeeService.class).deleteEmployees(EmployeeType.CONTRACT.getValue(), "eur"));
+
+        EmployeeRepository employeeRepository = bean(EmployeeRepository.class);
+        assertTrue(employeeRepository.findByEmployeeIdIgnoreCase(first.getEmployeeId()).isEmpty());
+        assertTrue(employeeRepository.findByEmployeeIdIgnoreCase(second.getEmployeeId()).isEmpty());
+        assertTrue(employeeRepository.findByEmployeeIdIgnoreCase(kept.getEmployeeId()).isPresent());
+
+        EmployeeCounts after = counts();
+        assertEquals(before.total() - 2, after.total());
+        assertEquals(byType(before, EmployeeType.CONTRACT) - 2, byType(after, EmployeeType.CONTRACT));
+        assertEquals(byCurrency(before, "EUR") - 2, byCurrency(after, "EUR"));
+        assertEquals(byCurrency(before, "USD"), byCurrency(after, "USD"));
+    }
+
+    private static EmployeeCounts counts() {
+        return bean(EmployeeCounterService.class).counts();
+    }
+
+    private static long byType(EmployeeCounts counts, EmployeeType empType) {
+        return counts.byType().getOrDefault(empType.name(), 0L);
+    }
+
+    private static long byCurrency(EmployeeCounts counts, String currencyCode) {
+        return counts.byCurrency().getOrDefault(currencyCode, 0L);
+    }
+}
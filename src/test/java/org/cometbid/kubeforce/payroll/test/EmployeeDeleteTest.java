@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.util.List;
+import java.util.Optional;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.cometbid.kubeforce.payroll.employee.EmployeeCache;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
+import org.cometbid.kubeforce.payroll.employee.EmployeeMapper;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeServiceImpl;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.exceptions.EmployeeNotFoundException;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import org.cometbid.kubeforce.payroll.it.EmployeeTestBuilder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ *
+ * @author samueladebowale
+ */
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+class EmployeeDeleteTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeIdAllocator employeeIdAllocator;
+
+    private EmployeeCache employeeCache;
+
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void init() {
+        this.employeeCache = new EmployeeCache(EmployeeCache.DEFAULT_MAXIMUM_SIZE, EmployeeCache.DEFAULT_TTL,
+                EmployeeCache.DEFAULT_MISS_TTL);
+        this.employeeService = new EmployeeServiceImpl(employeeRepository, Mappers.getMapper(EmployeeBuilder.class),
+                Mappers.getMapper(EmployeeMapper.class), employeeCache, employeeIdAllocator);
+    }
+
+    @DisplayName("employee is deleted by its key, without being loaded, and evicted")
+    @Test
+    void testDeleteEmployee() {
+        Employee employee = EmployeeTestBuilder.employee().build();
+        employee.setEmployeeId("jado0001");
+        employeeCache.put(employee);
+
+        when(employeeRepository.deleteDirectly("JADO0001")).thenReturn(List.of("JADO0001"));
+
+        assertEquals(1, employeeService.deleteEmployee("jado0001"));
+
+        verify(employeeRepository, never()).findByEmployeeIdKey(anyString());
+        verify(employeeRepository, never()).delete(any(Employee.class));
+        assertTrue(employeeCache.get("JADO0001", key -> Optional.empty()).isEmpty());
+    }
+
+    @DisplayName("no deleted row is a missing employee")
+    @Test
+    void testDeleteMissingEmployee() {
+        when(employeeRepository.deleteDirectly(anyString())).thenReturn(List.of());
+
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.deleteEmployee("jado0001"));
+    }
+
+    @DisplayName("bulk delete takes a known type, a currency, or both")
+    @Test
+    void testDeleteEmployees() {
+        when(employeeRepository.deleteAllDirectly(EmployeeType.CONTRACT, "EUR"))
+                .thenReturn(List.of("JADO0001", "KEMI0002"));
+        when(employeeRepository.deleteAllDirectly(null, "USD")).thenReturn(List.of("OBI0003"));
+
+        assertEquals(2, employeeService.deleteEmployees("contract", " eur "));
+        assertEquals(1, employeeService.deleteEmployees(null, "usd"));
+
+        assertThrows(InvalidRequestException.class, () -> employeeService.deleteEmployees(" ", null));
+        assertThrows(InvalidRequestException.class, () -> employeeService.deleteEmployees("INTERN", "EUR"));
+        verify(employeeRepository, times(2)).deleteAllDirectly(any(), anyString());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import jakarta.persistence.Tuple;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.cometbid.kubeforce.payroll.employee.EmployeeFields;
+import org.cometbid.kubeforce.payroll.exceptions.InvalidRequestException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ *
+ * @author samueladebowale
+ */
+class EmployeeFieldsTest {
+
+    @DisplayName("fields keep the requested order and salary stands for its amount and currency")
+    @Test
+    void testParse() {
+        EmployeeFields fields = EmployeeFields.parse(" email,firstName , salary,email");
+
+        assertEquals(List.of("email", "firstName", "salary.amount", "salary.currency"), fields.getNames());
+        assertTrue(EmployeeFields.from(Map.of("page", "1")).isEmpty());
+    }
+
+    @DisplayName("unknown or missing fields are rejected")
+    @Test
+    void testInvalidFields() {
+        assertThrows(InvalidRequestException.class, () -> EmployeeFields.parse("firstName,password"));
+        assertThrows(InvalidRequestException.class, () -> EmployeeFields.parse(" , "));
+        assertThrows(InvalidRequestException.class, () -> EmployeeFields.from(Map.of(EmployeeFields.FIELDS, "")));
+    }
+
+    @DisplayName("dotted fields are nested in the object of their prefix")
+    @Test
+    void testToJson() {
+        EmployeeFields fields = EmployeeFields.parse("firstName,salary.amount");
+
+        Tuple row = mock(Tuple.class);
+        when(row.get(0)).thenReturn("Ada");
+        when(row.get(1)).thenReturn(new BigDecimal("1200.50"));
+
+        Map<String, Object> json = fields.toJson(row);
+
+        assertEquals("Ada", json.get("firstName"));
+        assertEquals(Map.of("amount", new BigDecimal("1200.50")), json.get("salary"));
+        assertEquals(List.of("firstName", "salary"), List.copyOf(json.keySet()));
+    }
+}
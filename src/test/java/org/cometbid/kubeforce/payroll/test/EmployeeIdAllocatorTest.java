@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ *
+ * @author samueladebowale
+ */
+class EmployeeIdAllocatorTest {
+
+    private static final String INSERT = "insert into employee (id, employee_id, employee_id_key, first_name, "
+            + "last_name, email, email_key, sal_amount, sal_currency) values (?, ?, ?, 'Jane', 'Doe', ?, ?, 1500, 'USD')";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void init() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:employee-id-allocator;DB_CLOSE_DELAY=-1", "sa", "");
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate.execute("runscript from 'classpath:schema.sql'");
+    }
+
+    @DisplayName("the prefix keeps the letters of the names, the suffix has four digits or more")
+    @Test
+    void testFormat() {
+        EmployeeIdAllocator allocator = new EmployeeIdAllocator(jdbcTemplate, transactionManager, 3);
+
+        assertEquals("JAMDO0001", allocator.nextEmployeeId("Jane", "Mary", "Doe"));
+        assertEquals("JAMDO0002", allocator.nextEmployeeId("jane", "mary", "doe"));
+        assertEquals("ORI0001", allocator.nextEmployeeId("O'Brien", null, "Ri1ey"));
+
+        jdbcTemplate.update("update employee_id_prefix set next_suffix = 9999 where prefix = 'JAMDO'");
+        allocator = new EmployeeIdAllocator(jdbcTemplate, transactionManager, 3);
+
+        assertEquals("JAMDO9999", allocator.nextEmployeeId("Jane", "Mary", "Doe"));
+        assertEquals("JAMDO10000", allocator.nextEmployeeId("Jane", "Mary", "Doe"));
+    }
+
+    @DisplayName("a new prefix starts above the ids given out before it was counted")
+    @Test
+    void testSeededAboveExistingIds() {
+        jdbcTemplate.update(INSERT, 1L, "JADO0042", "JADO0042", "jane@doe.com", "jane@doe.com");
+        jdbcTemplate.update(INSERT, 2L, "JADOE7", "JADOE7", "jane2@doe.com", "jane2@doe.com");
+
+        EmployeeIdAllocator allocator = new EmployeeIdAllocator(jdbcTemplate, transactionManager, 10);
+
+        assertEquals("JADO0043", allocator.nextEmployeeId("Jane", "", "Doe"));
+    }
+
+    @DisplayName("concurrent creates on two instances never get the same id")
+    @Test
+    void testConcurrentUniqueness() throws Exception {
+        List<EmployeeIdAllocator> instances = List.of(
+                new EmployeeIdAllocator(jdbcTemplate, transactionManager, 10),
+                new EmployeeIdAllocator(jdbcTemplate, transactionManager, 10));
+
+        int threads = 8;
+        int idsPerThread = 500;
+        Set<String> employeeIds = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                EmployeeIdAllocator allocator = instances.get(t % instances.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < idsPerThread; i++) {
+                        employeeIds.add(allocator.nextEmployeeId("Jane", null, "Doe"));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * idsPerThread, employeeIds.size());
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeETag;
+import org.cometbid.kubeforce.payroll.employee.EmployeeNameDTO;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.employee.EmployeeTypeDTO;
+import org.cometbid.kubeforce.payroll.employee.UpdEmployeeRequest;
+import org.cometbid.kubeforce.payroll.exceptions.EmployeeNotFoundException;
+import org.cometbid.kubeforce.payroll.exceptions.PreconditionFailedException;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Conditional updates under {@code If-Match}, through the JPQL statements and
+ * the merge on H2.
+ *
+ * @author samueladebowale
+ */
+class EmployeeIfMatchPersistenceTest extends BasePersistenceTest {
+
+    @DisplayName("name statement updates only the expected version, the ETag follows")
+    @Test
+    void testUpdateNameIfVersion() {
+        EmployeeService employeeService = bean(EmployeeService.class);
+        String employeeId = EmployeeVersionTest.create("if.name@example.com").getEmployeeId();
+
+        assertEquals(1L, employeeService.updateEmployeeName(name("Ada"), employeeId, version(stored(employeeId))));
+        assertEquals(2L, employeeService.updateEmployeeName(name("Bola"), employeeId, 1));
+
+        PreconditionFailedException stale = assertThrows(PreconditionFailedException.class,
+                () -> employeeService.updateEmployeeName(name("Chidi"), employeeId, 1));
+        assertEquals(HttpStatus.PRECONDITION_FAILED.value(), stale.getStatusCode().value());
+
+        Employee stored = stored(employeeId);
+        assertEquals("Bola", stored.getFirstName());
+        assertEquals("\"2\"", EmployeeETag.of(stored));
+
+        assertThrows(EmployeeNotFoundException.class,
+                () -> employeeService.updateEmployeeName(name("Dayo"), "EMP-MISSING", 0));
+    }
+
+    @DisplayName("salary statement updates the amount of the same type and currency")
+    @Test
+    void testUpdateSalaryIfVersion() {
+        EmployeeService employeeService = bean(EmployeeService.class);
+        String employeeId = EmployeeVersionTest.create("if.salary@example.com").getEmployeeId();
+
+        assertEquals(1L, employeeService.updateEmployeeType(type(EmployeeType.FULL_TIME, 3200), employeeId, 0));
+        assertThrows(PreconditionFailedException.class,
+                () -> employeeService.updateEmployeeType(type(EmployeeType.FULL_TIME, 3300), employeeId, 0));
+
+        Employee stored = stored(employeeId);
+        assertTrue(stored.getSalary().isEqualTo(Money.of(3200, "USD")));
+        assertEquals(EmployeeType.FULL_TIME.name(), stored.getEmpType());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @DisplayName("type change is merged into the loaded employee at the expected version")
+    @Test
+    void testUpdateTypeThroughEntity() {
+        EmployeeService employeeService = bean(EmployeeService.class);
+        String employeeId = EmployeeVersionTest.create("if.type@example.com").getEmployeeId();
+
+        assertEquals(1L, employeeService.updateEmployeeType(type(EmployeeType.CONTRACT, 4000), employeeId, 0));
+        assertEquals(2L, employeeService.updateEmployeeType(type(EmployeeType.PART_TIME, 2000), employeeId, 1));
+        assertThrows(PreconditionFailedException.class,
+                () -> employeeService.updateEmployeeType(type(EmployeeType.CONTRACT, 4000), employeeId, 1));
+
+        Employee stored = stored(employeeId);
+        assertEquals(EmployeeType.PART_TIME.name(), stored.getEmpType());
+        assertTrue(stored.getSalary().isEqualTo(Money.of(2000, "USD")));
+        assertEquals("\"2\"", EmployeeETag.of(stored));
+    }
+
+    @DisplayName("replacement is merged into the loaded employee at the expected version")
+    @Test
+    void testUpdateEmployeeIfVersion() {
+        EmployeeService employeeService = bean(EmployeeService.class);
+        String employeeId = EmployeeVersionTest.create("if.replace@example.com").getEmployeeId();
+
+        Employee first = employeeService.updateEmployee(replacement("Efe"), employeeId,
+                version(EmployeeETag.of(stored(employeeId))));
+        Employee second = employeeService.updateEmployee(replacement("Femi"), employeeId,
+                version(EmployeeETag.of(first)));
+
+        assertEquals(2L, second.getVersion());
+        assertThrows(PreconditionFailedException.class,
+                () -> employeeService.updateEmployee(replacement("Gbenga"), employeeId, 1));
+
+        Employee stored = stored(employeeId);
+        assertEquals("Femi", stored.getFirstName());
+        assertEquals(2L, stored.getVersion());
+    }
+
+    @DisplayName("merge of an employee read before a committed write fails the version check")
+    @Test
+    void testMergeOfStaleEmployee() {
+        EmployeeRepository employeeRepository = bean(EmployeeRepository.class);
+        String employeeId = EmployeeVersionTest.create("if.stale@example.com").getEmployeeId();
+
+        Employee read = stored(employeeId);
+        bean(EmployeeService.class).updateEmployeeName(name("Hadiza"), employeeId, 0);
+        read.setFirstName("Ife");
+
+        assertThrows(OptimisticLockingFailureException.class, () -> employeeRepository.save(read));
+        assertEquals("Hadiza", stored(employeeId).getFirstName());
+    }
+
+    private static Employee stored(String employeeId) {
+        return bean(EmployeeRepository.class).findByEmployeeIdIgnoreCase(employeeId).orElseThrow();
+    }
+
+    private static int version(Employee employee) {
+        return version(EmployeeETag.of(employee));
+    }
+
+    private static int version(String eTag) {
+        return EmployeeETag.expectedVersion(eTag).getAsInt();
+    }
+
+    private static EmployeeNameDTO name(String firstName) {
+        return EmployeeNameDTO.builder().firstName(firstName).lastName("Doe").build();
+    }
+
+    private static EmployeeTypeDTO type(EmployeeType empType, int amount) {
+        return EmployeeTypeDTO.builder().employeeType(empType.getValue()).salary(Money.of(amount, "USD")).build();
+    }
+
+    private static UpdEmployeeRequest replacement(String firstName) {
+        return UpdEmployeeRequest.builder()
+                .firstName(firstName)
+                .lastName("Doe")
+                .employeeType(EmployeeType.FULL_TIME.getValue())
+                .salary(Money.of(3500, "USD"))
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.util.List;
+import java.util.Set;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Lookups by the employee id natural id, through the session on H2.
+ *
+ * @author samueladebowale
+ */
+class EmployeeNaturalIdTest extends BasePersistenceTest {
+
+    @DisplayName("employees are loaded by several natural ids, missing ones are left out")
+    @Test
+    void testFindByEmployeeIdKeyIn() {
+        Employee first = EmployeeVersionTest.create("natural.first@example.com");
+        Employee second = EmployeeVersionTest.create("natural.second@example.com");
+
+        List<Employee> found = bean(EmployeeRepository.class).findByEmployeeIdKeyIn(
+                Set.of(first.getEmployeeIdKey(), second.getEmployeeIdKey(), "EMP-MISSING"));
+
+        assertEquals(2, found.size());
+        assertTrue(found.stream().anyMatch(employee -> employee.getEmail().equals(first.getEmail())));
+        assertTrue(found.stream().anyMatch(employee -> employee.getEmail().equals(second.getEmail())));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeNameDTO;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.employee.EmployeeTypeDTO;
+import org.cometbid.kubeforce.payroll.employee.UpdEmployeeRequest;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Repeated unconditional updates of one employee, through JPA on H2. Every
+ * update is merged at the version it was loaded with.
+ *
+ * @author samueladebowale
+ */
+class EmployeeVersionTest extends BasePersistenceTest {
+
+    @DisplayName("name is updated twice, the version follows")
+    @Test
+    void testUpdateNameTwice() {
+        EmployeeService employeeService = bean(EmployeeService.class);
+        String employeeId = create("name.twice@example.com").getEmployeeId();
+
+        Employee first = employeeService.updateEmployeeName(name("Ada"), employeeId);
+        Employee second = employeeService.updateEmployeeName(name("Bola"), employeeId);
+
+        assertEquals(1L, first.getVersion());
+        assertEquals(2L, second.getVersion());
+        assertEquals(employeeId, second.getEmployeeId());
+
+        Employee stored = bean(EmployeeRepository.class).findByEmployeeIdIgnoreCase(employeeId).orElseThrow();
+        assertEquals("Bola", stored.getFirstName());
+        assertEquals(2L, stored.getVersion());
+    }
+
+    @DisplayName("type and salary are updated twice, the version follows")
+    @Test
+    void testUpdateTypeTwice() {
+        EmployeeService employeeService = bean(EmployeeService.class);
+        String employeeId = create("type.twice@example.com").getEmployeeId();
+
+        employeeService.updateEmployeeType(type(EmployeeType.CONTRACT, 4000), employeeId);
+        Employee second = employeeService.updateEmployeeType(type(EmployeeType.PART_TIME, 2500), employeeId);
+
+        assertEquals(2L, second.getVersion());
+
+        Employee stored = bean(EmployeeRepository.class).findByEmployeeIdIgnoreCase(employeeId).orElseThrow();
+        assertEquals(EmployeeType.PART_TIME.name(), stored.getEmpType());
+        assertTrue(stored.getSalary().isEqualTo(Money.of(2500, "USD")));
+    }
+
+    @DisplayName("employee is replaced twice, the version follows")
+    @Test
+    void testUpdateEmployeeTwice() {
+        EmployeeService employeeService = bean(EmployeeService.class);
+        String employeeId = create("replace.twice@example.com").getEmployeeId();
+
+        employeeService.updateEmployee(replacement("Chidi", EmployeeType.FULL_TIME), employeeId);
+        Employee second = employeeService.updateEmployee(replacement("Dayo", EmployeeType.CONTRACT), employeeId);
+
+        assertEquals(2L, second.getVersion());
+
+        Employee stored = bean(EmployeeRepository.class).findByEmployeeIdIgnoreCase(employeeId).orElseThrow();
+        assertEquals("Dayo", stored.getFirstName());
+        assertEquals(EmployeeType.CONTRACT.name(), stored.getEmpType());
+        assertEquals(2L, stored.getVersion());
+    }
+
+    static Employee create(String email) {
+        return createEmployee(email, EmployeeType.FULL_TIME, Money.of(3000, "USD"));
+    }
+
+    private static EmployeeNameDTO name(String firstName) {
+        return EmployeeNameDTO.builder().firstName(firstName).lastName("Doe").build();
+    }
+
+    private static EmployeeTypeDTO type(EmployeeType empType, int amount) {
+        return EmployeeTypeDTO.builder().employeeType(empType.getValue()).salary(Money.of(amount, "USD")).build();
+    }
+
+    private static UpdEmployeeRequest replacement(String firstName, EmployeeType empType) {
+        return UpdEmployeeRequest.builder()
+                .firstName(firstName)
+                .lastName("Doe")
+                .employeeType(empType.getValue())
+                .salary(Money.of(3500, "USD"))
+                .build();
+    }
+}
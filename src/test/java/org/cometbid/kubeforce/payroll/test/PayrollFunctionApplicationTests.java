@@ -1,8 +1,12 @@
 package org.cometbid.kubeforce.payroll.test;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.lang3.StringUtils;
 import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeCache;
+import org.cometbid.kubeforce.payroll.employee.EmployeeId;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
 import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
 import org.cometbid.kubeforce.payroll.employee.EmployeeMapper;
 import org.cometbid.kubeforce.payroll.employee.EmployeeNameDTO;
@@ -25,10 +29,13 @@ import org.mapstruct.factory.Mappers;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  *
@@ -38,9 +45,14 @@ import org.mockito.quality.Strictness;
 @ExtendWith(MockitoExtension.class)
 class PayrollFunctionApplicationTests {
 
+    private static final AtomicLong IDS = new AtomicLong();
+
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EmployeeIdAllocator employeeIdAllocator;
+
     private EmployeeBuilder employeeBuilder;
 
     private EmployeeMapper employeeMapper;
@@ -51,7 +63,9 @@ class PayrollFunctionApplicationTests {
     void init() {
         this.employeeBuilder = Mappers.getMapper(EmployeeBuilder.class);
         this.employeeMapper = Mappers.getMapper(EmployeeMapper.class);
-        this.employeeService = new EmployeeServiceImpl(employeeRepository, employeeBuilder, employeeMapper);
+        this.employeeService = new EmployeeServiceImpl(employeeRepository, employeeBuilder, employeeMapper,
+                new EmployeeCache(EmployeeCache.DEFAULT_MAXIMUM_SIZE, EmployeeCache.DEFAULT_TTL,
+                        EmployeeCache.DEFAULT_MISS_TTL), employeeIdAllocator);
     }
 
     @DisplayName("create employee")
@@ -59,7 +73,7 @@ class PayrollFunctionApplicationTests {
     void testSaveEmployee() {
         CreateEmployeeRequest emplDto = EmployeeTestBuilder.employee().buildDto();
 
-        Employee mapped = employeeBuilder.toEmployeeEntity(emplDto);
+        Employee mapped = persisted(employeeBuilder.toEmployeeEntity(emplDto));
 
         when(employeeRepository.save(any(Employee.class)))
                 .thenReturn(mapped);
@@ -81,6 +95,8 @@ class PayrollFunctionApplicationTests {
         assertNotNull(employee.getId());
         assertNotNull(employee.getCreationDate());
         assertTrue(StringUtils.isNotBlank(employee.getEmployeeId()));
+
+        verify(employeeIdAllocator, times(2)).assign(any(Employee.class));
     }
 
     @DisplayName("update employee")
@@ -88,7 +104,7 @@ class PayrollFunctionApplicationTests {
     void testUpdateEmployee() {
         CreateEmployeeRequest emplDto = EmployeeTestBuilder.employee().buildDto();
 
-        Employee employee = employeeBuilder.toEmployeeEntity(emplDto);
+        Employee employee = persisted(employeeBuilder.toEmployeeEntity(emplDto));
 
         when(employeeRepository.save(any(Employee.class)))
                 .thenReturn(employee);
@@ -123,7 +139,7 @@ class PayrollFunctionApplicationTests {
         // ================= Create begins ==================
         CreateEmployeeRequest emplDto = EmployeeTestBuilder.employee().buildDto();
 
-        Employee employee = employeeBuilder.toEmployeeEntity(emplDto);
+        Employee employee = persisted(employeeBuilder.toEmployeeEntity(emplDto));
 
         when(employeeRepository.save(any(Employee.class)))
                 .thenReturn(employee);
@@ -161,7 +177,7 @@ class PayrollFunctionApplicationTests {
         // ================= Create begins ================
         CreateEmployeeRequest emplDto = EmployeeTestBuilder.employee().buildDto();
 
-        Employee employee = employeeBuilder.toEmployeeEntity(emplDto);
+        Employee employee = persisted(employeeBuilder.toEmployeeEntity(emplDto));
 
         when(employeeRepository.save(any(Employee.class)))
                 .thenReturn(employee);
@@ -189,4 +205,12 @@ class PayrollFunctionApplicationTests {
         assertEquals(employee.getEmployeeId(), updatedEmployee.getEmployeeId());
         assertEquals(employee.getEmail(), updatedEmployee.getEmail());
     }
+
+    // the ids come from the sequence and the allocator on insert, as the
+    // repository is mocked
+    private static Employee persisted(Employee employee) {
+        ReflectionTestUtils.setField(employee, "id", new EmployeeId(IDS.incrementAndGet()));
+        employee.setEmployeeId("EMPL" + IDS.get());
+        return employee;
+    }
 }
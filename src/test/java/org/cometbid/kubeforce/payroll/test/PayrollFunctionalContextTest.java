@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import org.cometbid.kubeforce.payroll.employee.CreateEmployeeRequest;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.cometbid.kubeforce.payroll.employee.EmployeeIdAllocator;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cloud.function.context.FunctionCatalog;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * The functional bootstrap as the handlers start it.
+ *
+ * @author samueladebowale
+ */
+class PayrollFunctionalContextTest extends BasePersistenceTest {
+
+    @DisplayName("functions are registered in the catalog")
+    @Test
+    void testFunctionCatalog() {
+        FunctionCatalog catalog = bean(FunctionCatalog.class);
+
+        assertNotNull(catalog.lookup("employeeFunction"));
+        assertNotNull(catalog.lookup("create-emp"));
+        assertNotNull(catalog.lookup("employeeSupplier"));
+    }
+
+    @DisplayName("repository proxies translate persistence exceptions")
+    @Test
+    void testExceptionTranslation() {
+        EmployeeRepository employeeRepository = bean(EmployeeRepository.class);
+        assertTrue(AopUtils.isAopProxy(employeeRepository));
+
+        createEmployee("context.dup@example.com", EmployeeType.FULL_TIME, Money.of(3000, "USD"));
+
+        Employee duplicate = bean(EmployeeBuilder.class).toEmployeeEntity(CreateEmployeeRequest.builder()
+                .email("context.dup@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .employeeType(EmployeeType.FULL_TIME.getValue())
+                .salary(Money.of(3000, "USD"))
+                .build());
+        bean(EmployeeIdAllocator.class).assign(duplicate);
+
+        assertThrows(DataIntegrityViolationException.class, () -> employeeRepository.saveAndFlush(duplicate));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.cometbid.kubeforce.payroll.S3RosterImportHandler;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchOutcome;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.cometbid.kubeforce.payroll.importer.ImportCheckpoints;
+import org.cometbid.kubeforce.payroll.importer.ImportReport;
+import org.cometbid.kubeforce.payroll.importer.LocalImportCheckpoints;
+import org.cometbid.kubeforce.payroll.importer.LocalRosterSource;
+import org.cometbid.kubeforce.payroll.importer.RosterImportEngine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.anyMap;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Runs the S3 import handler against a directory standing in for S3.
+ *
+ * @author samueladebowale
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RosterImportEngineTest extends BaseFunctionHandler {
+
+    private static final String BUCKET = "rosters";
+
+    private static final String CSV_HEADER = "firstName,middleName,lastName,email,empType,amount,currency";
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private EmployeeBatchService employeeBatchService;
+
+    private final List<String> inserted = new ArrayList<>();
+
+    private ImportCheckpoints checkpoints;
+
+    private RosterImportEngine engine;
+
+    private S3RosterImportHandler handler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void init() throws IOException {
+        Files.createDirectories(root.resolve(BUCKET));
+
+        when(employeeBatchService.insertEmployees(anyMap())).thenAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0, Map.class).keySet());
+            return new EmployeeBatchOutcome(Set.of(), Set.of());
+        });
+
+        this.checkpoints = new LocalImportCheckpoints(root.resolve("checkpoints"));
+        this.engine = new RosterImportEngine(Mappers.getMapper(EmployeeBuilder.class), employeeBatchService,
+                checkpoints, 2, 2);
+        this.handler = new S3RosterImportHandler(new LocalRosterSource(root), engine, gson());
+    }
+
+    @AfterEach
+    void close() {
+        engine.close();
+    }
+
+    @DisplayName("CSV roster is imported in chunks, malformed rows are rejected")
+    @Test
+    void testCsvImport() throws IOException {
+        write("march.csv", CSV_HEADER,
+                "Jane,,Doe,jane.doe@example.com,FULL-TIME,5000,USD",
+                "John,Michael,Doe,john.doe@example.com,PART-TIME,2500.50,EUR",
+                "Ann,,Smith,not-an-email,CONTRACT,1000,USD",
+                "\"O'Neil, Jr\",,Brown,brown@example.com,FULL-TIME,abc,USD",
+                "Eve,,Adams,eve.adams@example.com,CONTRACT,3000,GBP");
+
+        ImportReport report = handler.importObject(BUCKET, "march.csv", "march");
+
+        assertEquals(5, report.rowsRead());
+        assertEquals(3, report.created());
+        assertEquals(2, report.rejected());
+        assertEquals(List.of(3L, 4L), report.rejectedRows().stream().sorted().toList());
+        assertEquals(List.of("1", "2", "5"), inserted);
+        assertEquals(5, checkpoints.lastCommittedRow("march"));
+    }
+
+    @DisplayName("restarted import continues after the checkpoint")
+    @Test
+    void testRestartAfterCheckpoint() throws IOException {
+        write("april.ndjson",
+                "{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"email\":\"jane.doe@example.com\",\"empType\":\"FULL-TIME\",\"salary\":{\"amount\":5000,\"currency\":\"USD\"}}",
+                "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john.doe@example.com\",\"empType\":\"FULL-TIME\",\"salary\":{\"amount\":5000,\"currency\":\"USD\"}}",
+                "{\"firstName\":\"Eve\",\"lastName\":\"Adams\",\"email\":\"eve.adams@example.com\",\"empType\":\"CONTRACT\",\"salary\":{\"amount\":3000,\"currency\":\"GBP\"}}");
+
+        checkpoints.commit("april", 2);
+
+        ImportReport report = handler.importObject(BUCKET, "april.ndjson", "april");
+
+        assertEquals(2, report.rowsSkipped());
+        assertEquals(1, report.rowsRead());
+        assertEquals(1, report.created());
+        assertEquals(List.of("3"), inserted);
+    }
+
+    @DisplayName("rows the batch service does not insert are reported as rejected")
+    @Test
+    void testRejectedByBatchService() throws IOException {
+        when(employeeBatchService.insertEmployees(anyMap())).thenReturn(new EmployeeBatchOutcome(Set.of("2"), Set.of()));
+
+        write("may.csv", CSV_HEADER,
+                "Jane,,Doe,jane.doe@example.com,FULL-TIME,5000,USD",
+                "John,,Doe,taken@example.com,FULL-TIME,5000,USD");
+
+        ImportReport report = handler.importObject(BUCKET, "may.csv", "may");
+
+        assertEquals(1, report.created());
+        assertEquals(List.of(2L), report.rejectedRows());
+    }
+
+    @DisplayName("failed chunk stops the import without moving the checkpoint, the retry resumes at it")
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedChunkIsNotCommitted() throws IOException {
+        write("june.csv", CSV_HEADER,
+                "Jane,,Doe,jane.doe@example.com,FULL-TIME,5000,USD",
+                "John,,Doe,john.doe@example.com,FULL-TIME,5000,USD",
+                "Eve,,Adams,eve.adams@example.com,CONTRACT,3000,GBP");
+
+        when(employeeBatchService.insertEmployees(anyMap())).thenAnswer(invocation -> {
+            Set<String> keys = invocation.getArgument(0, Map.class).keySet();
+            if (keys.contains("3")) {
+                return new EmployeeBatchOutcome(Set.of(), keys);
+            }
+            inserted.addAll(keys);
+            return new EmployeeBatchOutcome(Set.of(), Set.of());
+        });
+
+        assertThrows(IllegalStateException.class, () -> handler.importObject(BUCKET, "june.csv", "june"));
+        assertEquals(2, checkpoints.lastCommittedRow("june"));
+
+        when(employeeBatchService.insertEmployees(anyMap())).thenAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0, Map.class).keySet());
+            return new EmployeeBatchOutcome(Set.of(), Set.of());
+        });
+
+        ImportReport report = handler.importObject(BUCKET, "june.csv", "june");
+
+        assertEquals(2, report.rowsSkipped());
+        assertEquals(1, report.created());
+        assertEquals(List.of("1", "2", "3"), inserted);
+        assertEquals(3, checkpoints.lastCommittedRow("june"));
+    }
+
+    private void write(String key, String... lines) throws IOException {
+        Files.write(root.resolve(BUCKET).resolve(key), List.of(lines));
+    }
+}
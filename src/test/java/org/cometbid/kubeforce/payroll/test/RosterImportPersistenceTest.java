@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.cometbid.kubeforce.payroll.S3RosterImportHandler;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBatchService;
+import org.cometbid.kubeforce.payroll.employee.EmployeeBuilder;
+import org.cometbid.kubeforce.payroll.employee.EmployeeRepository;
+import org.cometbid.kubeforce.payroll.employee.EmployeeType;
+import org.cometbid.kubeforce.payroll.importer.ImportCheckpoints;
+import org.cometbid.kubeforce.payroll.importer.ImportReport;
+import org.cometbid.kubeforce.payroll.importer.LocalImportCheckpoints;
+import org.cometbid.kubeforce.payroll.importer.LocalRosterSource;
+import org.cometbid.kubeforce.payroll.importer.RosterImportEngine;
+import org.javamoney.moneta.Money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs the S3 import handler against a directory standing in for S3, with the
+ * employees inserted on H2.
+ *
+ * @author samueladebowale
+ */
+class RosterImportPersistenceTest extends BasePersistenceTest {
+
+    private static final String BUCKET = "rosters";
+
+    private static final String CSV_HEADER = "firstName,middleName,lastName,email,empType,amount,currency";
+
+    @TempDir
+    Path root;
+
+    private ImportCheckpoints checkpoints;
+
+    private RosterImportEngine engine;
+
+    private S3RosterImportHandler handler;
+
+    @BeforeEach
+    void init() throws IOException {
+        Files.createDirectories(root.resolve(BUCKET));
+
+        this.checkpoints = new LocalImportCheckpoints(root.resolve("checkpoints"));
+        this.engine = new RosterImportEngine(bean(EmployeeBuilder.class), bean(EmployeeBatchService.class),
+                checkpoints, 2, 2);
+        this.handler = new S3RosterImportHandler(new LocalRosterSource(root), engine, bean(Gson.class));
+    }
+
+    @AfterEach
+    void close() {
+        engine.close();
+    }
+
+    @DisplayName("roster is inserted, invalid rows, rows without salary and taken emails are rejected")
+    @Test
+    void testCsvImport() throws IOException {
+        createEmployee("roster.taken@example.com", EmployeeType.FULL_TIME, Money.of(3000, "USD"));
+
+        write("march.csv", CSV_HEADER,
+                "Jane,,Doe,roster.jane@example.com,FULL-TIME,5000,USD",
+                "John,Michael,Doe,roster.john@example.com,PART-TIME,2500.50,EUR",
+                "Ann,,Smith,not-an-email,CONTRACT,1000,USD",
+                "Tom,,Taken,roster.taken@example.com,FULL-TIME,4000,USD",
+                "Jane,,Again,ROSTER.JANE@example.com,FULL-TIME,5000,USD",
+                "Kay,,Unpaid,roster.kay@example.com,FULL-TIME,,");
+
+        ImportReport report = handler.importObject(BUCKET, "march.csv", "march");
+
+        assertEquals(6, report.rowsRead());
+        assertEquals(2, report.created());
+        assertEquals(List.of(3L, 4L, 5L, 6L), report.rejectedRows().stream().sorted().toList());
+        assertEquals(6, checkpoints.lastCommittedRow("march"));
+        assertEquals(Set.of(emailKey("roster.jane@example.com"), emailKey("roster.john@example.com")),
+                bean(EmployeeRepository.class).findExistingEmailKeys(Set.of(emailKey("roster.jane@example.com"),
+                        emailKey("roster.john@example.com"), emailKey("not-an-email"))));
+    }
+
+    @DisplayName("repeated import of the same roster, as after a retry, creates nothing twice")
+    @Test
+    void testRepeatedImport() throws IOException {
+        write("april.ndjson",
+                "{\"firstName\":\"Eve\",\"lastName\":\"Adams\",\"email\":\"roster.eve@example.com\",\"empType\":\"CONTRACT\",\"salary\":{\"amount\":3000,\"currency\":\"GBP\"}}",
+                "{\"firstName\":\"Ike\",\"lastName\":\"Obi\",\"email\":\"roster.ike@example.com\",\"empType\":\"FULL-TIME\",\"salary\":{\"amount\":5000,\"currency\":\"USD\"}}",
+                "{\"firstName\":\"Uche\",\"lastName\":\"Eze\",\"email\":\"roster.uche@example.com\",\"empType\":\"FULL-TIME\",\"salary\":{\"amount\":5000,\"currency\":\"USD\"}}");
+
+        assertEquals(3, handler.importObject(BUCKET, "april.ndjson", "april").created());
+
+        // without the checkpoint, the rows are read again and their emails found
+        checkpoints.reset("april");
+        ImportReport report = handler.importObject(BUCKET, "april.ndjson", "april");
+
+        assertEquals(3, report.rowsRead());
+        assertEquals(0, report.created());
+        assertEquals(3, report.rejected());
+    }
+
+    private void write(String key, String... lines) throws IOException {
+        Files.write(root.resolve(BUCKET).resolve(key), List.of(lines));
+    }
+
+    private static String emailKey(String email) {
+        return Employee.emailKey(email);
+    }
+}
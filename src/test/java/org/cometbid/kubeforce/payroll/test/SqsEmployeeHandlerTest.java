@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import org.cometbid.kubeforce.payroll.SqsEmployeeHandler;
+import org.cometbid.kubeforce.payroll.employee.Employee;
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Batches of SQS messages through {@link SqsEmployeeHandler}, on an H2
+ * database of its own: the handler keeps its context for the life of the JVM.
+ *
+ * @author samueladebowale
+ */
+class SqsEmployeeHandlerTest {
+
+    private static final String DATABASE_URL = "jdbc:h2:mem:sqs-handler";
+
+    private static SqsEmployeeHandler handler;
+
+    @BeforeAll
+    static void startHandler() {
+        System.setProperty("spring.datasource.url", DATABASE_URL);
+        handler = new SqsEmployeeHandler();
+    }
+
+    @AfterAll
+    static void clearDatabaseUrl() {
+        System.clearProperty("spring.datasource.url");
+    }
+
+    @DisplayName("valid messages are created, invalid and duplicate ones are dropped without a retry")
+    @Test
+    void testBatchItemFailures() throws SQLException {
+        SQSBatchResponse response = handler.handleRequest(event(
+                message("m1", body("sqs.ada@example.com", "Ada", "Obi")),
+                message("m2", body("sqs.invalid@example.com", "Bola", "")),
+                message("m3", "{not json"),
+                message("m4", body("SQS.Ada@example.com", "Chidi", "Eze")),
+                message("m5", body("sqs.dayo@example.com", "Dayo", "Ojo"))), new MockLambdaContext());
+
+        assertEquals(List.of(), response.getBatchItemFailures());
+        assertEquals(1, count("sqs.ada@example.com"));
+        assertEquals(0, count("sqs.invalid@example.com"));
+        assertEquals(1, count("sqs.dayo@example.com"));
+
+        // a redelivered message finds its email taken
+        response = handler.handleRequest(event(
+                message("m1", body("sqs.ada@example.com", "Ada", "Obi")),
+                message("m6", body("sqs.efe@example.com", "Efe", "Uche"))), new MockLambdaContext());
+
+        assertEquals(List.of(), response.getBatchItemFailures());
+        assertEquals(1, count("sqs.ada@example.com"));
+        assertEquals(1, count("sqs.efe@example.com"));
+    }
+
+    private static SQSEvent event(SQSEvent.SQSMessage... messages) {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(messages));
+        return event;
+    }
+
+    private static SQSEvent.SQSMessage message(String messageId, String body) {
+        SQSEvent.SQSMessage message = new SQSEvent.SQSMessage();
+        message.setMessageId(messageId);
+        message.setBody(body);
+        return message;
+    }
+
+    private static String body(String email, String firstName, String lastName) {
+        return "{\"email\": \"" + email + "\", \"firstName\": \"" + firstName + "\", \"lastName\": \"" + lastName
+                + "\", \"empType\": \"FULL-TIME\", \"salary\": {\"amount\": 3000, \"currency\": \"USD\"}}";
+    }
+
+    private static int count(String email) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(DATABASE_URL, "sa", "");
+                PreparedStatement statement = connection.prepareStatement(
+                        "select count(*) from employee where email_key = ?")) {
+            statement.setString(1, Employee.emailKey(email));
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.cometbid.kubeforce.payroll.metrics.StartupStepRecorder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ *
+ * @author samueladebowale
+ */
+class StartupStepRecorderTest {
+
+    private final StartupStepRecorder recorder = new StartupStepRecorder();
+
+    private final ExecutorService bootstrapThread = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        bootstrapThread.shutdownNow();
+    }
+
+    @DisplayName("a step started on another thread is not nested in the steps of the refresh thread")
+    @Test
+    void testStepOfAnotherThread() {
+        StartupStep outer = recorder.start("spring.context.beans.post-process");
+
+        StartupStep async = CompletableFuture.supplyAsync(() -> recorder.start("spring.beans.instantiate"),
+                bootstrapThread).join();
+        StartupStep bean = recorder.start("spring.beans.instantiate");
+
+        assertNull(async.getParentId());
+        assertEquals(outer.getId(), bean.getParentId());
+
+        async.end();
+        bean.end();
+        outer.end();
+    }
+
+    @DisplayName("a step ended on another thread is no parent of the next steps")
+    @Test
+    void testStepEndedOnAnotherThread() {
+        StartupStep outer = recorder.start("spring.context.beans.post-process");
+        StartupStep handedOver = recorder.start("spring.beans.instantiate");
+
+        CompletableFuture.runAsync(handedOver::end, bootstrapThread).join();
+        StartupStep next = recorder.start("spring.beans.instantiate");
+
+        assertEquals(outer.getId(), next.getParentId());
+
+        next.end();
+        outer.end();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.cometbid.kubeforce.payroll.base.SnowflakeIdGenerator;
+import org.cometbid.kubeforce.payroll.base.UuidV7Generator;
+import org.cometbid.kubeforce.payroll.base.WorkerLeases;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author samueladebowale
+ */
+class UniqueIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 100_000;
+
+    @DisplayName("snowflake ids are unique and increasing per thread under contention")
+    @Test
+    void testSnowflakeConcurrentUniqueness() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(513, System::currentTimeMillis);
+
+        Set<Long> ids = generateConcurrently(generator::getNextUniqueId);
+
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id > 0));
+    }
+
+    @DisplayName("snowflake ids keep increasing when the sequence overflows or the clock steps back")
+    @Test
+    void testSnowflakeMonotonic() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 1_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, clock::get);
+
+        long previous = generator.nextId();
+        // more than the 4096 ids of a millisecond
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+
+        clock.addAndGet(-500);
+        assertTrue(generator.nextId() > previous);
+
+        generator.afterRestore();
+        assertTrue(generator.nextId() > previous);
+    }
+
+    @DisplayName("snowflake ids need a worker id")
+    @Test
+    void testSnowflakeWithoutLease() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator((WorkerLeases) null, System::currentTimeMillis);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @DisplayName("version 7 UUIDs are unique and increasing per thread under contention")
+    @Test
+    void testUuidV7ConcurrentUniqueness() throws Exception {
+        UuidV7Generator generator = new UuidV7Generator(System::currentTimeMillis);
+
+        Set<UUID> ids = generateConcurrently(generator::getNextUniqueId);
+
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id.version() == 7 && id.variant() == 2));
+    }
+
+    @DisplayName("version 7 UUIDs of two nodes on the same clock differ")
+    @Test
+    void testUuidV7Nodes() {
+        UuidV7Generator first = new UuidV7Generator(() -> 1_700_000_000_000L);
+        UuidV7Generator second = new UuidV7Generator(() -> 1_700_000_000_000L);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertNotEquals(first.getNextUniqueId(), second.getNextUniqueId());
+        }
+    }
+
+    private static <T extends Comparable<T>> Set<T> generateConcurrently(Supplier<T> generator) throws Exception {
+        Set<T> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+
+                    T previous = null;
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        T id = generator.get();
+                        assertTrue(previous == null || id.compareTo(previous) > 0);
+                        ids.add(id);
+                        previous = id;
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return ids;
+    }
+}
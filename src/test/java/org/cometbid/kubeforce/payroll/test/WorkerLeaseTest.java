@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2024 samueladebowale.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.cometbid.kubeforce.payroll.test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.cometbid.kubeforce.payroll.base.JdbcWorkerLeases;
+import org.cometbid.kubeforce.payroll.base.SnowflakeIdGenerator;
+import org.cometbid.kubeforce.payroll.base.WorkerLease;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ *
+ * @author samueladebowale
+ */
+class WorkerLeaseTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcWorkerLeases leases;
+
+    private final AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 1_000_000);
+
+    @BeforeEach
+    void init() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:worker-lease;DB_CLOSE_DELAY=-1", "sa", "");
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.leases = new JdbcWorkerLeases(jdbcTemplate, new DataSourceTransactionManager(dataSource), TTL);
+
+        jdbcTemplate.execute("runscript from 'classpath:schema.sql'");
+    }
+
+    @DisplayName("nodes generating at the same time hold different worker ids")
+    @Test
+    void testDistinctWorkerIds() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(leases, clock::get);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(leases, clock::get);
+
+        long firstId = first.nextId();
+        long secondId = second.nextId();
+
+        assertEquals(0, first.getWorkerId());
+        assertEquals(1, second.getWorkerId());
+        assertNotEquals(firstId, secondId);
+    }
+
+    @DisplayName("a lease is renewed while ids are generated and only taken over once expired")
+    @Test
+    void testRenewalAndTakeOver() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(leases, clock::get);
+        first.nextId();
+
+        // past half of the lease, the next id renews it
+        clock.addAndGet(TTL.toMillis() * 3 / 4);
+        first.nextId();
+        clock.addAndGet(TTL.toMillis() / 2);
+
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(leases, clock::get);
+        second.nextId();
+        assertEquals(1, second.getWorkerId());
+
+        // the first generator stops, its lease expires
+        clock.addAndGet(TTL.toMillis() * 2);
+        SnowflakeIdGenerator third = new SnowflakeIdGenerator(leases, clock::get);
+        third.nextId();
+        assertEquals(0, third.getWorkerId());
+
+        assertNull(leases.renew(new WorkerLease(0, "former owner", 0, 0), clock.get()));
+    }
+
+    @DisplayName("a restored generator leases a new worker id and its ids keep increasing")
+    @Test
+    void testAfterRestore() {
+        SnowflakeIdGenerator snapshot = new SnowflakeIdGenerator(leases, clock::get);
+        long previous = snapshot.nextId();
+
+        snapshot.afterRestore();
+
+        assertEquals(1, snapshot.getWorkerId());
+        long next = snapshot.nextId();
+        assertTrue(next > previous);
+        assertEquals(1, (next >>> 12) & 1023);
+    }
+
+    @DisplayName("no more than 1024 worker ids are leased")
+    @Test
+    void testExhausted() {
+        for (int workerId = 0; workerId < 1024; workerId++) {
+            jdbcTemplate.update("insert into worker_lease (worker_id, owner, expires_at) values (?, ?, ?)",
+                    workerId, "node-" + workerId, Long.MAX_VALUE);
+        }
+
+        assertThrows(IllegalStateException.class, () -> leases.acquire("late", clock.get()));
+    }
+}